@@ -0,0 +1,91 @@
+package com.example.projeto_test.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara um resultado do JMH (JSON) com a baseline e falha se algo piorou
+ *
+ * Uso: BenchmarkRegressionCheck <baseline.json> <resultado.json> [tolerância em %]
+ *
+ * Para cada benchmark presente nos dois arquivos (mesmo nome e mesmos @Param):
+ * - Modo "thrpt" (operações por tempo): maior é melhor
+ * - Demais modos (tempo por operação): menor é melhor
+ *
+ * Encerra com código 1 se algum benchmark piorar mais que a tolerância, para
+ * que o build (ou o pipeline de deploy) seja interrompido.
+ */
+public final class BenchmarkRegressionCheck {
+
+    private BenchmarkRegressionCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: BenchmarkRegressionCheck <baseline.json> <resultado.json> [tolerância em %]");
+            System.exit(2);
+        }
+        Path baselinePath = Path.of(args[0]);
+        Path resultPath = Path.of(args[1]);
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        if (!Files.exists(baselinePath)) {
+            System.err.println("Baseline não encontrada: " + baselinePath);
+            System.err.println("Para criá-la, copie um resultado aprovado: cp " + resultPath + " " + baselinePath);
+            System.exit(1);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(baselinePath.toFile()));
+        Map<String, JsonNode> result = index(objectMapper.readTree(resultPath.toFile()));
+
+        int regressions = 0;
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("NOVO     %s%n", entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+
+            // Porcentagem de piora (negativa quando melhorou)
+            double change = (newScore - oldScore) / oldScore * 100.0;
+            double worsening = higherIsBetter ? -change : change;
+            boolean regressed = worsening > tolerance;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf("%-8s %s: %.3f -> %.3f %s (%+.1f%%)%n",
+                    regressed ? "PIOROU" : "OK", entry.getKey(), oldScore, newScore,
+                    after.path("primaryMetric").path("scoreUnit").asText(), change);
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) pioraram mais de %.1f%% em relação à baseline%n", regressions, tolerance);
+            System.exit(1);
+        }
+        System.out.println("Nenhuma regressão acima de " + tolerance + "%");
+    }
+
+    /**
+     * Indexa os resultados por "benchmark {parâmetros}"
+     */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byName = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            String name = result.path("benchmark").asText();
+            JsonNode params = result.path("params");
+            byName.put(params.isMissingNode() ? name : name + " " + params, result);
+        }
+        return byName;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.projeto_test.benchmarks;
+
+import com.example.projeto_test.config.ClientRateLimiter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do custo do limite de taxa por requisição (ClientRateLimiter)
+ *
+ * - sameClient: um único cliente (quase todas as chamadas são rejeitadas depois
+ *   do burst, o caminho de um cliente barulhento)
+ * - manyClients: 10.000 clientes sorteados (busca no Caffeine sem acerto no cache
+ *   da CPU, o caminho comum em produção)
+ *
+ * O objetivo é ficar bem abaixo de 1 µs por requisição. Com várias threads, o
+ * sameClient mede também a disputa pelo CAS do mesmo balde:
+ * ../mvnw compile exec:exec@run -Djmh.args="ClientRateLimiter -t 8"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientRateLimiterBenchmark {
+
+    private static final int CLIENTS = 10_000;
+
+    private ClientRateLimiter rateLimiter;
+    private String[] clients;
+
+    @Setup(Level.Trial)
+    public void createLimiter() {
+        // Mesmas cotas padrão do application.properties
+        rateLimiter = new ClientRateLimiter(200, 400, 50, 100, 10, 30, 100_000);
+        clients = new String[CLIENTS];
+        for (int i = 0; i < CLIENTS; i++) {
+            clients[i] = "10." + (i >> 16) + "." + ((i >> 8) & 0xFF) + "." + (i & 0xFF);
+        }
+    }
+
+    @Benchmark
+    public long sameClient() {
+        return rateLimiter.tryAcquire("10.0.0.1", ClientRateLimiter.Quota.READ);
+    }
+
+    @Benchmark
+    public long manyClients() {
+        return rateLimiter.tryAcquire(clients[ThreadLocalRandom.current().nextInt(CLIENTS)], ClientRateLimiter.Quota.READ);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.projeto_test.benchmarks;
+
+import com.example.projeto_test.exception.GlobalExceptionHandler;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do caminho "produto não encontrado" no GlobalExceptionHandler
+ *
+ * Separa o custo de criar a exceção (preencher o stack trace) do custo de
+ * montar a resposta 404. O caminho completo, com a busca no banco, está em
+ * ProductServiceBenchmark.notFound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final RuntimeException notFound = new RuntimeException("Produto não encontrado");
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> createAndHandle() {
+        return handler.handleRuntimeException(new RuntimeException("Produto não encontrado"));
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, String>> handleOnly() {
+        return handler.handleRuntimeException(notFound);
+    }
+}
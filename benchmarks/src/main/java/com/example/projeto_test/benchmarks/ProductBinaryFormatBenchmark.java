@@ -0,0 +1,80 @@
+package com.example.projeto_test.benchmarks;
+
+import com.example.projeto_test.model.Product;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark de JSON x CBOR x Smile para List<Product> (tamanho e tempo)
+ *
+ * Mede o tempo para codificar e decodificar uma página de produtos em cada
+ * formato aceito pelo ProductController (veja BinaryFormatsConfig). O tamanho do
+ * payload de cada combinação é impresso no início de cada fork, por exemplo:
+ * [payload] format=smile listSize=500 bytes=...
+ *
+ * Os ObjectMappers saem do Jackson2ObjectMapperBuilder, como na aplicação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductBinaryFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    /**
+     * Tamanhos de lista: uma página padrão e uma página máxima do GET /products
+     */
+    @Param({"50", "500"})
+    private int listSize;
+
+    private List<Product> products;
+    private byte[] payload;
+    private ObjectWriter listWriter;
+    private ObjectReader listReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException("Formato desconhecido: " + format);
+        };
+        TypeReference<List<Product>> listType = new TypeReference<>() { };
+        listWriter = objectMapper.writerFor(listType);
+        listReader = objectMapper.readerFor(listType);
+
+        products = IntStream.range(0, listSize)
+                .mapToObj(i -> new Product(100_000L + i, "Produto de catálogo " + i, 1_000 + i * 37, (long) (i % 5)))
+                .toList();
+        payload = listWriter.writeValueAsBytes(products);
+        System.out.printf("%n[payload] format=%s listSize=%d bytes=%d (%.1f bytes/produto)%n",
+                format, listSize, payload.length, (double) payload.length / listSize);
+    }
+
+    @Benchmark
+    public byte[] encodeList() throws IOException {
+        return listWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public List<Product> decodeList() throws IOException {
+        return listReader.readValue(payload);
+    }
+}
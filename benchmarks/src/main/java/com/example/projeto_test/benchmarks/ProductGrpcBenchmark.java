@@ -0,0 +1,162 @@
+package com.example.projeto_test.benchmarks;
+
+import com.example.projeto_test.ProjetoTestApplication;
+import com.example.projeto_test.dto.ProductBatchResult;
+import com.example.projeto_test.grpc.GrpcServer;
+import com.example.projeto_test.grpc.proto.GetProductRequest;
+import com.example.projeto_test.grpc.proto.ListProductsRequest;
+import com.example.projeto_test.grpc.proto.ProductCatalogGrpc;
+import com.example.projeto_test.grpc.proto.ProductMessage;
+import com.example.projeto_test.model.Product;
+import com.example.projeto_test.service.ProductService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.grpc.Grpc;
+import io.grpc.InsecureChannelCredentials;
+import io.grpc.ManagedChannel;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark de ponta a ponta: REST (JSON sobre HTTP/1.1) x gRPC (protobuf sobre HTTP/2)
+ *
+ * Sobe a aplicação completa (Tomcat na server.port e GrpcServer na app.grpc.port,
+ * ambos em portas livres) e mede o caminho inteiro de cada chamada pela rede
+ * local, incluindo a leitura da resposta no cliente:
+ * - restGetProduct x grpcGetProduct: GET /products/{id} x GetProduct
+ * - restCatalog x grpcCatalog: GET /products/export (NDJSON) x ListProducts (stream)
+ *
+ * Os dois lados chegam ao mesmo ProductService (e ao mesmo cache), então a
+ * diferença é o custo de transporte e serialização.
+ *
+ * Para ver o efeito da multiplexação, rode com várias threads: o gRPC divide UM
+ * canal HTTP/2 entre elas, o HttpClient abre uma conexão HTTP/1.1 por requisição
+ * simultânea:
+ * ../mvnw compile exec:exec@run -Djmh.args="ProductGrpc -t 8"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductGrpcBenchmark {
+
+    private static final int SEED_PRODUCTS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private long[] ids;
+
+    private HttpClient http;
+    private URI baseUri;
+    private ObjectReader productReader;
+
+    private ManagedChannel channel;
+    private ProductCatalogGrpc.ProductCatalogBlockingStub stub;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ProjetoTestApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties(
+                        "server.port=0",
+                        "app.grpc.port=0",
+                        // Um único cliente com várias threads passaria das cotas de leitura
+                        "app.ratelimit.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        List<Product> seed = IntStream.range(0, SEED_PRODUCTS)
+                .mapToObj(i -> new Product(null, "Produto " + i, 1_000 + i, null))
+                .toList();
+        ids = context.getBean(ProductService.class).createProducts(seed).stream()
+                .map(ProductBatchResult::product)
+                .mapToLong(Product::getId)
+                .toArray();
+
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+        productReader = context.getBean(ObjectMapper.class).readerFor(Product.class);
+
+        channel = Grpc.newChannelBuilderForAddress("localhost", context.getBean(GrpcServer.class).getPort(),
+                        InsecureChannelCredentials.create())
+                .build();
+        stub = ProductCatalogGrpc.newBlockingStub(channel);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public Product restGetProduct() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/products/" + randomId())).build();
+        try (InputStream body = http.send(request, HttpResponse.BodyHandlers.ofInputStream()).body()) {
+            return productReader.readValue(body);
+        }
+    }
+
+    @Benchmark
+    public ProductMessage grpcGetProduct() {
+        return stub.getProduct(GetProductRequest.newBuilder().setId(randomId()).build());
+    }
+
+    /**
+     * Catálogo inteiro em NDJSON, lido produto a produto
+     */
+    @Benchmark
+    public long restCatalog() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve("/products/export")).build();
+        long count = 0;
+        try (InputStream body = http.send(request, HttpResponse.BodyHandlers.ofInputStream()).body();
+             MappingIterator<Product> products = productReader.readValues(body)) {
+            while (products.hasNext()) {
+                products.next();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Catálogo inteiro pelo ListProducts, em páginas de MAX_PAGE_SIZE
+     */
+    @Benchmark
+    public long grpcCatalog() {
+        ListProductsRequest request = ListProductsRequest.newBuilder()
+                .setPageSize(ProductService.MAX_PAGE_SIZE)
+                .build();
+        long count = 0;
+        Iterator<ProductMessage> products = stub.listProducts(request);
+        while (products.hasNext()) {
+            products.next();
+            count++;
+        }
+        return count;
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
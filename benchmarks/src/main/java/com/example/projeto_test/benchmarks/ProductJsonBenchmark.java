@@ -0,0 +1,73 @@
+package com.example.projeto_test.benchmarks;
+
+import com.example.projeto_test.model.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark da serialização JSON (Jackson) de Product e List<Product>
+ *
+ * O ObjectMapper é criado pelo Jackson2ObjectMapperBuilder, com as mesmas
+ * configurações padrão que o Spring Boot usa nas respostas HTTP.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductJsonBenchmark {
+
+    /**
+     * Tamanhos de lista: uma página padrão e uma página máxima do GET /products
+     */
+    @Param({"50", "500"})
+    private int listSize;
+
+    private Product product;
+    private List<Product> products;
+    private byte[] productJson;
+    private ObjectWriter productWriter;
+    private ObjectWriter listWriter;
+    private ObjectReader productReader;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        productWriter = objectMapper.writerFor(Product.class);
+        listWriter = objectMapper.writerFor(new TypeReference<List<Product>>() { });
+        productReader = objectMapper.readerFor(Product.class);
+
+        product = new Product(1L, "Notebook Dell Inspiron", 250_000, 3L);
+        products = IntStream.range(0, listSize)
+                .mapToObj(i -> new Product((long) i, "Produto " + i, 1_000 + i, 0L))
+                .toList();
+        productJson = productWriter.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws JsonProcessingException {
+        return productWriter.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return listWriter.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public Product deserializeProduct() throws IOException {
+        return productReader.readValue(productJson);
+    }
+}
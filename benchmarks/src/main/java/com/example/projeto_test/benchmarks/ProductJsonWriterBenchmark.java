@@ -0,0 +1,115 @@
+package com.example.projeto_test.benchmarks;
+
+import com.example.projeto_test.config.ProductJsonWriter;
+import com.example.projeto_test.dto.ProductPage;
+import com.example.projeto_test.model.Product;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark do ProductJsonWriter x serializer de bean padrão do Jackson
+ *
+ * Os dois lados escrevem no mesmo OutputStream reaproveitado (como o buffer da
+ * resposta HTTP), para que a comparação meça só a serialização, e não a cópia
+ * para um byte[] novo. Rode com -prof gc para comparar a alocação por operação.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductJsonWriterBenchmark {
+
+    /**
+     * Tamanhos de página: uma página padrão e uma página máxima do GET /products
+     */
+    @Param({"50", "500"})
+    private int listSize;
+
+    private Product product;
+    private ProductPage page;
+    private Map<String, String> error;
+    private ObjectWriter productWriter;
+    private ObjectWriter pageWriter;
+    private ObjectWriter errorWriter;
+    private ByteArrayOutputStream sink;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        productWriter = objectMapper.writerFor(Product.class);
+        pageWriter = objectMapper.writerFor(ProductPage.class);
+        errorWriter = objectMapper.writerFor(new TypeReference<Map<String, String>>() { });
+
+        product = new Product(1L, "Notebook Dell Inspiron", 250_000, 3L);
+        List<Product> products = IntStream.range(0, listSize)
+                .mapToObj(i -> new Product((long) i, "Produto " + i, 1_000 + i, 0L))
+                .toList();
+        page = new ProductPage(products, ProductPage.encodeCursor((long) listSize));
+        error = new HashMap<>();
+        error.put("message", "Produto não encontrado com id: 42");
+        error.put("status", "404");
+        sink = new ByteArrayOutputStream(64 * 1024);
+    }
+
+    @Benchmark
+    public int jacksonProduct() throws IOException {
+        sink.reset();
+        productWriter.writeValue(sink, product);
+        return sink.size();
+    }
+
+    @Benchmark
+    public int writerProduct() throws IOException {
+        sink.reset();
+        try (ProductJsonWriter json = ProductJsonWriter.open(sink)) {
+            json.writeProduct(product);
+        }
+        return sink.size();
+    }
+
+    @Benchmark
+    public int jacksonPage() throws IOException {
+        sink.reset();
+        pageWriter.writeValue(sink, page);
+        return sink.size();
+    }
+
+    @Benchmark
+    public int writerPage() throws IOException {
+        sink.reset();
+        try (ProductJsonWriter json = ProductJsonWriter.open(sink)) {
+            json.writePage(page);
+        }
+        return sink.size();
+    }
+
+    @Benchmark
+    public int jacksonError() throws IOException {
+        sink.reset();
+        errorWriter.writeValue(sink, error);
+        return sink.size();
+    }
+
+    @Benchmark
+    public int writerError() throws IOException {
+        sink.reset();
+        try (ProductJsonWriter json = ProductJsonWriter.open(sink)) {
+            json.writeStringMap(error);
+        }
+        return sink.size();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.projeto_test.benchmarks;
+
+import com.example.projeto_test.ProjetoTestApplication;
+import com.example.projeto_test.dto.ProductBatchResult;
+import com.example.projeto_test.model.Product;
+import com.example.projeto_test.repository.ProductRepository;
+import com.example.projeto_test.service.ProductService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark das leituras: entidades gerenciadas x projeção (alocação por leitura)
+ *
+ * Executa as mesmas consultas de duas formas, cada uma com um EntityManager
+ * aberto e fechado por operação (como uma requisição):
+ * - entity*: SELECT p FROM Product p (o caminho antigo: entidades gerenciadas,
+ *   registradas no contexto de persistência e com cópia para dirty checking)
+ * - projection*: SELECT new Product(...) (ProductRepository.PRODUCT_VIEW, o caminho
+ *   atual de GET /products e GET /products/{id}: objetos comuns)
+ *
+ * O que interessa aqui é a ALOCAÇÃO, não só o tempo. Rode com o profiler de GC:
+ * ../mvnw compile exec:exec@run -Djmh.args="ProductRead -prof gc"
+ * e compare gc.alloc.rate.norm (bytes alocados por operação) de cada par.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductReadBenchmark {
+
+    private static final int SEED_PRODUCTS = 10_000;
+
+    private static final String ENTITY_PAGE = "SELECT p FROM Product p WHERE p.id > :id ORDER BY p.id";
+    private static final String PROJECTION_PAGE =
+            "SELECT " + ProductRepository.PRODUCT_VIEW + " FROM Product p WHERE p.id > :id ORDER BY p.id";
+    private static final String PROJECTION_BY_ID =
+            "SELECT " + ProductRepository.PRODUCT_VIEW + " FROM Product p WHERE p.id = :id";
+
+    private ConfigurableApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ProjetoTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        // Sem web o GrpcServer sobe mesmo assim: porta livre para não colidir com a aplicação
+                        "app.grpc.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+
+        List<Product> seed = IntStream.range(0, SEED_PRODUCTS)
+                .mapToObj(i -> new Product(null, "Produto " + i, 1_000 + i, null))
+                .toList();
+        ids = context.getBean(ProductService.class).createProducts(seed).stream()
+                .map(ProductBatchResult::product)
+                .mapToLong(Product::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Product> entityPage() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(ENTITY_PAGE, Product.class)
+                    .setParameter("id", randomId())
+                    .setMaxResults(ProductService.DEFAULT_PAGE_SIZE)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public List<Product> projectionPage() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(PROJECTION_PAGE, Product.class)
+                    .setParameter("id", randomId())
+                    .setMaxResults(ProductService.DEFAULT_PAGE_SIZE)
+                    .getResultList();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public Product entityById() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.find(Product.class, randomId());
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    @Benchmark
+    public Product projectionById() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            return entityManager.createQuery(PROJECTION_BY_ID, Product.class)
+                    .setParameter("id", randomId())
+                    .getSingleResult();
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
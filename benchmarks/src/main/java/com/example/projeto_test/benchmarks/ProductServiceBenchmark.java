@@ -0,0 +1,128 @@
+package com.example.projeto_test.benchmarks;
+
+import com.example.projeto_test.ProjetoTestApplication;
+import com.example.projeto_test.cache.ProductCache;
+import com.example.projeto_test.dto.ProductBatchResult;
+import com.example.projeto_test.dto.ProductPage;
+import com.example.projeto_test.exception.GlobalExceptionHandler;
+import com.example.projeto_test.model.Product;
+import com.example.projeto_test.service.ProductService;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark do CRUD do ProductService sobre o H2 em memória
+ *
+ * Sobe o contexto Spring completo (JPA, cache, transações), sem servidor web,
+ * e mede cada operação do serviço como o controller a chama.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    private static final int SEED_PRODUCTS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private ProductService productService;
+    private ProductCache productCache;
+    private GlobalExceptionHandler exceptionHandler;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ProjetoTestApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        // Sem web o GrpcServer sobe mesmo assim: porta livre para não colidir com a aplicação
+                        "app.grpc.port=0",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        productService = context.getBean(ProductService.class);
+        productCache = context.getBean(ProductCache.class);
+        exceptionHandler = context.getBean(GlobalExceptionHandler.class);
+
+        List<Product> seed = IntStream.range(0, SEED_PRODUCTS)
+                .mapToObj(i -> new Product(null, "Produto " + i, 1_000 + i, null))
+                .toList();
+        ids = productService.createProducts(seed).stream()
+                .map(ProductBatchResult::product)
+                .mapToLong(Product::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Product create() {
+        return productService.createProduct(new Product(null, "Notebook", 250_000, null));
+    }
+
+    @Benchmark
+    public Product readCached() {
+        return productService.getProductById(randomId());
+    }
+
+    @Benchmark
+    public Product readUncached() {
+        long id = randomId();
+        productCache.evict(id);
+        return productService.getProductById(id);
+    }
+
+    @Benchmark
+    public ProductPage readFirstPage() {
+        return productService.getProductsPage(null, ProductService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Product update() {
+        return productService.updateProduct(randomId(), new Product(null, "Atualizado", 2_000, null));
+    }
+
+    /**
+     * DELETE precisa de uma linha nova a cada chamada, então mede criar + deletar
+     * (subtraia o resultado de create() para estimar o custo do delete)
+     */
+    @Benchmark
+    public void createAndDelete() {
+        Product product = productService.createProduct(new Product(null, "Temporário", 1_000, null));
+        productService.deleteProduct(product.getId());
+    }
+
+    /**
+     * Caminho completo do 404: busca no cache, consulta no banco, exceção e
+     * resposta montada pelo GlobalExceptionHandler
+     */
+    @Benchmark
+    public ResponseEntity<Map<String, String>> notFound() {
+        try {
+            productService.getProductById(-1L);
+        } catch (RuntimeException ex) {
+            return exceptionHandler.handleRuntimeException(ex);
+        }
+        throw new IllegalStateException("O produto -1 não deveria existir");
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.projeto_test.benchmarks;
+
+import com.example.projeto_test.model.Product;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do Bean Validation (@NotBlank / @Positive) do Product
+ *
+ * O caso inválido inclui a montagem das mensagens de erro (interpolação),
+ * que é o custo extra de um POST /products com dados inválidos.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private Product validProduct;
+    private Product invalidProduct;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        validProduct = new Product(null, "Notebook", 250_000, null);
+        invalidProduct = new Product(null, "   ", -1, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Product>> validProduct() {
+        return validator.validate(validProduct);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<Product>> invalidProduct() {
+        return validator.validate(invalidProduct);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sobe uma das aplicações em um processo Java separado, com banco embarcado
+ *
+ * - h2: projeto_test (o H2 em memória já é o banco padrão)
+ * - postgres: projeto-postgres apontando para um PostgreSQL embarcado (binário
+ *   baixado pelo zonky embedded-postgres), iniciado por este processo
+ *
+ * A aplicação roda em outra JVM para que o gerador de carga não dispute CPU,
+ * memória e GC com o servidor medido dentro do mesmo processo.
+ */
+final class AppLauncher implements AutoCloseable {
+
+    private final Process process;
+    private final EmbeddedPostgres postgres;
+    private final URI baseUri;
+
+    private AppLauncher(Process process, EmbeddedPostgres postgres, URI baseUri) {
+        this.process = process;
+        this.postgres = postgres;
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Inicia a aplicação e espera ela responder em GET /products
+     *
+     * @param app "h2" ou "postgres"
+     * @param jar O jar executável da aplicação
+     * @param extraArgs Argumentos extras repassados à aplicação (ex: --spring.threads.virtual.enabled=true)
+     * @param jvmArgs Argumentos extras da JVM da aplicação (ex: -Xmx1g)
+     * @param log Arquivo onde a saída da aplicação é gravada
+     */
+    static AppLauncher start(String app, Path jar, List<String> extraArgs, List<String> jvmArgs, Path log)
+            throws IOException, InterruptedException {
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException("Jar não encontrado: " + jar + " (execute mvn package no projeto)");
+        }
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        // Liga a Vector API das análises de preço (sem ela, a aplicação usa os laços escalares)
+        command.add("--add-modules=jdk.incubator.vector");
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.add("--spring.jpa.show-sql=false");
+
+        EmbeddedPostgres postgres = null;
+        switch (app) {
+            case "h2" -> command.add("--spring.h2.console.enabled=false");
+            case "postgres" -> {
+                postgres = EmbeddedPostgres.start();
+                command.add("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres")
+                        + "&reWriteBatchedInserts=true");
+                command.add("--spring.datasource.username=postgres");
+                command.add("--spring.datasource.password=postgres");
+                command.add("--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres");
+            }
+            default -> throw new IllegalArgumentException("Aplicação desconhecida: " + app + " (use h2 ou postgres)");
+        }
+        // O teste de carga é um único cliente: sem isto, o limite de taxa por cliente
+        // responderia 429 bem antes da saturação (ligue com --app-args=--app.ratelimit.enabled=true)
+        if (extraArgs.stream().noneMatch(arg -> arg.startsWith("--app.ratelimit.enabled="))) {
+            command.add("--app.ratelimit.enabled=false");
+        }
+        command.addAll(extraArgs);
+
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        AppLauncher launcher = new AppLauncher(process, postgres, URI.create("http://localhost:" + port));
+        try {
+            launcher.awaitReady(Duration.ofMinutes(2), log);
+        } catch (IOException | RuntimeException | InterruptedException ex) {
+            launcher.close();
+            throw ex;
+        }
+        return launcher;
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    private void awaitReady(Duration timeout, Path log) throws IOException, InterruptedException {
+        HttpClient http = HttpClient.newHttpClient();
+        HttpRequest probe = HttpRequest.newBuilder(baseUri.resolve("/products?limit=1"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("A aplicação encerrou durante a inicialização, veja " + log);
+            }
+            try {
+                if (http.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException ex) {
+                // Ainda subindo: tenta de novo
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("A aplicação não respondeu em " + timeout + ", veja " + log);
+    }
+
+    @Override
+    public void close() throws IOException {
+        process.destroy();
+        try {
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException ex) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
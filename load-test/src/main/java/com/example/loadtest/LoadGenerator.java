@@ -0,0 +1,257 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga com taxa de chegada fixa (modelo aberto)
+ *
+ * As requisições são disparadas em horários pré-definidos (início + i / taxa),
+ * cada uma em sua própria thread virtual, independentemente de as anteriores já
+ * terem respondido. Isso imita usuários reais: eles não esperam o servidor ficar
+ * livre para chegar.
+ *
+ * COORDINATED OMISSION:
+ * Um gerador em circuito fechado (envia, espera, envia) para de enviar quando o
+ * servidor trava, e as requisições que DEVERIAM ter sido enviadas nesse período
+ * nunca são medidas: os percentis saem otimistas. Aqui a latência de resposta é
+ * medida a partir do horário PREVISTO de envio, não do horário real. Se o gerador
+ * atrasar (ou o servidor segurar conexões), esse atraso entra na medição.
+ * O tempo de serviço (do envio real até a resposta) também é registrado, para comparação.
+ */
+final class LoadGenerator {
+
+    /** Maior latência registrável nos histogramas (valores acima são limitados) */
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final String PRODUCT_JSON = "{\"name\":\"Produto de carga\",\"priceInCents\":%d}";
+
+    private final HttpClient http;
+    private final URI baseUri;
+    private final Operation.Mix mix;
+    private final ProductIds ids = new ProductIds();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int maxInFlight;
+
+    LoadGenerator(URI baseUri, Operation.Mix mix, int maxInFlight) {
+        this.baseUri = baseUri;
+        this.mix = mix;
+        this.maxInFlight = maxInFlight;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Cria produtos iniciais com POST /products/batch, para que GET/PUT/DELETE
+     * tenham ids existentes desde o início
+     */
+    void seed(int count) throws IOException, InterruptedException {
+        int chunk = 1_000;
+        for (int created = 0; created < count; created += chunk) {
+            int size = Math.min(chunk, count - created);
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < size; i++) {
+                body.append(i == 0 ? "" : ",").append(PRODUCT_JSON.formatted(1_000 + i));
+            }
+            body.append(']');
+            HttpResponse<String> response = http.send(json(URI.create(baseUri + "/products/batch"), "POST", body.toString()),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("Falha ao criar produtos iniciais: HTTP " + response.statusCode());
+            }
+            for (JsonNode result : objectMapper.readTree(response.body())) {
+                ids.add(result.path("product").path("id").asLong());
+            }
+        }
+    }
+
+    /**
+     * Executa uma etapa com taxa fixa
+     *
+     * @param rate Requisições por segundo
+     * @param duration Duração da etapa
+     * @return As medições da etapa
+     */
+    StepResult run(double rate, Duration duration) throws InterruptedException {
+        StepResult result = new StepResult(rate);
+        long total = (long) (rate * duration.toNanos() / 1e9);
+        AtomicLong inFlight = new AtomicLong();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long start = System.nanoTime();
+            for (long i = 0; i < total; i++) {
+                long intended = start + (long) (i * 1e9 / rate);
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (inFlight.get() >= maxInFlight) {
+                    // Servidor saturado: a requisição é descartada (e contada), não adiada
+                    result.dropped.increment();
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                executor.execute(() -> {
+                    try {
+                        send(intended, result);
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+            // O close() do executor espera as requisições em andamento terminarem
+        }
+        result.finish();
+        return result;
+    }
+
+    private void send(long intended, StepResult result) {
+        Operation operation = mix.pick(ThreadLocalRandom.current().nextDouble());
+        long id = switch (operation) {
+            case GET, PUT -> ids.random();
+            case DELETE -> ids.take();
+            case LIST, POST -> 0;
+        };
+        // Sem produtos para ler/alterar: cria um
+        if (id < 0) {
+            operation = Operation.POST;
+        }
+        HttpRequest request = request(operation, id);
+
+        long sent = System.nanoTime();
+        int status;
+        String body;
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            status = response.statusCode();
+            body = response.body();
+        } catch (IOException ex) {
+            status = -1;
+            body = null;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long end = System.nanoTime();
+
+        result.record(operation, status, end - intended, end - sent);
+        if (operation == Operation.POST && status == 201) {
+            try {
+                ids.add(objectMapper.readTree(body).path("id").asLong());
+            } catch (IOException ex) {
+                // Resposta inesperada: o id não é reaproveitado
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation, long id) {
+        int price = 1_000 + ThreadLocalRandom.current().nextInt(100_000);
+        return switch (operation) {
+            case GET -> HttpRequest.newBuilder(URI.create(baseUri + "/products/" + id)).timeout(Duration.ofSeconds(30)).build();
+            case LIST -> HttpRequest.newBuilder(URI.create(baseUri + "/products?limit=20")).timeout(Duration.ofSeconds(30)).build();
+            case POST -> json(URI.create(baseUri + "/products"), "POST", PRODUCT_JSON.formatted(price));
+            case PUT -> json(URI.create(baseUri + "/products/" + id), "PUT", PRODUCT_JSON.formatted(price));
+            case DELETE -> HttpRequest.newBuilder(URI.create(baseUri + "/products/" + id)).timeout(Duration.ofSeconds(30)).DELETE().build();
+        };
+    }
+
+    private static HttpRequest json(URI uri, String method, String body) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    /**
+     * Medições de uma etapa (uma taxa)
+     */
+    static final class StepResult {
+
+        final double targetRate;
+        final LongAdder dropped = new LongAdder();
+        final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private final Recorder responseTime = new Recorder(MAX_LATENCY_NANOS, 3);
+        private final Recorder serviceTime = new Recorder(MAX_LATENCY_NANOS, 3);
+        private final Map<Operation, Recorder> byOperation = new EnumMap<>(Operation.class);
+        private final long startNanos = System.nanoTime();
+
+        Histogram responseHistogram;
+        Histogram serviceHistogram;
+        Map<Operation, Histogram> operationHistograms = new EnumMap<>(Operation.class);
+        double elapsedSeconds;
+
+        StepResult(double targetRate) {
+            this.targetRate = targetRate;
+            for (Operation operation : Operation.values()) {
+                byOperation.put(operation, new Recorder(MAX_LATENCY_NANOS, 3));
+            }
+        }
+
+        void record(Operation operation, int status, long responseNanos, long serviceNanos) {
+            long response = Math.min(responseNanos, MAX_LATENCY_NANOS);
+            responseTime.recordValue(response);
+            serviceTime.recordValue(Math.min(serviceNanos, MAX_LATENCY_NANOS));
+            byOperation.get(operation).recordValue(response);
+            statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+
+        void finish() {
+            elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+            responseHistogram = responseTime.getIntervalHistogram();
+            serviceHistogram = serviceTime.getIntervalHistogram();
+            byOperation.forEach((operation, recorder) -> {
+                Histogram histogram = recorder.getIntervalHistogram();
+                if (histogram.getTotalCount() > 0) {
+                    operationHistograms.put(operation, histogram);
+                }
+            });
+        }
+
+        double achievedRate() {
+            return responseHistogram.getTotalCount() / elapsedSeconds;
+        }
+
+        /**
+         * Respostas que não são 2xx (inclui falhas de conexão, status -1)
+         */
+        long errors() {
+            return statuses.entrySet().stream()
+                    .filter(entry -> entry.getKey() < 200 || entry.getKey() > 299)
+                    .mapToLong(entry -> entry.getValue().sum())
+                    .sum();
+        }
+
+        SortedMap<Integer, Long> statusCounts() {
+            SortedMap<Integer, Long> counts = new TreeMap<>();
+            statuses.forEach((status, count) -> counts.put(status, count.sum()));
+            return counts;
+        }
+    }
+}
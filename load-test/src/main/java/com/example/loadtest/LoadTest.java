@@ -0,0 +1,184 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Teste de Carga da API /products
+ *
+ * Sobe a aplicação escolhida com banco embarcado (ou usa uma já em execução),
+ * cria produtos iniciais e aplica uma sequência de taxas fixas de requisições.
+ * Para cada taxa, mostra a vazão obtida e os percentis de latência corrigidos
+ * para coordinated omission (veja LoadGenerator).
+ *
+ * A primeira taxa em que a vazão fica abaixo de 95% do alvo, ou o p99 passa do
+ * SLO, é o ponto de saturação: o teste para ali (a menos que --continue seja usado).
+ *
+ * Exemplo (em load-test/):
+ * mvn compile exec:java -Dexec.args="--app=postgres --rates=250,500,1000,2000 --duration=30"
+ *
+ * Opções (todas no formato --nome=valor):
+ * --app          h2 (padrão) ou postgres
+ * --jar          Jar executável da aplicação (padrão: o jar gerado pelo mvn package do projeto)
+ * --url          Usa uma aplicação já em execução (não sobe nenhum processo)
+ * --app-args     Argumentos extras da aplicação, separados por espaço
+ * --jvm-args     Argumentos extras da JVM da aplicação, separados por espaço
+ * --rates        Taxas em requisições por segundo (padrão: 100,200,400,800,1600)
+ * --duration     Segundos por taxa (padrão: 30)
+ * --warmup       Segundos de aquecimento na primeira taxa, sem medição (padrão: 10)
+ * --mix          Mistura de operações (padrão: get:70,list:5,post:10,put:10,delete:5)
+ * --seed         Produtos criados antes do teste (padrão: 10000)
+ * --slo-p99-ms   p99 máximo aceitável, em ms (padrão: 100)
+ * --max-in-flight Requisições simultâneas antes de descartar novas (padrão: 10000)
+ * --output       Pasta dos histogramas .hgrm (padrão: target/loadtest)
+ * --continue     Continua nas taxas seguintes mesmo depois de saturar
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        String app = options.getOrDefault("app", "h2");
+        double[] rates = Arrays.stream(options.getOrDefault("rates", "100,200,400,800,1600").split(","))
+                .mapToDouble(rate -> Double.parseDouble(rate.trim()))
+                .toArray();
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration", "30")));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup", "10")));
+        Operation.Mix mix = Operation.Mix.parse(options.getOrDefault("mix", "get:70,list:5,post:10,put:10,delete:5"));
+        int seed = Integer.parseInt(options.getOrDefault("seed", "10000"));
+        double sloMillis = Double.parseDouble(options.getOrDefault("slo-p99-ms", "100"));
+        int maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "10000"));
+        Path output = Path.of(options.getOrDefault("output", "target/loadtest"));
+        boolean keepGoing = options.containsKey("continue");
+        Files.createDirectories(output);
+
+        AppLauncher launcher = null;
+        URI baseUri;
+        if (options.containsKey("url")) {
+            baseUri = URI.create(options.get("url"));
+        } else {
+            Path jar = Path.of(options.getOrDefault("jar", defaultJar(app)));
+            System.out.printf("Subindo %s (%s)...%n", app, jar);
+            launcher = AppLauncher.start(app, jar, split(options.get("app-args")), split(options.get("jvm-args")),
+                    output.resolve("app-" + app + ".log"));
+            baseUri = launcher.baseUri();
+        }
+
+        try {
+            LoadGenerator generator = new LoadGenerator(baseUri, mix, maxInFlight);
+            System.out.printf("Criando %d produtos iniciais em %s...%n", seed, baseUri);
+            generator.seed(seed);
+
+            if (!warmup.isZero()) {
+                System.out.printf("Aquecendo por %ds a %.0f req/s...%n", warmup.toSeconds(), rates[0]);
+                generator.run(rates[0], warmup);
+            }
+
+            System.out.printf("%n%10s %10s %9s %9s %9s %9s %9s %8s %8s%n",
+                    "alvo/s", "obtido/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "serv p99", "erros", "descart.");
+            List<LoadGenerator.StepResult> steps = new ArrayList<>();
+            for (double rate : rates) {
+                LoadGenerator.StepResult step = generator.run(rate, duration);
+                steps.add(step);
+                boolean saturated = printStep(step, sloMillis);
+                writeHistograms(step, output);
+                if (saturated && !keepGoing) {
+                    break;
+                }
+            }
+
+            printDetails(steps.getLast());
+            System.out.printf("%nHistogramas (.hgrm) em %s — podem ser plotados em "
+                    + "https://hdrhistogram.github.io/HdrHistogram/plotFiles.html%n", output.toAbsolutePath());
+        } finally {
+            if (launcher != null) {
+                launcher.close();
+            }
+        }
+    }
+
+    /**
+     * Imprime a linha da etapa e diz se ela saturou
+     */
+    private static boolean printStep(LoadGenerator.StepResult step, double sloMillis) {
+        Histogram response = step.responseHistogram;
+        double p99 = millis(response.getValueAtPercentile(99));
+        boolean saturated = step.achievedRate() < step.targetRate * 0.95 || p99 > sloMillis
+                || step.dropped.sum() > 0;
+        System.out.printf("%10.0f %10.0f %9.2f %9.2f %9.2f %9.2f %9.2f %8d %8d%s%n",
+                step.targetRate, step.achievedRate(),
+                millis(response.getValueAtPercentile(50)), p99,
+                millis(response.getValueAtPercentile(99.9)), millis(response.getMaxValue()),
+                millis(step.serviceHistogram.getValueAtPercentile(99)),
+                step.errors(), step.dropped.sum(),
+                saturated ? "  <- SATURADO" : "");
+        return saturated;
+    }
+
+    /**
+     * Percentis por operação e contagem de status HTTP da última etapa
+     */
+    private static void printDetails(LoadGenerator.StepResult step) {
+        System.out.printf("%nÚltima etapa (%.0f req/s) por operação:%n", step.targetRate);
+        step.operationHistograms.forEach((operation, histogram) -> System.out.printf(
+                "%-7s n=%-8d p50=%.2fms p99=%.2fms p99.9=%.2fms%n", operation, histogram.getTotalCount(),
+                millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9))));
+        System.out.println("Status HTTP: " + step.statusCounts() + " (-1 = falha de conexão/timeout)");
+    }
+
+    private static void writeHistograms(LoadGenerator.StepResult step, Path output) throws IOException {
+        String name = "rate-" + (long) step.targetRate;
+        try (PrintStream out = new PrintStream(Files.newOutputStream(output.resolve(name + "-response.hgrm")))) {
+            step.responseHistogram.outputPercentileDistribution(out, 1e6);
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(output.resolve(name + "-service.hgrm")))) {
+            step.serviceHistogram.outputPercentileDistribution(out, 1e6);
+        }
+    }
+
+    private static String defaultJar(String app) {
+        return switch (app) {
+            case "h2" -> "../target/projeto_test-0.0.1-SNAPSHOT.jar";
+            case "postgres" -> "../projeto-postgres/target/projeto-postgres-0.0.1-SNAPSHOT.jar";
+            default -> throw new IllegalArgumentException("Aplicação desconhecida: " + app + " (use h2 ou postgres)");
+        };
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static List<String> split(String value) {
+        return value == null || value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Opção inválida: " + arg + " (use --nome=valor)");
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                options.put(arg.substring(2), "true");
+            } else {
+                options.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+        return options;
+    }
+}
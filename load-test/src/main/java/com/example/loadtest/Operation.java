@@ -0,0 +1,70 @@
+package com.example.loadtest;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Operações da API /products que o gerador de carga sabe executar
+ */
+public enum Operation {
+
+    /** GET /products/{id} de um produto existente */
+    GET,
+    /** GET /products?limit=20 (primeira página) */
+    LIST,
+    /** POST /products */
+    POST,
+    /** PUT /products/{id} de um produto existente */
+    PUT,
+    /** DELETE /products/{id} de um produto existente */
+    DELETE;
+
+    /**
+     * Mistura de operações com pesos (ex: "get:70,post:10,put:15,delete:5")
+     */
+    public record Mix(Map<Operation, Integer> weights, Operation[] wheel) {
+
+        /**
+         * Interpreta a mistura no formato "operação:peso,operação:peso"
+         *
+         * @throws IllegalArgumentException Se a operação não existir ou o peso for inválido
+         */
+        public static Mix parse(String value) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String part : value.split(",")) {
+                String[] pair = part.trim().split(":");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Mistura inválida: " + part + " (use operação:peso)");
+                }
+                int weight = Integer.parseInt(pair[1].trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("Peso negativo: " + part);
+                }
+                weights.merge(Operation.valueOf(pair[0].trim().toUpperCase(Locale.ROOT)), weight, Integer::sum);
+            }
+            // Roda de sorteio: cada operação aparece "peso" vezes
+            List<Operation> wheel = new ArrayList<>();
+            weights.forEach((operation, weight) -> {
+                for (int i = 0; i < weight; i++) {
+                    wheel.add(operation);
+                }
+            });
+            if (wheel.isEmpty()) {
+                throw new IllegalArgumentException("A mistura precisa de ao menos um peso positivo");
+            }
+            return new Mix(weights, wheel.toArray(Operation[]::new));
+        }
+
+        /**
+         * Sorteia uma operação respeitando os pesos
+         *
+         * @param random Número aleatório em [0, 1)
+         */
+        public Operation pick(double random) {
+            return wheel[(int) (random * wheel.length)];
+        }
+    }
+}
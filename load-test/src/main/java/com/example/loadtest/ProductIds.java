@@ -0,0 +1,51 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Conjunto dos ids de produtos que existem na aplicação durante o teste
+ *
+ * GET/PUT sorteiam um id, POST adiciona e DELETE remove. Os acessos são
+ * sincronizados: o custo é desprezível perto de uma requisição HTTP.
+ */
+final class ProductIds {
+
+    private long[] ids = new long[1024];
+    private int size;
+
+    synchronized void add(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size++] = id;
+    }
+
+    /**
+     * Sorteia um id existente
+     *
+     * @return O id, ou -1 se não houver produtos
+     */
+    synchronized long random() {
+        return size == 0 ? -1 : ids[ThreadLocalRandom.current().nextInt(size)];
+    }
+
+    /**
+     * Sorteia e remove um id (para o DELETE), trocando-o pelo último da lista
+     *
+     * @return O id, ou -1 se não houver produtos
+     */
+    synchronized long take() {
+        if (size == 0) {
+            return -1;
+        }
+        int index = ThreadLocalRandom.current().nextInt(size);
+        long id = ids[index];
+        ids[index] = ids[--size];
+        return id;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+}
@@ -17,3 +17,51 @@ CREATE DATABASE crud_db;
 -- Para verificar se tudo está funcionando após a primeira execução:
 -- SELECT * FROM products;
 
+
+-- ============================================================================
+-- MIGRAÇÃO: CHAVE PRIMÁRIA GERADA POR SEQUENCE (INSERTS EM LOTE)
+-- ============================================================================
+-- O id do Product passou de IDENTITY para SEQUENCE ("products_seq", blocos de 50),
+-- o que permite ao Hibernate enviar INSERTs em lote.
+--
+-- Em um banco NOVO não é preciso fazer nada: a aplicação cria a sequence.
+-- Em um banco que JÁ TEM produtos, a sequence precisa começar depois do maior id,
+-- senão os novos ids colidiriam com os existentes. A aplicação faz esse ajuste
+-- automaticamente na subida (ProductIdSequenceConfig); o bloco abaixo é a versão
+-- manual, para quem preferir migrar antes do deploy:
+DO $$
+BEGIN
+    IF to_regclass('public.products') IS NOT NULL THEN
+        CREATE SEQUENCE IF NOT EXISTS products_seq START WITH 1 INCREMENT BY 50;
+        PERFORM setval('products_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM products));
+    END IF;
+END $$;
+
+-- Para mudar o tamanho do bloco de ids, altere app.products.id.allocation-size.
+-- Para DIMINUIR o bloco, pare todos os nós antes e ajuste manualmente:
+-- ALTER SEQUENCE products_seq INCREMENT BY 50;
+
+
+-- ============================================================================
+-- BUSCA POR NOME (FULL-TEXT SEARCH): ÍNDICE GIN
+-- ============================================================================
+-- GET /products/search usa o full-text search do PostgreSQL. A aplicação cria
+-- o índice abaixo na subida (ProductSearchIndexConfig), sem bloquear escritas.
+-- No modo reativo (sem Hibernate), crie-o manualmente:
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_name_search_idx
+    ON products USING GIN (to_tsvector('portuguese', name));
+
+-- Se a criação for interrompida, o índice fica INVÁLIDO e não é usado
+-- (o IF NOT EXISTS não o recria). Para corrigir:
+-- DROP INDEX CONCURRENTLY products_name_search_idx;  -- e rode o CREATE INDEX de novo
+
+
+-- ============================================================================
+-- ESTATÍSTICAS E HISTOGRAMA DE PREÇOS: ÍNDICE DO PREÇO
+-- ============================================================================
+-- GET /products/stats e /products/price-histogram usam MIN/MAX do preço, lidos
+-- nas pontas deste índice. O Hibernate o cria na subida (@Table(indexes) em
+-- Product, com ddl-auto=update), mas com um CREATE INDEX comum, que bloqueia
+-- escritas enquanto roda. Em tabelas grandes, crie-o antes do deploy:
+CREATE INDEX CONCURRENTLY IF NOT EXISTS products_price_in_cents_idx
+    ON products (price_in_cents);
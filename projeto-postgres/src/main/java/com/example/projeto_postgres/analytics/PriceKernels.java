@@ -0,0 +1,149 @@
+// Declaração do pacote - organiza a classe no pacote de análises em memória
+package com.example.projeto_postgres.analytics;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Laços de Varredura da Coluna de Preços
+ * 
+ * Percorrem o int[] de preços do ProductPriceAnalytics contando, somando e
+ * filtrando os preços dentro de uma faixa [min, max].
+ * 
+ * VECTOR API (SIMD):
+ * - Se a JVM foi iniciada com --add-modules jdk.incubator.vector, os laços de
+ *   VectorPriceKernels comparam 8 ou 16 preços por instrução (AVX2 / AVX-512)
+ * - Sem o módulo, são usados os laços escalares abaixo (mesmo resultado, mais lentos)
+ * - A Vector API ainda é incubadora: o módulo não é carregado por padrão e não pode
+ *   ser ligado pelo manifesto do jar, por isso a escolha é feita na execução
+ * 
+ * FORK/JOIN:
+ * - Acima de PARALLEL_THRESHOLD preços, summarizeParallel() divide o array em
+ *   blocos de CHUNK_SIZE e os varre em paralelo no ForkJoinPool comum
+ */
+final class PriceKernels {
+
+    /**
+     * true se a Vector API estiver disponível nesta JVM
+     */
+    static final boolean VECTOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * Quantidade mínima de preços para varrer em paralelo
+     * (abaixo disso, dividir o trabalho custa mais do que varrer em uma thread)
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    /**
+     * Tamanho do bloco varrido por cada tarefa (256 mil preços = 1 MB, cabe no cache L2)
+     */
+    static final int CHUNK_SIZE = 1 << 18;
+
+    private PriceKernels() {
+    }
+
+    /**
+     * Resultado de uma varredura: quantidade, soma, menor e maior preço da faixa
+     * 
+     * Sem preços na faixa, min é Integer.MAX_VALUE e max é Integer.MIN_VALUE.
+     */
+    record Summary(long count, long sum, int min, int max) {
+
+        static final Summary EMPTY = new Summary(0, 0, Integer.MAX_VALUE, Integer.MIN_VALUE);
+
+        Summary plus(Summary other) {
+            return new Summary(count + other.count, sum + other.sum,
+                    Math.min(min, other.min), Math.max(max, other.max));
+        }
+    }
+
+    /**
+     * Resume os preços de prices[from, to) que estão em [min, max]
+     */
+    static Summary summarize(int[] prices, int from, int to, int min, int max) {
+        return VECTOR
+                ? VectorPriceKernels.summarize(prices, from, to, min, max)
+                : scalarSummarize(prices, from, to, min, max);
+    }
+
+    /**
+     * Igual a summarize(), dividindo arrays grandes entre as threads do ForkJoinPool comum
+     */
+    static Summary summarizeParallel(int[] prices, int from, int to, int min, int max) {
+        if (to - from < PARALLEL_THRESHOLD) {
+            return summarize(prices, from, to, min, max);
+        }
+        return ForkJoinPool.commonPool().invoke(new SummaryTask(prices, from, to, min, max));
+    }
+
+    /**
+     * Copia para "out" os ids (na ordem do array) dos preços de prices[from, to) em [min, max]
+     * 
+     * Para assim que "out" estiver cheio.
+     * 
+     * @return Quantidade de ids copiados
+     */
+    static int filter(long[] ids, int[] prices, int from, int to, int min, int max, long[] out) {
+        return VECTOR
+                ? VectorPriceKernels.filter(ids, prices, from, to, min, max, out)
+                : scalarFilter(ids, prices, from, to, min, max, out, 0);
+    }
+
+    static Summary scalarSummarize(int[] prices, int from, int to, int min, int max) {
+        long count = 0;
+        long sum = 0;
+        int lowest = Integer.MAX_VALUE;
+        int highest = Integer.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            int price = prices[i];
+            if (price >= min && price <= max) {
+                count++;
+                sum += price;
+                lowest = Math.min(lowest, price);
+                highest = Math.max(highest, price);
+            }
+        }
+        return new Summary(count, sum, lowest, highest);
+    }
+
+    static int scalarFilter(long[] ids, int[] prices, int from, int to, int min, int max, long[] out, int found) {
+        for (int i = from; i < to && found < out.length; i++) {
+            if (prices[i] >= min && prices[i] <= max) {
+                out[found++] = ids[i];
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Divide a faixa ao meio até o bloco ter no máximo CHUNK_SIZE preços
+     */
+    private static final class SummaryTask extends RecursiveTask<Summary> {
+
+        private final int[] prices;
+        private final int from;
+        private final int to;
+        private final int min;
+        private final int max;
+
+        SummaryTask(int[] prices, int from, int to, int min, int max) {
+            this.prices = prices;
+            this.from = from;
+            this.to = to;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        protected Summary compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return summarize(prices, from, to, min, max);
+            }
+            int middle = (from + to) >>> 1;
+            SummaryTask left = new SummaryTask(prices, from, middle, min, max);
+            left.fork();
+            Summary right = new SummaryTask(prices, middle, to, min, max).compute();
+            return left.join().plus(right);
+        }
+    }
+}
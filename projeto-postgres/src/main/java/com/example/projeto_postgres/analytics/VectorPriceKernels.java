@@ -0,0 +1,80 @@
+// Declaração do pacote - organiza a classe no pacote de análises em memória
+package com.example.projeto_postgres.analytics;
+
+// Importa a Vector API (módulo incubador jdk.incubator.vector)
+// IntVector: vários int processados juntos por uma instrução SIMD
+// VectorMask: resultado de uma comparação (um bit por posição do vetor)
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Versão SIMD (Vector API) dos laços de PriceKernels
+ * 
+ * Só é carregada quando PriceKernels.VECTOR é true: referenciar estas classes
+ * sem --add-modules jdk.incubator.vector causaria NoClassDefFoundError.
+ * 
+ * Cada iteração lê INTS.length() preços (8 com AVX2, 16 com AVX-512), compara
+ * todos com [min, max] de uma vez e acumula as posições selecionadas. A soma é
+ * acumulada em long (dois LongVector por IntVector) para não estourar o int.
+ * O que sobra no fim do array (menos de um vetor) é tratado pelo laço escalar.
+ */
+final class VectorPriceKernels {
+
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    /**
+     * Mesmo tamanho em bits de INTS: metade das posições, cada uma com um long
+     */
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+
+    private VectorPriceKernels() {
+    }
+
+    static PriceKernels.Summary summarize(int[] prices, int from, int to, int min, int max) {
+        IntVector lowest = IntVector.broadcast(INTS, Integer.MAX_VALUE);
+        IntVector highest = IntVector.broadcast(INTS, Integer.MIN_VALUE);
+        LongVector sums = LongVector.zero(LONGS);
+        long count = 0;
+
+        int i = from;
+        int upper = from + INTS.loopBound(to - from);
+        for (; i < upper; i += INTS.length()) {
+            IntVector price = IntVector.fromArray(INTS, prices, i);
+            VectorMask<Integer> outside = price.compare(VectorOperators.LT, min)
+                    .or(price.compare(VectorOperators.GT, max));
+
+            count += INTS.length() - outside.trueCount();
+            // Zera as posições fora da faixa e soma as duas metades como long
+            IntVector selected = price.blend(0, outside);
+            sums = sums.add((LongVector) selected.convertShape(VectorOperators.I2L, LONGS, 0))
+                    .add((LongVector) selected.convertShape(VectorOperators.I2L, LONGS, 1));
+            lowest = lowest.min(price.blend(Integer.MAX_VALUE, outside));
+            highest = highest.max(price.blend(Integer.MIN_VALUE, outside));
+        }
+
+        PriceKernels.Summary vector = new PriceKernels.Summary(count, sums.reduceLanes(VectorOperators.ADD),
+                lowest.reduceLanes(VectorOperators.MIN), highest.reduceLanes(VectorOperators.MAX));
+        return vector.plus(PriceKernels.scalarSummarize(prices, i, to, min, max));
+    }
+
+    static int filter(long[] ids, int[] prices, int from, int to, int min, int max, long[] out) {
+        int found = 0;
+        int i = from;
+        int upper = from + INTS.loopBound(to - from);
+        for (; i < upper && found < out.length; i += INTS.length()) {
+            IntVector price = IntVector.fromArray(INTS, prices, i);
+            long inside = price.compare(VectorOperators.GE, min)
+                    .and(price.compare(VectorOperators.LE, max))
+                    .toLong();
+            // Um bit por posição selecionada: copia os ids na ordem do array
+            while (inside != 0 && found < out.length) {
+                out[found++] = ids[i + Long.numberOfTrailingZeros(inside)];
+                inside &= inside - 1;
+            }
+        }
+        return PriceKernels.scalarFilter(ids, prices, i, to, min, max, out, found);
+    }
+}
@@ -0,0 +1,182 @@
+// Declaração do pacote - organiza a classe no pacote de cache
+package com.example.projeto_postgres.cache;
+
+// Importa @Value para ler as configurações do application.properties
+import org.springframework.beans.factory.annotation.Value;
+
+// Importa JdbcTemplate para executar o pg_notify na MESMA conexão da transação JPA
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Importa @Component para registrar a classe como um bean do Spring
+import org.springframework.stereotype.Component;
+
+// Importa @Profile para desligar este bean no modo reativo
+import org.springframework.context.annotation.Profile;
+
+// Importa as classes de sincronização de transação do Spring
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Barramento de Invalidação de Cache entre Nós (PostgreSQL LISTEN/NOTIFY)
+ * 
+ * Com várias instâncias da aplicação atrás de um balanceador de carga, cada nó
+ * tem o seu próprio ProductCache. Quando o nó A atualiza um produto, o cache do
+ * nó B continuaria devolvendo o valor antigo até o TTL expirar.
+ * 
+ * COMO FUNCIONA:
+ * 1. updateProduct/deleteProduct chamam publish(id) dentro da transação
+ * 2. Os ids alterados na transação são acumulados (sem repetição)
+ * 3. Antes do commit, UM único NOTIFY é enviado com todos os ids
+ * 4. O PostgreSQL só entrega o NOTIFY se a transação for confirmada
+ *    (em caso de rollback, nenhum nó é avisado)
+ * 5. Cada nó mantém uma conexão dedicada com LISTEN (ProductInvalidationListener)
+ *    e remove do seu cache os ids recebidos
+ * 
+ * FORMATO DA MENSAGEM (payload): "<id do nó>:<id>,<id>,<id>"
+ * O id do nó permite ignorar as mensagens enviadas pelo próprio nó, que já
+ * atualizou o seu cache após o commit.
+ * 
+ * VANTAGEM: hit rate de cache local sem precisar de um message broker separado
+ * (Redis, Kafka, RabbitMQ...): o próprio PostgreSQL entrega as mensagens.
+ */
+@Profile("!reactive") // Não existe no modo reativo (perfil "reactive" usa WebFlux + R2DBC)
+@Component // Registra como bean do Spring
+public class ProductInvalidationBus {
+
+    /**
+     * Tamanho máximo do payload de um NOTIFY no PostgreSQL é 8000 bytes
+     * Usamos uma margem de segurança e dividimos em várias mensagens se necessário
+     * (também usado pelo ReactiveProductService, que envia o mesmo formato)
+     */
+    public static final int MAX_PAYLOAD_LENGTH = 7900;
+
+    /**
+     * Identificador único deste nó (gerado a cada subida da aplicação)
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final boolean enabled;
+
+    public ProductInvalidationBus(
+            DataSource dataSource,
+            @Value("${app.products.cache.invalidation.channel:product_invalidation}") String channel,
+            @Value("${app.products.cache.invalidation.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.channel = channel;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Registra que o produto foi alterado na transação atual
+     * 
+     * Os ids são acumulados e enviados em um único NOTIFY antes do commit.
+     * Sem transação ativa, o NOTIFY é enviado imediatamente.
+     * 
+     * @param id O ID do produto criado, alterado ou removido
+     */
+    @SuppressWarnings("unchecked")
+    public void publish(Long id) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(Set.of(id));
+            return;
+        }
+
+        // Busca o conjunto de ids já alterados nesta transação (um por transação)
+        Set<Long> ids = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (ids == null) {
+            Set<Long> transactionIds = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, transactionIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Executado na conexão da transação: só é entregue se o commit acontecer
+                    send(transactionIds);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProductInvalidationBus.this);
+                }
+            });
+            ids = transactionIds;
+        }
+        ids.add(id);
+    }
+
+    /**
+     * Interpreta uma mensagem recebida pelo LISTEN
+     * 
+     * @param payload A mensagem no formato "<id do nó>:<id>,<id>"
+     * @return Os ids a remover do cache (vazio se a mensagem veio deste mesmo nó)
+     */
+    public Set<Long> parse(String payload) {
+        int separator = payload.indexOf(':');
+        if (separator < 0 || payload.substring(0, separator).equals(nodeId)) {
+            return Set.of();
+        }
+        String ids = payload.substring(separator + 1);
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        return Arrays.stream(ids.split(","))
+                .map(Long::valueOf)
+                .collect(Collectors.toCollection(HashSet::new));
+    }
+
+    /**
+     * Nome do canal usado no LISTEN/NOTIFY
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * Indica se o barramento está habilitado (app.products.cache.invalidation.enabled)
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Envia os ids com pg_notify, dividindo em várias mensagens se passar do limite
+     */
+    private void send(Set<Long> ids) {
+        StringBuilder payload = new StringBuilder(nodeId).append(':');
+        int emptyLength = payload.length();
+        for (Long id : ids) {
+            String value = String.valueOf(id);
+            if (payload.length() + value.length() + 1 > MAX_PAYLOAD_LENGTH) {
+                notify(payload.toString());
+                payload.setLength(emptyLength);
+            }
+            if (payload.length() > emptyLength) {
+                payload.append(',');
+            }
+            payload.append(value);
+        }
+        if (payload.length() > emptyLength) {
+            notify(payload.toString());
+        }
+    }
+
+    /**
+     * Executa o pg_notify (equivalente a NOTIFY canal, 'payload', mas aceita parâmetros)
+     */
+    private void notify(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> { }, channel, payload);
+    }
+}
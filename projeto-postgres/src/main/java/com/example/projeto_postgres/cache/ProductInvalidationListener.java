@@ -0,0 +1,305 @@
+// Declaração do pacote - organiza a classe no pacote de cache
+package com.example.projeto_postgres.cache;
+
+// Importa as classes específicas do driver JDBC do PostgreSQL
+// PGConnection: dá acesso às notificações recebidas pela conexão
+// PGNotification: uma mensagem recebida via LISTEN
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+// Importa o Logger (SLF4J) para registrar quedas e reconexões
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Importa as propriedades de conexão do application.properties (url, usuário e senha)
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+// Importa a cópia colunar de preços, atualizada junto com o índice de sugestões
+import com.example.projeto_postgres.analytics.ProductPriceAnalytics;
+
+// Importa o repositório para reler os produtos alterados por outros nós
+import com.example.projeto_postgres.model.Product;
+import com.example.projeto_postgres.repository.ProductRepository;
+
+// Importa a carga dos índices, refeita por completo após cada reconexão
+import com.example.projeto_postgres.config.ProductIndexLoader;
+
+// Importa SmartLifecycle para iniciar/parar a thread junto com a aplicação
+import org.springframework.context.SmartLifecycle;
+
+// Importa @Component para registrar a classe como um bean do Spring
+import org.springframework.stereotype.Component;
+
+// Importa @Profile para desligar este bean no modo reativo
+import org.springframework.context.annotation.Profile;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ouvinte de Invalidação de Cache (PostgreSQL LISTEN)
+ * 
+ * Mantém uma conexão DEDICADA com o PostgreSQL executando LISTEN no canal de
+ * invalidação. Cada mensagem recebida remove do ProductCache os ids alterados
+ * por OUTROS nós (veja ProductInvalidationBus).
+ * 
+ * POR QUE UMA CONEXÃO DEDICADA (FORA DO HIKARI)?
+ * - O LISTEN vale apenas para a conexão que o executou
+ * - A conexão fica aberta o tempo todo; se viesse do pool, ocuparia uma das
+ *   10 conexões disponíveis para as requisições
+ * 
+ * RECONEXÃO:
+ * - Se a conexão cair, as mensagens enviadas nesse intervalo são PERDIDAS
+ * - Por isso, a cada (re)conexão o cache inteiro é limpo (full flush):
+ *   é melhor ir ao banco algumas vezes do que servir dados desatualizados
+ * 
+ * ÍNDICES EM MEMÓRIA (SUGESTÕES E PREÇOS):
+ * - Os ids recebidos também são relidos do banco e atualizados no ProductNameIndex
+ *   e no ProductPriceAnalytics (produtos criados, alterados ou removidos em outros nós)
+ * - A releitura é feita em blocos de REFRESH_CHUNK_SIZE ids (um lote de 50 mil
+ *   produtos criados em outro nó passaria do limite de parâmetros do driver)
+ * - Se a releitura falhar (banco instável, limite de concorrência recusando a
+ *   chamada), os ids ainda não relidos ficam pendentes e são relidos na próxima
+ *   volta do laço, sem derrubar a conexão do LISTEN
+ * - Com mais de MAX_PENDING_IDS pendentes, os índices são recarregados por completo
+ * - Após cada RECONEXÃO os dois índices são recarregados por completo
+ *   (ProductIndexLoader.reload): as mensagens da queda foram perdidas. Se a
+ *   recarga falhar, a conexão é refeita e a recarga, tentada de novo
+ * 
+ * SNAPSHOT DO CATÁLOGO (GET /products/export):
+ * - Mensagens de outros nós descartam o ProductCatalogSnapshot (a próxima
+ *   exportação o reconstrói); as do próprio nó chegam sem ids e são ignoradas
+ * - Na reconexão ele também é descartado, como o cache: reconstruí-lo custa uma leitura
+ */
+@Profile("!reactive") // Não existe no modo reativo (perfil "reactive" usa WebFlux + R2DBC)
+@Component // Registra como bean do Spring
+public class ProductInvalidationListener implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductInvalidationListener.class);
+
+    /**
+     * Tempo máximo que a thread espera por notificações a cada iteração
+     */
+    private static final int POLL_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * Espera antes de tentar reconectar após uma falha
+     */
+    private static final long RECONNECT_DELAY_MILLIS = 2000;
+
+    /**
+     * Ids relidos por consulta (o driver JDBC aceita no máximo 32767 parâmetros por comando)
+     */
+    static final int REFRESH_CHUNK_SIZE = 1000;
+
+    /**
+     * Acima desta quantidade de ids pendentes, recarregar os índices inteiros
+     * sai mais barato (e o conjunto de pendentes não cresce sem limite)
+     */
+    static final int MAX_PENDING_IDS = 100_000;
+
+    private final ProductCache productCache;
+    private final ProductNameIndex productNameIndex;
+    private final ProductPriceAnalytics productPriceAnalytics;
+    private final ProductCatalogSnapshot productCatalogSnapshot;
+    private final ProductRepository productRepository;
+    private final ProductIndexLoader productIndexLoader;
+    private final ProductInvalidationBus invalidationBus;
+    private final DataSourceProperties dataSourceProperties;
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread thread;
+
+    // Estado usado somente pela thread do LISTEN
+    /**
+     * Ids recebidos cuja releitura para os índices ainda não deu certo
+     */
+    private final Set<Long> pendingIds = new LinkedHashSet<>();
+
+    /**
+     * true depois de uma queda, até a recarga completa dos índices terminar
+     */
+    private boolean reloadPending;
+
+    public ProductInvalidationListener(ProductCache productCache,
+                                       ProductNameIndex productNameIndex,
+                                       ProductPriceAnalytics productPriceAnalytics,
+                                       ProductCatalogSnapshot productCatalogSnapshot,
+                                       ProductRepository productRepository,
+                                       ProductIndexLoader productIndexLoader,
+                                       ProductInvalidationBus invalidationBus,
+                                       DataSourceProperties dataSourceProperties) {
+        this.productCache = productCache;
+        this.productNameIndex = productNameIndex;
+        this.productPriceAnalytics = productPriceAnalytics;
+        this.productCatalogSnapshot = productCatalogSnapshot;
+        this.productRepository = productRepository;
+        this.productIndexLoader = productIndexLoader;
+        this.invalidationBus = invalidationBus;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    /**
+     * Inicia a thread do LISTEN quando a aplicação sobe
+     */
+    @Override
+    public void start() {
+        if (!invalidationBus.isEnabled()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listenLoop, "product-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Para a thread do LISTEN quando a aplicação é encerrada
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Indica se a conexão dedicada está conectada e executando LISTEN
+     */
+    public boolean isListening() {
+        return listening;
+    }
+
+    /**
+     * Laço principal: conecta, executa LISTEN e processa as notificações
+     * Em caso de falha, limpa o cache inteiro e tenta reconectar
+     */
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(
+                    dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(),
+                    dataSourceProperties.determinePassword())) {
+
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + invalidationBus.getChannel());
+                }
+
+                // Mensagens enviadas enquanto estávamos desconectados foram perdidas
+                productCache.evictAll();
+                productCatalogSnapshot.invalidate();
+                listening = true;
+                log.info("Escutando invalidações de cache no canal '{}'", invalidationBus.getChannel());
+
+                // Reconexão: os índices também perderam as mensagens da queda.
+                // Recarrega DEPOIS do LISTEN, para que nenhuma alteração escape entre os dois.
+                // (Se falhar, a exceção refaz a conexão e a recarga é tentada de novo.)
+                if (reloadPending) {
+                    productIndexLoader.reload();
+                    reloadPending = false;
+                    pendingIds.clear();
+                }
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    // Bloqueia até chegar uma notificação ou o tempo acabar
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            Set<Long> ids;
+                            try {
+                                ids = invalidationBus.parse(notification.getParameter());
+                            } catch (NumberFormatException ex) {
+                                log.warn("Mensagem de invalidação inválida ignorada: {}", notification.getParameter());
+                                continue;
+                            }
+                            if (ids.isEmpty()) {
+                                // Mensagem do próprio nó: cache, índices e snapshot já foram atualizados
+                                continue;
+                            }
+                            ids.forEach(productCache::evict);
+                            productCatalogSnapshot.invalidate();
+                            pendingIds.addAll(ids);
+                        }
+                    }
+                    refreshPendingIndexes();
+                }
+            } catch (SQLException | RuntimeException ex) {
+                listening = false;
+                if (!running) {
+                    return;
+                }
+                // Sem a conexão não recebemos invalidações: o cache pode ficar desatualizado
+                productCache.evictAll();
+                productCatalogSnapshot.invalidate();
+                reloadPending = true;
+                log.warn("Conexão de LISTEN perdida, tentando reconectar: {}", ex.getMessage());
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    /**
+     * Relê do banco os produtos alterados por outros nós e ainda pendentes
+     * 
+     * Os que ainda existem são atualizados nos índices; os que sumiram, removidos.
+     * Uma falha (banco instável, DatabaseOverloadedException) não derruba o LISTEN:
+     * os ids ainda não relidos continuam pendentes e são relidos na próxima volta do laço.
+     */
+    private void refreshPendingIndexes() {
+        if (pendingIds.isEmpty()) {
+            return;
+        }
+        try {
+            if (pendingIds.size() > MAX_PENDING_IDS) {
+                productIndexLoader.reload();
+                pendingIds.clear();
+                return;
+            }
+            while (!pendingIds.isEmpty()) {
+                List<Long> chunk = pendingIds.stream().limit(REFRESH_CHUNK_SIZE).toList();
+                refreshIndexes(chunk);
+                // Só sai dos pendentes depois de aplicado nos índices
+                chunk.forEach(pendingIds::remove);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao reler {} produtos para os índices, nova tentativa em seguida: {}",
+                    pendingIds.size(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Relê um bloco de ids e aplica o resultado nos dois índices
+     */
+    private void refreshIndexes(List<Long> ids) {
+        List<Product> current = productRepository.findViewsByIdIn(ids);
+        Set<Long> removed = new HashSet<>(ids);
+        current.forEach(product -> removed.remove(product.getId()));
+        removed.forEach(productNameIndex::remove);
+        removed.forEach(productPriceAnalytics::remove);
+        productNameIndex.putAll(current);
+        productPriceAnalytics.putAll(current);
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MILLIS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
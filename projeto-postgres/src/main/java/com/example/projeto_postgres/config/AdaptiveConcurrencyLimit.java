@@ -0,0 +1,204 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite de Concorrência Adaptativo (algoritmo de gradiente)
+ *
+ * Um limite fixo de chamadas simultâneas ao banco está sempre errado: alto demais
+ * quando o banco fica lento (as chamadas se acumulam na fila do pool e o p99
+ * explode) e baixo demais quando ele está folgado. Este limite é APRENDIDO a
+ * partir da latência observada:
+ *
+ * - Latência curta: média das últimas WINDOW_SAMPLES chamadas
+ * - Latência longa: média móvel exponencial das janelas (o "normal" do banco)
+ * - gradiente = TOLERANCE * longa / curta, entre 0.5 e 1.0
+ *   - banco no ritmo normal: gradiente 1.0 e o limite cresce (+ raiz do limite)
+ *   - banco mais lento que o normal: gradiente < 1.0 e o limite encolhe
+ * - O novo valor é suavizado (SMOOTHING) para não oscilar a cada janela
+ * - Uma chamada que falha por sobrecarga (timeout, falta de conexão) reduz o
+ *   limite em 10% na hora, sem esperar a janela
+ *
+ * Se a latência cair bem abaixo da média longa, a média longa também é puxada
+ * para baixo (o banco voltou ao normal e o limite volta a crescer).
+ *
+ * Quem passa do limite é recusado NA HORA (tryAcquire devolve -1), sem fila:
+ * o trabalho excedente é descartado enquanto ainda é barato.
+ *
+ * CONCORRÊNCIA:
+ * - tryAcquire: um compareAndSet no contador de chamadas em andamento (sem lock)
+ * - release: atualiza a janela com um ReentrantLock (não prende a thread virtual);
+ *   o limite é lido por um campo volatile
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    /**
+     * Chamadas por janela (a latência curta é a média de cada janela)
+     */
+    static final int WINDOW_SAMPLES = 10;
+
+    /**
+     * Quanto a latência curta pode passar da longa sem reduzir o limite (50%)
+     */
+    static final double TOLERANCE = 1.5;
+
+    /**
+     * Peso de cada novo cálculo sobre o limite atual
+     */
+    static final double SMOOTHING = 0.2;
+
+    /**
+     * Janelas consideradas pela média longa (média móvel exponencial)
+     */
+    static final int LONG_WINDOWS = 100;
+
+    /**
+     * Fator aplicado ao limite quando uma chamada falha por sobrecarga
+     */
+    static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder shed = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Limite em uso (parte inteira da estimativa)
+     */
+    private volatile int limit;
+
+    // Estado protegido pelo lock
+    private double estimate;
+    private double longRttNanos;
+    private long windowNanos;
+    private int windowSamples;
+    private int windowMaxInFlight;
+
+    /**
+     * @param initialLimit Limite antes da primeira medição
+     * @param minLimit O limite nunca cai abaixo disto
+     * @param maxLimit O limite nunca passa disto
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limites inválidos: é preciso 1 <= min-limit <= initial-limit <= max-limit");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimate = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Tenta ocupar uma vaga
+     *
+     * @return Chamadas em andamento contando esta, ou -1 se o limite foi atingido
+     */
+    public int tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                shed.increment();
+                return -1;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Libera a vaga e registra a latência da chamada
+     *
+     * @param inFlightAtStart O valor devolvido pelo tryAcquire
+     * @param rttNanos Duração da chamada
+     * @param dropped true se a chamada falhou por sobrecarga do banco
+     */
+    public void release(int inFlightAtStart, long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+        lock.lock();
+        try {
+            if (dropped) {
+                resetWindow();
+                update(estimate * BACKOFF);
+                return;
+            }
+            windowNanos += Math.max(1, rttNanos);
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtStart);
+            if (++windowSamples < WINDOW_SAMPLES) {
+                return;
+            }
+            double shortRtt = (double) windowNanos / windowSamples;
+            int maxInFlight = windowMaxInFlight;
+            resetWindow();
+
+            if (longRttNanos == 0) {
+                longRttNanos = shortRtt;
+            } else {
+                longRttNanos += (shortRtt - longRttNanos) / LONG_WINDOWS;
+            }
+            // A latência caiu bem abaixo do "normal": o normal se ajusta mais rápido
+            if (longRttNanos > 2 * shortRtt) {
+                longRttNanos *= 0.95;
+            }
+            // Usando menos da metade do limite, a latência não diz nada sobre um limite maior
+            if (maxInFlight < estimate / 2) {
+                return;
+            }
+            double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRttNanos / shortRtt));
+            double target = estimate * gradient + Math.sqrt(estimate);
+            update(estimate * (1 - SMOOTHING) + target * SMOOTHING);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Libera a vaga sem registrar latência
+     * 
+     * Para chamadas que não esperaram o banco (um save que só enfileira o INSERT
+     * até o flush, um Stream cujas linhas ainda não foram lidas): amostras de
+     * microssegundos puxariam a latência longa para baixo, e as idas reais ao
+     * banco pareceriam lentas.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private void update(double newEstimate) {
+        estimate = Math.max(minLimit, Math.min(maxLimit, newEstimate));
+        limit = (int) estimate;
+    }
+
+    private void resetWindow() {
+        windowNanos = 0;
+        windowSamples = 0;
+        windowMaxInFlight = 0;
+    }
+
+    /**
+     * Chamadas simultâneas permitidas agora
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Chamadas em andamento agora
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Chamadas recusadas desde o início da aplicação
+     */
+    public long getShed() {
+        return shed.sum();
+    }
+}
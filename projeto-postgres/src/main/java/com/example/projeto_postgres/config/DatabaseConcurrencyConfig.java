@@ -0,0 +1,58 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+// Importa as interfaces do Spring para interceptar a criação de beans
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+// Importa Environment para ler as propriedades do application.properties
+import org.springframework.core.env.Environment;
+
+// Importa anotações de configuração do Spring
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Configuração do Limite de Concorrência no Acesso ao Banco
+ * 
+ * Envolve o DataSource criado pelo Spring Boot (Hikari) em um BoundedDataSource,
+ * que limita quantas threads podem usar conexões ao mesmo tempo.
+ * 
+ * Isso é importante principalmente no modo de threads virtuais
+ * (spring.threads.virtual.enabled=true): o Tomcat deixa de ter um limite de
+ * 200 threads e milhares de requisições podem chegar ao banco ao mesmo tempo.
+ * 
+ * Por dentro do limite fica o StatementCountingDataSource, que conta os comandos
+ * SQL de cada requisição para o ServerTimingFilter.
+ */
+@Configuration // Marca como classe de configuração do Spring (define beans)
+public class DatabaseConcurrencyConfig {
+
+    /**
+     * Pós-processador que troca o bean "dataSource" pela versão limitada
+     * 
+     * É static porque BeanPostProcessors precisam ser criados antes dos demais beans.
+     * 
+     * @param environment As propriedades da aplicação
+     */
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                // Por padrão, o limite é o próprio tamanho do pool do Hikari
+                int maxConcurrent = environment.getProperty("app.datasource.max-concurrent-connections", Integer.class,
+                        environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                Duration acquireTimeout = environment.getProperty("app.datasource.acquire-timeout", Duration.class,
+                        Duration.ofSeconds(2));
+                // Por dentro do limite, conta os comandos SQL de cada requisição (Server-Timing)
+                return new BoundedDataSource(new StatementCountingDataSource(dataSource), maxConcurrent, acquireTimeout);
+            }
+        };
+    }
+}
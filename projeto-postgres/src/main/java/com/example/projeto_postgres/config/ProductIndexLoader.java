@@ -0,0 +1,142 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+// Importa os índices em memória (sugestões e preços) e o serviço usado para ler o catálogo
+import com.example.projeto_postgres.analytics.ProductPriceAnalytics;
+import com.example.projeto_postgres.cache.ProductNameIndex;
+import com.example.projeto_postgres.model.Product;
+import com.example.projeto_postgres.service.ProductService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Importa SmartInitializingSingleton: executado depois que todos os beans foram
+// criados e ANTES de o servidor web começar a aceitar requisições
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+// Importa @Component para registrar a classe como um bean do Spring
+import org.springframework.stereotype.Component;
+
+// Importa @Profile para desligar o bean no modo reativo
+import org.springframework.context.annotation.Profile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Carga Inicial dos Índices em Memória (ProductNameIndex e ProductPriceAnalytics)
+ * 
+ * Na subida da aplicação, percorre o catálogo inteiro UMA vez com o mesmo Stream
+ * da exportação (ProductService.exportProducts: fetch size, somente leitura, sem
+ * acumular entidades) e entrega cada bloco aos dois índices: os nomes ao índice
+ * de sugestões e os preços à cópia colunar.
+ * 
+ * Como roda antes de o servidor web aceitar requisições, a primeira sugestão
+ * (ou análise de preços) já encontra os índices completos. Depois disso, o
+ * ProductService os mantém atualizados a cada criação, alteração e exclusão.
+ * 
+ * O ProductInvalidationListener chama reload() depois de cada reconexão do
+ * LISTEN: as mensagens enviadas durante a queda foram perdidas.
+ */
+@Profile("!reactive") // Não existe no modo reativo (perfil "reactive" usa WebFlux + R2DBC)
+@Component // Registra como bean do Spring
+public class ProductIndexLoader implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIndexLoader.class);
+
+    /**
+     * Quantidade de produtos indexados de uma vez
+     */
+    private static final int CHUNK_SIZE = 10_000;
+
+    private final ProductService productService;
+    private final ProductNameIndex productNameIndex;
+    private final ProductPriceAnalytics productPriceAnalytics;
+
+    public ProductIndexLoader(ProductService productService, ProductNameIndex productNameIndex,
+                              ProductPriceAnalytics productPriceAnalytics) {
+        this.productService = productService;
+        this.productNameIndex = productNameIndex;
+        this.productPriceAnalytics = productPriceAnalytics;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        load(false);
+
+        int size = productNameIndex.size();
+        log.info("Índice de sugestões carregado: {} produtos, ~{} bytes por produto, em {} ms", size,
+                size == 0 ? 0 : productNameIndex.estimatedBytes() / size,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Cópia colunar de preços carregada: {} produtos, {} bytes, varredura {}", productPriceAnalytics.size(),
+                productPriceAnalytics.estimatedBytes(),
+                productPriceAnalytics.isVectorized() ? "SIMD (Vector API)" : "escalar (sem --add-modules jdk.incubator.vector)");
+    }
+
+    /**
+     * Recarrega os dois índices a partir do banco, sem esvaziá-los antes
+     * 
+     * Os produtos lidos são atualizados nos índices (as sugestões continuam
+     * respondendo durante a recarga). Os que não vieram do banco foram removidos
+     * durante a queda e são retirados.
+     * 
+     * A aplicação continua recebendo escritas durante a varredura: um produto
+     * alterado ou excluído por este nó depois de lido seria sobrescrito pelo valor
+     * antigo. Os índices lembram os ids escritos desde o beginReload() e a
+     * varredura não mexe neles (a escrita confirmada é mais nova que a leitura).
+     */
+    public void reload() {
+        long start = System.nanoTime();
+        productNameIndex.beginReload();
+        productPriceAnalytics.beginReload();
+        long[] loaded = null;
+        int removed;
+        try {
+            loaded = load(true);
+        } finally {
+            // Sempre termina a recarga (se a varredura falhou, loaded é null e nada é removido)
+            removed = productNameIndex.endReload(loaded);
+            productPriceAnalytics.endReload(loaded);
+        }
+        log.info("Índices recarregados: {} produtos lidos, {} removidos, em {} ms", loaded.length, removed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Percorre o catálogo e entrega cada bloco aos dois índices
+     * 
+     * @param reload true na recarga (reloadAll: preserva as escritas feitas durante a varredura)
+     * @return Os ids lidos, ordenados
+     */
+    private long[] load(boolean reload) {
+        List<Product> chunk = new ArrayList<>(CHUNK_SIZE);
+        LongStream.Builder loaded = LongStream.builder();
+        productService.exportProducts(product -> {
+            loaded.add(product.getId());
+            chunk.add(product);
+            if (chunk.size() == CHUNK_SIZE) {
+                index(chunk, reload);
+                chunk.clear();
+            }
+        });
+        index(chunk, reload);
+
+        return loaded.build().sorted().toArray();
+    }
+
+    /**
+     * Entrega um bloco aos dois índices
+     */
+    private void index(List<Product> chunk, boolean reload) {
+        if (reload) {
+            productNameIndex.reloadAll(chunk);
+            productPriceAnalytics.reloadAll(chunk);
+        } else {
+            productNameIndex.putAll(chunk);
+            productPriceAnalytics.putAll(chunk);
+        }
+    }
+}
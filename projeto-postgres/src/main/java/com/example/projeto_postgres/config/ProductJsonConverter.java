@@ -0,0 +1,131 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+// Importa a entidade e o DTO escritos por este conversor
+import com.example.projeto_postgres.dto.ProductPage;
+import com.example.projeto_postgres.model.Product;
+
+// Importa classes do Spring
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conversor HTTP que escreve as respostas de produto com o ProductJsonWriter
+ * 
+ * Tipos atendidos (o resto segue para o TimedJacksonConverter):
+ * - Product (GET/PUT/PATCH/POST /products)
+ * - ProductPage (GET /products e /products/search)
+ * - List<Product>
+ * - Map<String, String> (corpos de erro do GlobalExceptionHandler)
+ * 
+ * Para List e Map, o Spring informa o tipo genérico declarado no método
+ * (ex: ResponseEntity<Map<String, String>>), então só listas de Product e mapas
+ * de String são aceitos; um List<ProductSuggestion> continua com o Jackson.
+ * 
+ * Apenas escreve: a leitura dos corpos das requisições (@RequestBody) continua
+ * com o Jackson, que também aplica as regras do @JsonProperty(READ_ONLY).
+ * 
+ * O tempo de escrita entra na mesma métrica do Jackson (http.server.serialization).
+ */
+public class ProductJsonConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final SerializationTimers timers;
+
+    ProductJsonConverter(SerializationTimers timers) {
+        super(MediaType.APPLICATION_JSON);
+        this.timers = timers;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return isProduct(clazz) || List.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && isWritable(type != null ? type : clazz, clazz);
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        // Sem o tipo genérico não dá para saber o conteúdo de List e Map
+        return canWrite(mediaType) && isProduct(clazz);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        long start = System.nanoTime();
+        try (ProductJsonWriter json = ProductJsonWriter.open(outputMessage.getBody())) {
+            write(json, object);
+        } finally {
+            timers.record(object.getClass(), start);
+        }
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("ProductJsonConverter não lê requisições", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("ProductJsonConverter não lê requisições", inputMessage);
+    }
+
+    @SuppressWarnings("unchecked") // isWritable já conferiu os tipos genéricos
+    private static void write(ProductJsonWriter json, Object object) throws IOException {
+        switch (object) {
+            case Product product -> json.writeProduct(product);
+            case ProductPage page -> json.writePage(page);
+            case List<?> products -> json.writeProducts((List<Product>) products);
+            case Map<?, ?> map -> json.writeStringMap((Map<String, String>) map);
+            default -> throw new IllegalStateException("Tipo não suportado: " + object.getClass());
+        }
+    }
+
+    /**
+     * Confere o tipo declarado: Product, ProductPage, List<Product> ou Map<String, String>
+     */
+    private static boolean isWritable(Type type, Class<?> clazz) {
+        if (clazz == null) {
+            return false;
+        }
+        if (isProduct(clazz)) {
+            return true;
+        }
+        if (!(type instanceof ParameterizedType parameterized)) {
+            return false;
+        }
+        Type[] arguments = parameterized.getActualTypeArguments();
+        if (List.class.isAssignableFrom(clazz) && parameterized.getRawType() == List.class) {
+            return arguments[0] == Product.class;
+        }
+        if (Map.class.isAssignableFrom(clazz) && parameterized.getRawType() == Map.class) {
+            return arguments[0] == String.class && arguments[1] == String.class;
+        }
+        return false;
+    }
+
+    private static boolean isProduct(Class<?> clazz) {
+        return Product.class.isAssignableFrom(clazz) || ProductPage.class == clazz;
+    }
+}
@@ -0,0 +1,312 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+// Importa a entidade e o DTO serializados por este writer
+import com.example.projeto_postgres.dto.ProductPage;
+import com.example.projeto_postgres.model.Product;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writer JSON dedicado para Product (sem reflexão e sem estruturas intermediárias)
+ *
+ * O caminho padrão do Jackson descobre as propriedades por reflexão (uma vez) e,
+ * a cada resposta, passa por BeanSerializer, PropertyWriter e JsonGenerator, com
+ * os números convertidos em String e os textos copiados para buffers de char
+ * antes de virarem UTF-8. Para uma página de 500 produtos isso aparece no topo
+ * do perfil de alocação.
+ *
+ * Este writer conhece os campos de antemão e escreve os bytes UTF-8 direto em um
+ * buffer emprestado de um pool, que é descarregado no OutputStream da resposta
+ * quando enche e no close():
+ * - Números são convertidos em dígitos direto no buffer (sem Long.toString)
+ * - Textos ASCII (o caso comum) são copiados caractere a caractere; os demais
+ *   são codificados em UTF-8 no próprio buffer
+ * - O buffer volta para o pool no close() (nenhuma alocação por resposta no caso comum)
+ *
+ * A saída é idêntica à do ObjectMapper do Spring Boot (mesma ordem de campos,
+ * nulls escritos como null, mesmos escapes), então os clientes não percebem a troca.
+ *
+ * Uso (sempre com try-with-resources, para devolver o buffer ao pool):
+ * try (ProductJsonWriter json = ProductJsonWriter.open(outputStream)) {
+ *     json.writeProduct(product);
+ * }
+ *
+ * Uma instância não é thread-safe: cada resposta abre a sua.
+ */
+public final class ProductJsonWriter implements Closeable {
+
+    /**
+     * Tamanho de cada buffer (o mesmo do buffer de saída padrão do Tomcat)
+     */
+    public static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * Buffers guardados no pool; acima disso, os devolvidos são descartados
+     *
+     * Um pool limitado (e não ThreadLocal) funciona bem com threads virtuais,
+     * que são criadas por requisição e nunca reaproveitariam um ThreadLocal.
+     */
+    static final int POOL_SIZE = 64;
+
+    private static final BlockingQueue<byte[]> POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+
+    /**
+     * Nomes dos campos já com aspas, dois-pontos e vírgula (copiados sem codificar)
+     */
+    private static final byte[] ID_FIELD = ascii("{\"id\":");
+    private static final byte[] NAME_FIELD = ascii(",\"name\":");
+    private static final byte[] PRICE_FIELD = ascii(",\"priceInCents\":");
+    private static final byte[] VERSION_FIELD = ascii(",\"version\":");
+    private static final byte[] ITEMS_FIELD = ascii("{\"items\":");
+    private static final byte[] NEXT_CURSOR_FIELD = ascii(",\"nextCursor\":");
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private int position;
+
+    private ProductJsonWriter(OutputStream out, byte[] buffer) {
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Abre um writer sobre o OutputStream, com um buffer emprestado do pool
+     *
+     * O OutputStream não é fechado pelo close() (ele pertence à resposta HTTP).
+     */
+    public static ProductJsonWriter open(OutputStream out) {
+        byte[] buffer = POOL.poll();
+        return new ProductJsonWriter(out, buffer != null ? buffer : new byte[BUFFER_SIZE]);
+    }
+
+    /**
+     * {"id":1,"name":"Notebook","priceInCents":250000,"version":0}
+     */
+    public void writeProduct(Product product) throws IOException {
+        if (product == null) {
+            writeBytes(NULL);
+            return;
+        }
+        writeBytes(ID_FIELD);
+        writeNumber(product.getId());
+        writeBytes(NAME_FIELD);
+        writeString(product.getName());
+        writeBytes(PRICE_FIELD);
+        writeNumber(product.getPriceInCents());
+        writeBytes(VERSION_FIELD);
+        writeNumber(product.getVersion());
+        writeByte('}');
+    }
+
+    /**
+     * [{...},{...}]
+     */
+    public void writeProducts(List<Product> products) throws IOException {
+        if (products == null) {
+            writeBytes(NULL);
+            return;
+        }
+        writeByte('[');
+        for (int i = 0, size = products.size(); i < size; i++) {
+            if (i > 0) {
+                writeByte(',');
+            }
+            writeProduct(products.get(i));
+        }
+        writeByte(']');
+    }
+
+    /**
+     * {"items":[...],"nextCursor":"..."}
+     */
+    public void writePage(ProductPage page) throws IOException {
+        writeBytes(ITEMS_FIELD);
+        writeProducts(page.items());
+        writeBytes(NEXT_CURSOR_FIELD);
+        writeString(page.nextCursor());
+        writeByte('}');
+    }
+
+    /**
+     * Corpo de erro do GlobalExceptionHandler: {"message":"...","status":"404"}
+     *
+     * As chaves saem na ordem de iteração do Map, como no Jackson.
+     */
+    public void writeStringMap(Map<String, String> map) throws IOException {
+        writeByte('{');
+        boolean first = true;
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            if (!first) {
+                writeByte(',');
+            }
+            first = false;
+            writeString(entry.getKey());
+            writeByte(':');
+            writeString(entry.getValue());
+        }
+        writeByte('}');
+    }
+
+    /**
+     * Escreve um byte ASCII avulso (ex: a quebra de linha entre produtos no NDJSON)
+     */
+    public void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = (byte) b;
+    }
+
+    /**
+     * Descarrega o buffer no OutputStream e devolve o buffer ao pool
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flushBuffer();
+        } finally {
+            POOL.offer(buffer);
+            buffer = null;
+        }
+    }
+
+    private void writeBytes(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeNumber(Number value) throws IOException {
+        if (value == null) {
+            writeBytes(NULL);
+        } else {
+            writeLong(value.longValue());
+        }
+    }
+
+    /**
+     * Escreve os dígitos de trás para frente direto no buffer (sem criar String)
+     */
+    private void writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            writeBytes(ascii(Long.toString(value)));
+            return;
+        }
+        // 19 dígitos + sinal
+        if (buffer.length - position < 20) {
+            flushBuffer();
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int end = position + digits(value);
+        int index = end;
+        do {
+            buffer[--index] = (byte) ('0' + (int) (value % 10));
+            value /= 10;
+        } while (value != 0);
+        position = end;
+    }
+
+    private static int digits(long value) {
+        int count = 1;
+        while (value >= 10) {
+            value /= 10;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Escreve um texto JSON entre aspas, em UTF-8
+     *
+     * Escapa aspas, barra invertida e caracteres de controle como o Jackson
+     * (\n, \t, \r, \b, \f ou \\u00XX). Um surrogate sem par vira '?', como no
+     * String.getBytes(UTF_8).
+     */
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeBytes(NULL);
+            return;
+        }
+        writeByte('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            // Pior caso por caractere: 6 bytes (\\u00XX) ou 4 bytes (UTF-8 com surrogate)
+            if (buffer.length - position < 6) {
+                flushBuffer();
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c >= 0x20 && c != '"' && c != '\\') {
+                    buffer[position++] = (byte) c;
+                } else {
+                    writeEscape(c);
+                }
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                buffer[position++] = '?';
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeEscape(char c) {
+        buffer[position++] = '\\';
+        switch (c) {
+            case '"' -> buffer[position++] = '"';
+            case '\\' -> buffer[position++] = '\\';
+            case '\n' -> buffer[position++] = 'n';
+            case '\t' -> buffer[position++] = 't';
+            case '\r' -> buffer[position++] = 'r';
+            case '\b' -> buffer[position++] = 'b';
+            case '\f' -> buffer[position++] = 'f';
+            default -> {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            }
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,87 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+// Importa a constante com a configuração de texto usada pela busca
+import com.example.projeto_postgres.repository.ProductRepository;
+
+// Importa InitializingBean para executar código assim que o bean for criado
+import org.springframework.beans.factory.InitializingBean;
+
+// Importa anotações de configuração do Spring
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Profile;
+
+// Importa JdbcTemplate para executar SQL simples diretamente pelo JDBC
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração do Índice de Busca por Nome (full-text search)
+ * 
+ * GET /products/search?q= procura produtos pelo nome com o full-text search
+ * do PostgreSQL. Para não varrer a tabela inteira a cada busca, é criado um
+ * índice GIN sobre a EXPRESSÃO usada na consulta:
+ * 
+ * CREATE INDEX products_name_search_idx ON products
+ *     USING GIN (to_tsvector('portuguese', name))
+ * 
+ * O índice GIN guarda, para cada palavra (lexema), a lista de linhas que a
+ * contêm. A busca lê apenas as listas dos termos pesquisados: com 10 milhões de
+ * produtos, um termo específico é encontrado em poucos milissegundos.
+ * 
+ * POR QUE UM ÍNDICE DE EXPRESSÃO (E NÃO UMA COLUNA tsvector)?
+ * - A entidade Product não muda (nenhuma coluna nova para o Hibernate)
+ * - Não é preciso reescrever a tabela para preencher uma coluna nova
+ * - O PostgreSQL mantém o índice atualizado a cada INSERT/UPDATE
+ * 
+ * O índice é criado com CONCURRENTLY: em uma tabela grande, a criação pode
+ * levar minutos, mas não bloqueia INSERTs/UPDATEs enquanto isso.
+ */
+@Profile("!reactive") // Não existe no modo reativo (perfil "reactive" usa WebFlux + R2DBC)
+@Configuration // Marca como classe de configuração do Spring (define beans)
+public class ProductSearchIndexConfig {
+
+    /**
+     * Nome do índice GIN da busca por nome
+     */
+    public static final String INDEX_NAME = "products_name_search_idx";
+
+    /**
+     * Cria o bean que garante o índice na subida da aplicação
+     * 
+     * @DependsOn("entityManagerFactory"): executa DEPOIS do Hibernate, que cria
+     * a tabela products (ddl-auto=update) em um banco novo.
+     * 
+     * @param dataSource O pool de conexões configurado pelo Spring Boot
+     */
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public ProductSearchIndexInitializer productSearchIndexInitializer(DataSource dataSource) {
+        return new ProductSearchIndexInitializer(new JdbcTemplate(dataSource));
+    }
+
+    /**
+     * Inicializador do Índice - executa uma vez na subida da aplicação
+     * 
+     * IF NOT EXISTS: nas subidas seguintes (e nos outros nós) não faz nada.
+     */
+    public static class ProductSearchIndexInitializer implements InitializingBean {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        public ProductSearchIndexInitializer(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            // CONCURRENTLY não pode rodar dentro de uma transação: o JdbcTemplate
+            // usa uma conexão em auto-commit, então o comando roda sozinho
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + INDEX_NAME
+                    + " ON products USING GIN (to_tsvector('" + ProductRepository.SEARCH_TEXT_CONFIG + "', name))");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+// Importa @Value para ler as opções do application.properties
+import org.springframework.beans.factory.annotation.Value;
+
+// Importa @Profile para que este filtro só exista no modo reativo
+import org.springframework.context.annotation.Profile;
+
+// Importa @Order para posicionar o filtro antes dos demais WebFilters
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+
+// Importa @Component para registrar o filtro como um bean do Spring
+import org.springframework.stereotype.Component;
+
+// Importa WebFilter: o equivalente reativo do filtro de Servlets
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite de Taxa por Cliente no Modo Reativo (perfil "reactive")
+ *
+ * Mesmas cotas, mesmo ClientRateLimiter e mesma resposta 429 do RateLimitFilter,
+ * na frente do ReactiveProductController. A decisão não bloqueia (um CAS), então
+ * roda direto na thread do event loop do Netty.
+ */
+@Profile("reactive") // Só existe no modo reativo
+@Order(Ordered.HIGHEST_PRECEDENCE + 10) // Antes dos demais WebFilters
+@Component // Registra como bean do Spring (o WebFlux aplica todo bean WebFilter)
+public class RateLimitWebFilter implements WebFilter {
+
+    private final ClientRateLimiter rateLimiter;
+    private final boolean enabled;
+    private final String clientHeader;
+
+    public RateLimitWebFilter(ClientRateLimiter rateLimiter,
+                              @Value("${app.ratelimit.enabled:true}") boolean enabled,
+                              @Value("${app.ratelimit.client-header:}") String clientHeader) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.clientHeader = clientHeader.isBlank() ? null : clientHeader;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        if (!enabled || !RateLimitFilter.isProductsPath(path)) {
+            return chain.filter(exchange);
+        }
+        long waitNanos = rateLimiter.tryAcquire(clientOf(request), RateLimitFilter.quotaOf(request.getMethod().name(), path));
+        if (waitNanos == 0) {
+            return chain.filter(exchange);
+        }
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        // Mesmo corpo do RateLimitFilter (e do GlobalExceptionHandler)
+        byte[] body = ("{\"message\":\"Limite de requisições excedido, tente novamente em " + retryAfter
+                + " s\",\"status\":\"429\"}").getBytes(StandardCharsets.UTF_8);
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().wrap(body);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private String clientOf(ServerHttpRequest request) {
+        if (clientHeader != null) {
+            String client = request.getHeaders().getFirst(clientHeader);
+            if (client != null && !client.isEmpty()) {
+                return client;
+            }
+        }
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null ? remote.getAddress().getHostAddress() : "desconhecido";
+    }
+}
@@ -0,0 +1,33 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+// Importa a fábrica do servidor Netty (Reactor Netty) usada pelo WebFlux
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+
+// Importa anotações de configuração do Spring
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuração do Servidor no Modo Reativo (perfil "reactive")
+ *
+ * O projeto tem o Tomcat (spring-boot-starter-web) e o Netty (spring-boot-starter-webflux)
+ * no classpath. No modo reativo, o Spring Boot escolheria o Tomcat por padrão,
+ * rodando o WebFlux sobre a API de Servlets.
+ *
+ * Declarando a fábrica do Netty explicitamente, o modo reativo usa o Netty:
+ * um pequeno número de threads de event loop (uma por núcleo de CPU) atende
+ * todas as conexões, sem uma thread por requisição.
+ *
+ * As propriedades server.* (porta, compressão...) continuam valendo.
+ */
+@Profile("reactive") // Só existe no modo reativo
+@Configuration // Marca como classe de configuração do Spring (define beans)
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
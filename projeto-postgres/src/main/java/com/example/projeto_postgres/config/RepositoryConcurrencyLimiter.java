@@ -0,0 +1,240 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+// Importa a exceção lançada quando a chamada é recusada (HTTP 503)
+import com.example.projeto_postgres.exception.DatabaseOverloadedException;
+
+// Importa o Micrometer para publicar limite, chamadas em andamento e recusas
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Importa as anotações do AspectJ (spring-boot-starter-aop)
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+// Importa @Value para ler os limites do application.properties
+import org.springframework.beans.factory.annotation.Value;
+
+// Importa as exceções que indicam sobrecarga do banco (alimentam o limite)
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+
+// Importa @Profile para desligar este bean no modo reativo
+import org.springframework.context.annotation.Profile;
+
+// Importa @Component para registrar o aspecto como um bean do Spring
+import org.springframework.stereotype.Component;
+
+import org.springframework.transaction.CannotCreateTransactionException;
+
+// Importa o TransactionSynchronizationManager para saber se há uma transação aberta
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.Method;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Limite de Concorrência Adaptativo na Frente do ProductRepository
+ *
+ * Toda chamada ao ProductRepository passa por um AdaptiveConcurrencyLimit do seu
+ * tipo de operação, que aprende pela latência quantas chamadas simultâneas o
+ * banco aguenta. Acima disso, a chamada é recusada na hora com
+ * DatabaseOverloadedException (HTTP 503), em vez de esperar na fila do pool.
+ *
+ * TIPOS DE OPERAÇÃO (limites independentes, como as cotas do ClientRateLimiter):
+ * - read: leituras de um resultado (findViewById, findVersionById, priceStats...)
+ * - list: leituras que devolvem coleções ou streams (findPageAfter, searchByName...)
+ * - write: save*, delete*, update*, insert* (escritas lentas não derrubam as leituras)
+ *
+ * AMOSTRAS DE LATÊNCIA:
+ * Só as chamadas que de fato esperam o banco alimentam o limite:
+ * - Métodos que devolvem Stream liberam a vaga ao devolver o Stream: a leitura
+ *   das linhas acontece depois, fora da medição (nenhuma amostra)
+ * - save/saveAll dentro de uma transação só enfileiram o INSERT/UPDATE; ele é
+ *   enviado no flush (fora do repositório) ou no commit (nenhuma amostra)
+ * Sem isso, um lote de milhares de saves de microssegundos derrubaria a latência
+ * "normal", os UPDATEs reais pareceriam lentos e o limite de escrita cairia
+ * até o mínimo, recusando escritas concorrentes com 503.
+ *
+ * Fica em camadas com o BoundedDataSource: este limite recusa o excesso cedo,
+ * o BoundedDataSource continua garantindo que nunca haja mais chamadas que
+ * conexões no HikariCP.
+ */
+@Profile("!reactive") // Não existe no modo reativo (perfil "reactive" usa WebFlux + R2DBC)
+@Aspect // Intercepta as chamadas aos métodos do ProductRepository
+@Component // Registra como bean do Spring (o Spring Boot aplica os aspectos dos beans)
+public class RepositoryConcurrencyLimiter implements MeterBinder {
+
+    /**
+     * Tipo de operação de cada método do repositório
+     */
+    public enum Operation {
+        READ, LIST, WRITE;
+
+        /**
+         * Nome usado na tag "operation" das métricas
+         */
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * Quando a duração de uma chamada vira amostra de latência do limite
+     */
+    enum Sampling {
+        /** A chamada vai ao banco e espera a resposta */
+        ALWAYS,
+        /** save/saveAll: dentro de uma transação só enfileiram o comando até o flush */
+        OUTSIDE_TRANSACTION,
+        /** Stream: a vaga é liberada antes de as linhas serem lidas */
+        NEVER
+    }
+
+    /**
+     * Tipo de operação e amostragem de um método do repositório
+     */
+    private record MethodPolicy(Operation operation, Sampling sampling) {
+    }
+
+    private final boolean enabled;
+    private final Map<Operation, AdaptiveConcurrencyLimit> limits = new EnumMap<>(Operation.class);
+
+    /**
+     * Tipo de operação e amostragem já calculados para cada método (evita olhar nome e retorno a cada chamada)
+     */
+    private final Map<Method, MethodPolicy> policies = new ConcurrentHashMap<>();
+
+    /**
+     * @param enabled Liga/desliga o limite
+     * @param initialLimit Limite de cada operação antes das primeiras medições
+     * @param minLimit Menor limite possível
+     * @param maxLimit Maior limite possível
+     */
+    public RepositoryConcurrencyLimiter(
+            @Value("${app.db.concurrency.enabled:true}") boolean enabled,
+            @Value("${app.db.concurrency.initial-limit:10}") int initialLimit,
+            @Value("${app.db.concurrency.min-limit:1}") int minLimit,
+            @Value("${app.db.concurrency.max-limit:20}") int maxLimit) {
+        this.enabled = enabled;
+        for (Operation operation : Operation.values()) {
+            limits.put(operation, new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit));
+        }
+    }
+
+    /**
+     * Envolve cada chamada ao ProductRepository (inclusive os métodos herdados do JpaRepository)
+     */
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))"
+            + " && this(com.example.projeto_postgres.repository.ProductRepository)")
+    public Object limitRepositoryCall(ProceedingJoinPoint call) throws Throwable {
+        if (!enabled) {
+            return call.proceed();
+        }
+        Method method = ((MethodSignature) call.getSignature()).getMethod();
+        MethodPolicy policy = policies.computeIfAbsent(method,
+                key -> new MethodPolicy(operationOf(key), samplingOf(key)));
+        Operation operation = policy.operation();
+        AdaptiveConcurrencyLimit limit = limits.get(operation);
+        boolean sampled = switch (policy.sampling()) {
+            case ALWAYS -> true;
+            case OUTSIDE_TRANSACTION -> !TransactionSynchronizationManager.isActualTransactionActive();
+            case NEVER -> false;
+        };
+
+        int inFlight = limit.tryAcquire();
+        if (inFlight < 0) {
+            throw new DatabaseOverloadedException("Banco sobrecarregado: limite de " + limit.getLimit()
+                    + " chamadas simultâneas (" + operation.tag() + ") atingido");
+        }
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            return call.proceed();
+        } catch (CannotCreateTransactionException | DataAccessResourceFailureException
+                 | TransientDataAccessException ex) {
+            // Timeout, falta de conexão ou banco fora do ar: sinal de sobrecarga
+            dropped = true;
+            throw ex;
+        } finally {
+            if (sampled || dropped) {
+                limit.release(inFlight, System.nanoTime() - start, dropped);
+            } else {
+                limit.release();
+            }
+        }
+    }
+
+    /**
+     * O limite de uma operação (usado pelos testes e pelas métricas)
+     */
+    public AdaptiveConcurrencyLimit limit(Operation operation) {
+        return limits.get(operation);
+    }
+
+    /**
+     * Classifica o método pelo nome e pelo tipo de retorno
+     */
+    static Operation operationOf(Method method) {
+        String name = method.getName();
+        if (name.startsWith("save") || name.startsWith("delete") || name.startsWith("update")
+                || name.startsWith("insert") || name.startsWith("flush")) {
+            return Operation.WRITE;
+        }
+        Class<?> type = method.getReturnType();
+        if (Iterable.class.isAssignableFrom(type) || Stream.class.isAssignableFrom(type) || type.isArray()) {
+            return Operation.LIST;
+        }
+        return Operation.READ;
+    }
+
+    /**
+     * Decide se a duração das chamadas ao método vira amostra de latência
+     */
+    static Sampling samplingOf(Method method) {
+        if (Stream.class.isAssignableFrom(method.getReturnType())) {
+            return Sampling.NEVER;
+        }
+        String name = method.getName();
+        if (name.equals("save") || name.equals("saveAll")) {
+            return Sampling.OUTSIDE_TRANSACTION;
+        }
+        return Sampling.ALWAYS;
+    }
+
+    /**
+     * Publica as métricas de cada operação no Micrometer (chamado pelo Spring Boot)
+     *
+     * - app.db.concurrency.limit{operation}: chamadas simultâneas permitidas agora
+     * - app.db.concurrency.in-flight{operation}: chamadas em andamento agora
+     * - app.db.concurrency.shed{operation}: chamadas recusadas (HTTP 503)
+     *
+     * @param registry O registro de métricas da aplicação
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Operation operation : Operation.values()) {
+            AdaptiveConcurrencyLimit limit = limits.get(operation);
+            Gauge.builder("app.db.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                    .description("Chamadas simultâneas ao banco permitidas pelo limite adaptativo")
+                    .tag("operation", operation.tag())
+                    .register(registry);
+            Gauge.builder("app.db.concurrency.in-flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                    .description("Chamadas ao banco em andamento")
+                    .tag("operation", operation.tag())
+                    .register(registry);
+            FunctionCounter.builder("app.db.concurrency.shed", limit, AdaptiveConcurrencyLimit::getShed)
+                    .description("Chamadas ao banco recusadas pelo limite adaptativo")
+                    .tag("operation", operation.tag())
+                    .register(registry);
+        }
+    }
+}
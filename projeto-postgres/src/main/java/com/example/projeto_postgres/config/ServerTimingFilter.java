@@ -0,0 +1,132 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+// Importa as classes da API de Servlets (requisição, resposta, cadeia de filtros)
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Importa @Value para ler o limite de comandos do application.properties
+import org.springframework.beans.factory.annotation.Value;
+
+// Importa @Profile para desligar o filtro no modo reativo
+import org.springframework.context.annotation.Profile;
+
+// Importa @Component para registrar o filtro como um bean do Spring
+// (o Spring Boot registra automaticamente todo bean Filter no Tomcat)
+import org.springframework.stereotype.Component;
+
+// Importa OncePerRequestFilter: garante uma única execução por requisição
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro que Devolve os Comandos SQL de Cada Requisição no Cabeçalho Server-Timing
+ * 
+ * Exemplo de resposta de GET /products/1:
+ * Server-Timing: db;dur=0.42;desc="1 statements"
+ * 
+ * - dur: tempo total gasto no banco, em milissegundos
+ * - desc: quantidade de comandos SQL enviados ao banco
+ * 
+ * Requisições que passam do limite app.sql.statement-budget são registradas
+ * no log (WARN), com o método e o caminho: é assim que um N+1 aparece.
+ * 
+ * O cabeçalho precisa ser escrito ANTES do corpo (depois que o corpo começa a
+ * ser enviado, os cabeçalhos não podem mais mudar). Por isso a resposta é
+ * envolvida em um wrapper que adiciona o cabeçalho no primeiro getOutputStream().
+ * Respostas sem corpo (204, 304) recebem o cabeçalho no fim do filtro.
+ */
+@Component // Registra como bean do Spring (o Spring Boot o adiciona aos filtros do Tomcat)
+@Profile("!reactive") // Não existe no modo reativo (sem Servlets nem JDBC)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    /**
+     * Quantidade de comandos SQL acima da qual a requisição é registrada no log
+     */
+    private final int statementBudget;
+
+    public ServerTimingFilter(@Value("${app.sql.statement-budget:10}") int statementBudget) {
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementStats.start();
+        ServerTimingResponse timedResponse = new ServerTimingResponse(response, stats);
+        try {
+            chain.doFilter(request, timedResponse);
+        } finally {
+            SqlStatementStats.clear();
+            timedResponse.addServerTiming();
+            if (stats.getStatements() > statementBudget) {
+                log.warn("{} {} executou {} comandos SQL ({} ms no banco), acima do limite de {}",
+                        request.getMethod(), request.getRequestURI(), stats.getStatements(),
+                        TimeUnit.NANOSECONDS.toMillis(stats.getDurationNanos()), statementBudget);
+            }
+        }
+    }
+
+    /**
+     * Resposta que adiciona o Server-Timing uma única vez, antes do corpo
+     */
+    private static class ServerTimingResponse extends HttpServletResponseWrapper {
+
+        private final SqlStatementStats stats;
+        private boolean added;
+
+        ServerTimingResponse(HttpServletResponse response, SqlStatementStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void addServerTiming() {
+            if (!added && !isCommitted()) {
+                added = true;
+                addHeader("Server-Timing", stats.toServerTiming());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            addServerTiming();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            addServerTiming();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addServerTiming();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addServerTiming();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addServerTiming();
+            super.sendError(sc);
+        }
+    }
+}
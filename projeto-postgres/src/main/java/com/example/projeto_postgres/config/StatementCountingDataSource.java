@@ -0,0 +1,90 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_postgres.config;
+
+// Importa DelegatingDataSource do Spring: um DataSource que repassa tudo para outro
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource que Conta os Comandos SQL de Cada Requisição
+ * 
+ * Envolve as conexões (e os Statements criados por elas) em proxies que medem
+ * cada execute(), executeQuery(), executeUpdate() e executeBatch() e registram
+ * o resultado no SqlStatementStats da thread atual.
+ * 
+ * Fora de uma requisição HTTP (ex: tarefas em segundo plano), os Statements
+ * são devolvidos sem proxy: não há custo quando não há quem conte.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    /**
+     * @param target O DataSource real (pool do Hikari)
+     */
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countStatements(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countStatements(super.getConnection(username, password));
+    }
+
+    /**
+     * Envolve a conexão em um proxy que envolve os Statements criados por ela
+     */
+    private static Connection countStatements(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    // createStatement(), prepareStatement() e prepareCall() devolvem um Statement
+                    if (result instanceof Statement statement && SqlStatementStats.current() != null) {
+                        return timeExecutions(statement, method.getReturnType());
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Envolve o Statement em um proxy que mede os métodos execute*()
+     * 
+     * @param type A interface devolvida pela conexão (Statement, PreparedStatement ou CallableStatement)
+     */
+    private static Object timeExecutions(Statement statement, Class<?> type) {
+        return Proxy.newProxyInstance(
+                Statement.class.getClassLoader(),
+                new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    if (!method.getName().startsWith("execute")) {
+                        return invoke(statement, method, args);
+                    }
+                    long start = System.nanoTime();
+                    try {
+                        return invoke(statement, method, args);
+                    } finally {
+                        SqlStatementStats.record(System.nanoTime() - start);
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
@@ -1,6 +1,19 @@
 // Declaração do pacote - organiza a classe no pacote de controllers
 package com.example.projeto_postgres.controller;
 
+// Importa o snapshot comprimido do catálogo e o writer JSON dedicado, usados na exportação
+import com.example.projeto_postgres.cache.ProductCatalogSnapshot;
+import com.example.projeto_postgres.config.ProductJsonWriter;
+
+// Importa os DTOs retornados pela listagem paginada e pela criação em lote
+import com.example.projeto_postgres.dto.ProductBatchResult;
+import com.example.projeto_postgres.dto.ProductPage;
+import com.example.projeto_postgres.dto.ProductPatch;
+import com.example.projeto_postgres.dto.ProductPriceHistogram;
+import com.example.projeto_postgres.dto.ProductPriceRange;
+import com.example.projeto_postgres.dto.ProductPriceStats;
+import com.example.projeto_postgres.dto.ProductSuggestion;
+
 // Importa a entidade Product que será usada nas requisições/respostas
 import com.example.projeto_postgres.model.Product;
 
@@ -18,25 +31,53 @@ import jakarta.validation.Valid;
 // O Spring automaticamente injeta uma instância do ProductRepository aqui
 import org.springframework.beans.factory.annotation.Autowired;
 
+// Importa @Profile para desligar este controller no modo reativo
+import org.springframework.context.annotation.Profile;
+
 // Importa HttpStatus para códigos HTTP padronizados (200, 201, 404, etc.)
 import org.springframework.http.HttpStatus;
 
+// Importa HttpHeaders para os nomes padronizados de cabeçalhos (ETag, If-None-Match, etc.)
+import org.springframework.http.HttpHeaders;
+
 // Importa ResponseEntity para construir respostas HTTP com status e corpo
 // Permite controlar o código de status, headers e corpo da resposta
 import org.springframework.http.ResponseEntity;
 
+// Importa MediaType para declarar o tipo de conteúdo NDJSON da exportação
+import org.springframework.http.MediaType;
+
+// Importa WebRequest para verificar os cabeçalhos condicionais (If-None-Match)
+import org.springframework.web.context.request.WebRequest;
+
+// Importa StreamingResponseBody para escrever a resposta aos poucos,
+// diretamente no OutputStream do servlet, sem montar o corpo inteiro em memória
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 // Importa anotações do Spring MVC para criar endpoints REST
 // @RestController: Combina @Controller + @ResponseBody (retorna JSON automaticamente)
 // @RequestMapping: Define o caminho base para todos os endpoints desta classe
 // @PostMapping: Mapeia requisições HTTP POST
 // @GetMapping: Mapeia requisições HTTP GET
 // @PutMapping: Mapeia requisições HTTP PUT
+// @PatchMapping: Mapeia requisições HTTP PATCH
 // @DeleteMapping: Mapeia requisições HTTP DELETE
 // @RequestBody: Converte o JSON do corpo da requisição em um objeto Java
 // @PathVariable: Extrai variáveis da URL (ex: /products/{id})
+// @RequestParam: Extrai parâmetros da query string (ex: /products?limit=50)
 import org.springframework.web.bind.annotation.*;
 
-// Importa List para retornar coleções de produtos
+// Importa UncheckedIOException para propagar erros de escrita de dentro do lambda
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Importa as classes para comprimir a exportação e descomprimir o snapshot para clientes sem gzip
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Importa List para receber e retornar coleções de produtos
 import java.util.List;
 
 /**
@@ -65,7 +106,12 @@ import java.util.List;
  * - Trata erros e exceções
  * - Gerencia o ciclo de vida das requisições
  * - Usa o pool de conexões (HikariCP) para acessar o PostgreSQL
+ * 
+ * O formato segue o cabeçalho Accept (e o Content-Type, no corpo da requisição):
+ * JSON por padrão, ou CBOR (application/cbor) e Smile (application/x-jackson-smile)
+ * para tráfego entre serviços (veja BinaryFormatsConfig).
  */
+@Profile("!reactive") // Não existe no modo reativo (perfil "reactive" usa WebFlux + R2DBC)
 @RestController // Marca como controller REST (retorna JSON automaticamente)
 @RequestMapping("/products") // Define o caminho base: todos os endpoints começam com /products
 public class ProductController {
@@ -109,6 +155,14 @@ public class ProductController {
     @Autowired // Injeção de dependência: Spring injeta automaticamente o ProductService
     private ProductService productService; // Service para acessar a lógica de negócio
 
+    /**
+     * Snapshot gzip do catálogo completo, servido pela exportação
+     * 
+     * O ProductService o invalida a cada escrita; a próxima exportação o reconstrói.
+     */
+    @Autowired
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
     /**
      * CREATE - Criar um novo produto
      * 
@@ -150,34 +204,351 @@ public class ProductController {
     }
 
     /**
-     * READ - Listar todos os produtos
+     * CREATE - Criar vários produtos de uma vez (lote)
+     * 
+     * Endpoint: POST http://localhost:8080/products/batch
+     * 
+     * Recebe um array JSON de produtos e insere todos em UMA transação,
+     * usando JDBC batching (ao invés de um POST /products por item).
+     * 
+     * Exemplo de JSON esperado:
+     * [
+     *   {"name": "Notebook", "priceInCents": 250000},
+     *   {"name": "Mouse", "priceInCents": 5000}
+     * ]
+     * 
+     * A validação é feita item a item pelo Service. A resposta traz um resultado
+     * por item, na mesma ordem do array enviado:
+     * - HTTP 201 (Created): todos os itens foram criados
+     * - HTTP 207 (Multi-Status): parte dos itens foi rejeitada (veja "errors" de cada item)
+     */
+    @PostMapping("/batch") // Mapeia requisições HTTP POST para /products/batch
+    public ResponseEntity<List<ProductBatchResult>> createProducts(@RequestBody List<Product> products) {
+        // Delega a criação em lote para o Service
+        List<ProductBatchResult> results = productService.createProducts(products);
+        
+        // 201 se todos foram criados, 207 se algum item foi rejeitado
+        boolean allCreated = results.stream().allMatch(ProductBatchResult::isCreated);
+        HttpStatus status = allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        
+        return ResponseEntity.status(status).body(results);
+    }
+
+    /**
+     * READ - Listar produtos (paginação por cursor)
      * 
-     * Endpoint: GET http://localhost:8080/products
+     * Endpoint: GET http://localhost:8080/products?after=<cursor>&limit=50
      * 
      * @GetMapping: Mapeia requisições HTTP GET para este método
      * 
-     * COM POSTGRESQL:
-     * - Executa: SELECT * FROM products
-     * - Retorna todos os produtos salvos permanentemente no banco
-     * - Os dados persistem mesmo após reiniciar a aplicação
+     * @RequestParam: Extrai parâmetros da query string (?after=...&limit=...)
+     * - after: Cursor opaco devolvido na página anterior (opcional na primeira página)
+     * - limit: Quantidade de produtos por página (padrão 50, máximo 500)
+     * 
+     * IMPORTANTE: Este endpoint NÃO devolve mais a tabela inteira!
+     * Com milhões de produtos, carregar tudo em uma List levava segundos e
+     * causava picos de memória. Agora cada página custa o mesmo, não importa a profundidade.
+     * 
+     * O Spring automaticamente serializa a ProductPage em JSON:
+     * {
+     *   "items": [
+     *     {"id": 1, "name": "Notebook", "priceInCents": 250000},
+     *     {"id": 2, "name": "Mouse", "priceInCents": 5000}
+     *   ],
+     *   "nextCursor": "Mg"
+     * }
      * 
-     * ResponseEntity.ok(): Método helper que retorna HTTP 200 (OK)
-     * Equivale a: ResponseEntity.status(HttpStatus.OK).body(products)
+     * Para buscar a próxima página: GET /products?after=Mg&limit=50
+     * Quando "nextCursor" for null, não há mais produtos.
+     */
+    @GetMapping // Mapeia requisições HTTP GET para /products
+    public ResponseEntity<ProductPage> getAllProducts(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit) {
+        // Delega a busca da página para o Service
+        // O Service valida o cursor/limit e executa a consulta por keyset
+        ProductPage page = productService.getProductsPage(after, limit);
+        
+        // Retorna HTTP 200 (OK) com a página de produtos em JSON
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * READ - Buscar produtos pelo nome
+     * 
+     * Endpoint: GET http://localhost:8080/products/search?q=cadeira&after=<cursor>&limit=50
+     * 
+     * - q: Texto de busca (obrigatório, até 100 caracteres)
+     * - after / limit: Paginação por cursor, como na listagem
+     * 
+     * A busca usa o full-text search do PostgreSQL com um índice GIN:
+     * - "cadeiras" encontra "Cadeira Gamer" (palavras reduzidas ao radical)
+     * - Aceita frases entre aspas ("cadeira gamer") e exclusão (-gamer)
+     * - Não varre a tabela: só os produtos que contêm os termos são lidos
+     * 
+     * Os produtos vêm do MAIS relevante para o menos relevante, no mesmo formato
+     * da listagem: {"items": [...], "nextCursor": "..."}
+     */
+    @GetMapping("/search") // Mapeia GET /products/search (tem prioridade sobre /{id})
+    public ResponseEntity<ProductPage> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit) {
+        // Delega a busca para o Service (valida q, cursor e limit)
+        ProductPage page = productService.searchProducts(q, after, limit);
+        
+        // Retorna HTTP 200 (OK) com a página de resultados em JSON
+        return ResponseEntity.ok(page);
+    }
+
+    /**
+     * READ - Sugestões enquanto o usuário digita (search-as-you-type)
+     * 
+     * Endpoint: GET http://localhost:8080/products/suggest?prefix=cad&limit=10
      * 
-     * O Spring automaticamente serializa a List<Product> em JSON:
+     * - prefix: Texto digitado até agora (obrigatório)
+     * - limit: Quantidade máxima de sugestões (padrão 10, máximo 50)
+     * 
+     * Devolve os produtos com uma palavra do nome começando com o prefixo,
+     * sem diferenciar maiúsculas/minúsculas nem acentos:
      * [
-     *   {"id": 1, "name": "Notebook", "priceInCents": 250000},
-     *   {"id": 2, "name": "Mouse", "priceInCents": 5000}
+     *   {"id": 7, "name": "Cadeira Gamer"},
+     *   {"id": 3, "name": "Caderno Universitário"}
      * ]
+     * 
+     * NÃO vai ao banco: a busca é feita no índice em memória (ProductNameIndex),
+     * então pode ser chamada a cada tecla.
      */
-    @GetMapping // Mapeia requisições HTTP GET para /products
-    public ResponseEntity<List<Product>> getAllProducts() {
-        // Delega a busca de produtos para o Service
-        // O Service pode aplicar filtros, ordenação, paginação, etc.
-        List<Product> products = productService.getAllProducts();
+    @GetMapping("/suggest") // Mapeia GET /products/suggest (tem prioridade sobre /{id})
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_SUGGEST_SIZE) int limit) {
+        // Delega para o Service (valida prefix e limit e consulta o índice em memória)
+        return ResponseEntity.ok(productService.suggestProducts(prefix, limit));
+    }
+
+    /**
+     * READ - Estatísticas de preço do catálogo
+     * 
+     * Endpoint: GET http://localhost:8080/products/stats
+     * 
+     * Resposta:
+     * {"count": 1000, "minInCents": 990, "maxInCents": 250000, "avgInCents": 15320.5,
+     *  "p50InCents": 8990.0, "p90InCents": 45000.0, "p99InCents": 199900.0}
+     * 
+     * Calculadas pelo banco em um único comando (COUNT, MIN, MAX, AVG e
+     * PERCENTILE_CONT): o catálogo não é baixado nem carregado na aplicação.
+     */
+    @GetMapping("/stats") // Mapeia GET /products/stats (tem prioridade sobre /{id})
+    public ResponseEntity<ProductPriceStats> getPriceStats() {
+        return ResponseEntity.ok(productService.getPriceStats());
+    }
+
+    /**
+     * READ - Histograma de preços
+     * 
+     * Endpoint: GET http://localhost:8080/products/price-histogram?buckets=10
+     * 
+     * - buckets: Quantidade de faixas de mesma largura entre o menor e o maior preço
+     *   (padrão 10, máximo 100)
+     * 
+     * Resposta (cada faixa vai de fromInCents, incluído, até toInCents, excluído):
+     * {"count": 40, "buckets": [
+     *   {"fromInCents": 1000, "toInCents": 2000, "count": 25},
+     *   {"fromInCents": 2000, "toInCents": 3000, "count": 15}
+     * ]}
+     * 
+     * A contagem de cada faixa é feita pelo banco (GROUP BY), em um único comando.
+     */
+    @GetMapping("/price-histogram") // Mapeia GET /products/price-histogram
+    public ResponseEntity<ProductPriceHistogram> getPriceHistogram(
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_HISTOGRAM_BUCKETS) int buckets) {
+        // Delega para o Service (valida buckets e executa a consulta de agregação)
+        return ResponseEntity.ok(productService.getPriceHistogram(buckets));
+    }
+
+    /**
+     * ANÁLISE - Resumo dos preços em uma faixa
+     * 
+     * Endpoint: GET http://localhost:8080/products/analytics/price-range?minInCents=1000&maxInCents=5000
+     * 
+     * - minInCents / maxInCents: Faixa de preço, incluindo os limites (padrão: todos os preços)
+     * 
+     * Resposta:
+     * {"count": 3, "sumInCents": 9000, "minInCents": 1000, "maxInCents": 5000, "avgInCents": 3000.0}
+     * 
+     * NÃO vai ao banco: é calculado na cópia colunar de preços em memória
+     * (ProductPriceAnalytics), que é atualizada a cada escrita.
+     */
+    @GetMapping("/analytics/price-range") // Mapeia GET /products/analytics/price-range
+    public ResponseEntity<ProductPriceRange> analyzePriceRange(
+            @RequestParam(defaultValue = "0") int minInCents,
+            @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int maxInCents) {
+        // Delega para o Service (valida a faixa e varre a cópia em memória)
+        return ResponseEntity.ok(productService.analyzePriceRange(minInCents, maxInCents));
+    }
+
+    /**
+     * ANÁLISE - Ids dos produtos em uma faixa de preço
+     * 
+     * Endpoint: GET http://localhost:8080/products/analytics/price-range/ids?minInCents=1000&maxInCents=5000&limit=1000
+     * 
+     * - limit: Quantidade máxima de ids (padrão 1000, máximo 10000)
+     * 
+     * Resposta (ids em ordem crescente): [3, 8, 21]
+     */
+    @GetMapping("/analytics/price-range/ids") // Mapeia GET /products/analytics/price-range/ids
+    public ResponseEntity<long[]> findProductIdsInPriceRange(
+            @RequestParam(defaultValue = "0") int minInCents,
+            @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int maxInCents,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_RANGE_IDS) int limit) {
+        // Delega para o Service (valida a faixa e o limit e varre a cópia em memória)
+        return ResponseEntity.ok(productService.findProductIdsInPriceRange(minInCents, maxInCents, limit));
+    }
+
+    /**
+     * READ - Exportar o catálogo completo em NDJSON (streaming)
+     * 
+     * Endpoint: GET http://localhost:8080/products/export
+     * 
+     * NDJSON (Newline Delimited JSON): um objeto JSON por linha
+     * {"id":1,"name":"Notebook","priceInCents":250000}
+     * {"id":2,"name":"Mouse","priceInCents":5000}
+     * 
+     * StreamingResponseBody: O Spring executa o lambda em outra thread e entrega
+     * o OutputStream da resposta. Cada produto é escrito assim que sai do banco:
+     * - Os primeiros bytes chegam ao cliente em milissegundos
+     * - Nem a lista de entidades nem o JSON completo ficam em memória
+     * - A memória usada é a mesma para 10 linhas ou 10 milhões de linhas
+     * 
+     * A leitura no banco acontece em ProductService.exportProducts(), que usa
+     * um Stream com fetch size e transação somente leitura.
+     * 
+     * SNAPSHOT PRÉ-COMPRIMIDO:
+     * Enquanto nenhuma escrita acontecer, as exportações não vão ao banco: o
+     * catálogo já está pronto em gzip no ProductCatalogSnapshot e a resposta é
+     * uma única escrita desse buffer (Content-Encoding: gzip). Clientes sem gzip
+     * no Accept-Encoding recebem o mesmo snapshot descomprimido na saída.
+     * 
+     * Sem snapshot pronto (alguma escrita o invalidou), a exportação é sempre
+     * o streaming acima, sem esperar por nada. Para um cliente que aceita gzip,
+     * o próprio endpoint comprime o NDJSON e o ProductCatalogSnapshot copia
+     * esse gzip enquanto ele é enviado: quando a exportação termina, o próximo
+     * snapshot está pronto, sem uma segunda leitura da tabela.
+     * 
+     * @param acceptEncoding Cabeçalho Accept-Encoding (codificações aceitas pelo cliente)
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE) // Mapeia GET /products/export
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        // Snapshot pronto: nenhuma consulta
+        boolean gzip = ProductCatalogSnapshot.acceptsGzip(acceptEncoding);
+        ProductCatalogSnapshot.Snapshot snapshot = productCatalogSnapshot.current();
+        if (snapshot != null) {
+            return exportSnapshot(snapshot, gzip);
+        }
         
-        // Retorna HTTP 200 (OK) com a lista de produtos em JSON
-        return ResponseEntity.ok(products);
+        // Sem snapshot: o gzip desta exportação pode virar o próximo
+        if (gzip) {
+            return exportAndBuildSnapshot();
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            // Um único writer (e um único buffer do pool) para a exportação inteira:
+            // os produtos são escritos direto no buffer, sem um byte[] por linha
+            try (ProductJsonWriter json = ProductJsonWriter.open(outputStream)) {
+                productService.exportProducts(product -> {
+                    try {
+                        // Escreve o produto em JSON seguido de uma quebra de linha
+                        json.writeProduct(product);
+                        json.writeByte('\n');
+                    } catch (IOException ex) {
+                        // Cliente desconectou: interrompe a exportação e libera a conexão com o banco
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        
+        // Retorna HTTP 200 (OK); o corpo é escrito enquanto os produtos são lidos
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Exportação em streaming comprimida aqui mesmo (no lugar da compressão do Tomcat)
+     * 
+     * O gzip é copiado para o próximo snapshot, a menos que outra exportação já
+     * esteja construindo um ou que o catálogo tenha passado do limite há pouco.
+     */
+    private ResponseEntity<StreamingResponseBody> exportAndBuildSnapshot() {
+        StreamingResponseBody body = outputStream -> {
+            // Reservado só aqui, quando a exportação de fato começa
+            ProductCatalogSnapshot.Build build = productCatalogSnapshot.startBuild();
+            try {
+                OutputStream target = build != null ? build.tee(outputStream) : outputStream;
+                // Fechados na ordem inversa: o writer descarrega no gzip, que depois grava o rodapé
+                try (GZIPOutputStream gzip = new GZIPOutputStream(target, ProductJsonWriter.BUFFER_SIZE);
+                     ProductJsonWriter json = ProductJsonWriter.open(gzip)) {
+                    productService.exportProducts(product -> {
+                        try {
+                            json.writeProduct(product);
+                            json.writeByte('\n');
+                            if (build != null) {
+                                build.countProduct();
+                            }
+                        } catch (IOException ex) {
+                            // Cliente desconectou: interrompe a exportação e libera a conexão com o banco
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+                }
+                if (build != null) {
+                    build.complete();
+                }
+            } finally {
+                // Libera a reserva (e guarda o snapshot, se a exportação chegou ao fim)
+                if (build != null) {
+                    build.close();
+                }
+            }
+        };
+        
+        // O Tomcat não comprime de novo (Content-Encoding já definido)
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(body);
+    }
+
+    /**
+     * Responde a exportação com o snapshot gzip do catálogo
+     * 
+     * @param snapshot O snapshot atual
+     * @param gzip Se o cliente aceita gzip (senão, o snapshot é descomprimido na saída)
+     */
+    private ResponseEntity<StreamingResponseBody> exportSnapshot(ProductCatalogSnapshot.Snapshot snapshot, boolean gzip) {
+        byte[] compressed = snapshot.gzip();
+        if (gzip) {
+            // Uma única escrita do buffer; o Tomcat não comprime de novo (Content-Encoding já definido)
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .contentLength(compressed.length)
+                    .body(outputStream -> outputStream.write(compressed));
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .body(outputStream -> {
+                    try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed),
+                            ProductJsonWriter.BUFFER_SIZE)) {
+                        input.transferTo(outputStream);
+                    }
+                });
     }
 
     /**
@@ -200,16 +571,35 @@ public class ProductController {
      * 
      * orElseThrow(): Se o Optional estiver vazio, lança uma exceção
      * O GlobalExceptionHandler captura essa exceção e retorna HTTP 404
+     * 
+     * ETAG E GET CONDICIONAL:
+     * - A resposta traz o cabeçalho ETag: W/"<versão do produto>"
+     * - O cliente guarda o produto e, na próxima vez, envia If-None-Match: W/"<versão>"
+     * - Se o produto não mudou, a resposta é 304 Not Modified SEM corpo
+     * - Para decidir, basta a versão (cache ou SELECT version), sem carregar o produto
      */
     @GetMapping("/{id}") // Mapeia GET /products/{id} - {id} é uma variável de caminho
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<Product> getProductById(@PathVariable Long id, WebRequest request) {
+        // GET condicional: se o cliente enviou If-None-Match, compara só a versão
+        // (vem do cache ou de um SELECT version, sem carregar a entidade inteira)
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            String etag = eTagOf(productService.getProductVersion(id));
+            
+            // checkNotModified() compara o ETag com o If-None-Match e, se forem iguais,
+            // prepara a resposta 304 Not Modified (sem corpo)
+            if (request.checkNotModified(etag)) {
+                // O 304 também leva o Vary: Accept (um cache compartilhado guarda uma cópia por formato)
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+            }
+        }
+        
         // Delega a busca do produto para o Service
         // O Service trata a lógica de busca e lança exceção se não encontrar
         // O GlobalExceptionHandler captura a exceção e retorna HTTP 404
         Product product = productService.getProductById(id);
         
-        // Retorna HTTP 200 (OK) com o produto encontrado
-        return ResponseEntity.ok(product);
+        // Retorna HTTP 200 (OK) com o produto encontrado e a versão como ETag
+        return ResponseEntity.ok().eTag(eTagOf(product.getVersion())).varyBy(HttpHeaders.ACCEPT).body(product);
     }
 
     /**
@@ -242,8 +632,36 @@ public class ProductController {
         // Se não encontrar, o Service lança exceção (tratada pelo GlobalExceptionHandler)
         Product updatedProduct = productService.updateProduct(id, productDetails);
         
-        // Retorna HTTP 200 (OK) com o produto atualizado
-        return ResponseEntity.ok(updatedProduct);
+        // Retorna HTTP 200 (OK) com o produto atualizado e a nova versão como ETag
+        return ResponseEntity.ok().eTag(eTagOf(updatedProduct.getVersion())).varyBy(HttpHeaders.ACCEPT)
+                .body(updatedProduct);
+    }
+
+    /**
+     * UPDATE - Atualizar parcialmente um produto
+     * 
+     * Endpoint: PATCH http://localhost:8080/products/1
+     * 
+     * @PatchMapping("/{id}"): Mapeia requisições HTTP PATCH
+     * PATCH altera apenas os campos enviados; os demais continuam iguais.
+     * 
+     * Exemplo de JSON (altera só o preço):
+     * {
+     *   "priceInCents": 199900
+     * }
+     * 
+     * @Valid: Valida apenas os campos enviados (nome não pode ser vazio, preço deve ser positivo)
+     * 
+     * O Service executa um único comando UPDATE no banco e devolve o produto atualizado.
+     */
+    @PatchMapping("/{id}") // Mapeia requisições HTTP PATCH para /products/{id}
+    public ResponseEntity<Product> patchProduct(@PathVariable Long id, @Valid @RequestBody ProductPatch patch) {
+        // Delega a atualização parcial para o Service
+        Product updatedProduct = productService.patchProduct(id, patch);
+        
+        // Retorna HTTP 200 (OK) com o produto atualizado e a nova versão como ETag
+        return ResponseEntity.ok().eTag(eTagOf(updatedProduct.getVersion())).varyBy(HttpHeaders.ACCEPT)
+                .body(updatedProduct);
     }
 
     /**
@@ -276,5 +694,23 @@ public class ProductController {
         // Indica que a operação foi bem-sucedida, mas não há conteúdo para retornar
         return ResponseEntity.noContent().build();
     }
-}
 
+    /**
+     * Monta o ETag fraco de um produto a partir da sua versão
+     * 
+     * Exemplo: versão 3 → W/"3" (com aspas, como exige o padrão HTTP)
+     * 
+     * POR QUE FRACO (W/)?
+     * - O mesmo produto sai em JSON, CBOR ou Smile (BinaryFormatsConfig), com bytes
+     *   diferentes e a mesma versão. Um ETag forte promete bytes idênticos; o fraco
+     *   promete apenas o mesmo conteúdo, que é o que a versão garante
+     * - O If-None-Match usa comparação fraca, então o 304 continua funcionando
+     * - As respostas levam Vary: Accept, para que um cache não entregue CBOR a quem pediu JSON
+     * 
+     * @param version A versão do produto
+     * @return O ETag fraco entre aspas
+     */
+    private static String eTagOf(Long version) {
+        return "W/\"" + version + "\"";
+    }
+}
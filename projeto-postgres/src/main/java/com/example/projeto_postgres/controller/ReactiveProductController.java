@@ -0,0 +1,169 @@
+// Declaração do pacote - organiza a classe no pacote de controllers
+package com.example.projeto_postgres.controller;
+
+// Importa os DTOs da listagem paginada, da criação em lote e do PATCH
+import com.example.projeto_postgres.dto.ProductBatchResult;
+import com.example.projeto_postgres.dto.ProductPage;
+import com.example.projeto_postgres.dto.ProductPatch;
+
+// Importa a entidade Product (formato do JSON)
+import com.example.projeto_postgres.model.Product;
+
+// Importa os serviços (o reativo e o servlet, de onde vêm as constantes de paginação)
+import com.example.projeto_postgres.service.ProductService;
+import com.example.projeto_postgres.service.ReactiveProductService;
+
+// Importa @Valid para validar os dados recebidos
+import jakarta.validation.Valid;
+
+// Importa classes do Spring
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Importa ServerWebExchange: a requisição/resposta do WebFlux (equivalente ao WebRequest)
+import org.springframework.web.server.ServerWebExchange;
+
+// Importa os tipos reativos do Project Reactor
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Controller REST Reativo - Mesmos endpoints /products do ProductController
+ *
+ * Ativado com o perfil "reactive" (WebFlux + R2DBC sobre o Netty):
+ * mvn spring-boot:run -Dspring-boot.run.profiles=reactive
+ *
+ * O contrato HTTP é o mesmo (caminhos, status, JSON, ETag, erros), então os
+ * clientes não percebem a diferença. O que muda é o modelo de execução:
+ * - ProductController: uma thread do Tomcat presa por requisição enquanto espera o banco
+ * - ReactiveProductController: poucas threads de event loop; enquanto o banco
+ *   responde, a thread atende outras conexões
+ *
+ * Ideal para muitos clientes lentos e conexões de longa duração (ex: exportação).
+ */
+@Profile("reactive") // Só existe no modo reativo
+@RestController // Marca como controller REST (retorna JSON automaticamente)
+@RequestMapping("/products") // Define o caminho base: todos os endpoints começam com /products
+public class ReactiveProductController {
+
+    @Autowired
+    private ReactiveProductService productService;
+
+    /**
+     * CREATE - POST /products
+     */
+    @PostMapping
+    public Mono<ResponseEntity<Product>> createProduct(@Valid @RequestBody Product product) {
+        return productService.createProduct(product)
+                .map(savedProduct -> ResponseEntity.status(HttpStatus.CREATED).body(savedProduct));
+    }
+
+    /**
+     * CREATE - POST /products/batch (201 se todos foram criados, 207 caso contrário)
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<List<ProductBatchResult>>> createProducts(@RequestBody List<Product> products) {
+        return productService.createProducts(products).map(results -> {
+            boolean allCreated = results.stream().allMatch(ProductBatchResult::isCreated);
+            HttpStatus status = allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+            return ResponseEntity.status(status).body(results);
+        });
+    }
+
+    /**
+     * READ - GET /products?after={cursor}&limit={n} (paginação por cursor)
+     */
+    @GetMapping
+    public Mono<ProductPage> getAllProducts(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit) {
+        return productService.getProductsPage(after, limit);
+    }
+
+    /**
+     * READ - GET /products/search?q={texto}&after={cursor}&limit={n} (busca por nome)
+     */
+    @GetMapping("/search")
+    public Mono<ProductPage> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + ProductService.DEFAULT_PAGE_SIZE) int limit) {
+        return productService.searchProducts(q, after, limit);
+    }
+
+    /**
+     * READ - GET /products/export (NDJSON em streaming)
+     *
+     * Retornar um Flux com application/x-ndjson faz o WebFlux escrever cada produto
+     * assim que ele chega do banco. O ritmo é ditado pelo cliente (backpressure):
+     * se ele lê devagar, o banco também é lido devagar, sem acumular em memória.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Product> exportProducts() {
+        return productService.exportProducts();
+    }
+
+    /**
+     * READ - GET /products/{id} (com ETag e If-None-Match, igual ao ProductController)
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Product>> getProductById(@PathVariable Long id, ServerWebExchange exchange) {
+        if (exchange.getRequest().getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH) != null) {
+            return productService.getProductVersion(id).flatMap(version -> {
+                // Versão igual à do cliente: checkNotModified responde 304 sem corpo (com o Vary: Accept)
+                exchange.getResponse().getHeaders().setVary(List.of(HttpHeaders.ACCEPT));
+                if (exchange.checkNotModified(eTagOf(version))) {
+                    return Mono.empty();
+                }
+                return findWithETag(id);
+            });
+        }
+        return findWithETag(id);
+    }
+
+    /**
+     * UPDATE - PUT /products/{id}
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Product>> updateProduct(@PathVariable Long id, @Valid @RequestBody Product productDetails) {
+        return productService.updateProduct(id, productDetails).map(ReactiveProductController::okWithETag);
+    }
+
+    /**
+     * UPDATE - PATCH /products/{id}
+     */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Product>> patchProduct(@PathVariable Long id, @Valid @RequestBody ProductPatch patch) {
+        return productService.patchProduct(id, patch).map(ReactiveProductController::okWithETag);
+    }
+
+    /**
+     * DELETE - DELETE /products/{id}
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteProduct(@PathVariable Long id) {
+        return productService.deleteProduct(id).then(Mono.just(ResponseEntity.noContent().<Void>build()));
+    }
+
+    private Mono<ResponseEntity<Product>> findWithETag(Long id) {
+        return productService.getProductById(id).map(ReactiveProductController::okWithETag);
+    }
+
+    private static ResponseEntity<Product> okWithETag(Product product) {
+        return ResponseEntity.ok().eTag(eTagOf(product.getVersion())).varyBy(HttpHeaders.ACCEPT).body(product);
+    }
+
+    /**
+     * Monta o ETag fraco a partir da versão (mesmo formato do ProductController)
+     */
+    private static String eTagOf(Long version) {
+        return "W/\"" + version + "\"";
+    }
+}
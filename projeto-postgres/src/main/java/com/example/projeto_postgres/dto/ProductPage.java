@@ -0,0 +1,121 @@
+// Declaração do pacote - organiza a classe no pacote de DTOs (objetos de transferência de dados)
+package com.example.projeto_postgres.dto;
+
+// Importa a entidade Product que compõe os itens da página
+import com.example.projeto_postgres.model.Product;
+
+// Importa utilitários para codificar o cursor em Base64 (formato seguro para URLs)
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * DTO de Página - Resposta paginada por cursor (keyset pagination)
+ * 
+ * Ao invés de devolver a tabela inteira (findAll), a listagem devolve uma "página"
+ * de produtos e um cursor opaco que o cliente usa para pedir a próxima página.
+ * 
+ * COMO FUNCIONA A PAGINAÇÃO POR CURSOR (KEYSET):
+ * 1. O cliente chama GET /products?limit=50
+ * 2. O servidor devolve os 50 primeiros produtos ordenados por id + nextCursor
+ * 3. O cliente chama GET /products?after=<nextCursor>&limit=50
+ * 4. O servidor executa: WHERE id > ? ORDER BY id LIMIT ?
+ * 5. Quando nextCursor vier null, não há mais páginas
+ * 
+ * POR QUE NÃO USAR OFFSET (page=1000&size=50)?
+ * - Com OFFSET o banco precisa ler e descartar todas as linhas anteriores
+ * - Quanto mais profunda a página, mais lenta a consulta
+ * - Com keyset o banco usa o índice da chave primária e "pula" direto para o id
+ * - Toda página custa o mesmo, seja a primeira ou a milionésima
+ * 
+ * POR QUE O CURSOR É "OPACO"?
+ * - O cliente não deve montar o cursor sozinho, apenas repassar o que recebeu
+ * - Assim podemos mudar o formato interno no futuro sem quebrar os clientes
+ * 
+ * Exemplo de resposta JSON:
+ * {
+ *   "items": [{"id": 1, "name": "Notebook", "priceInCents": 250000}],
+ *   "nextCursor": "MQ"
+ * }
+ * 
+ * @param items Produtos desta página, ordenados por id
+ * @param nextCursor Cursor para a próxima página (null quando esta é a última)
+ */
+public record ProductPage(List<Product> items, String nextCursor) {
+
+    /**
+     * Codifica o último id da página em um cursor opaco
+     * 
+     * @param lastId O id do último produto da página
+     * @return O cursor em Base64 URL-safe (sem padding)
+     */
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor recebido do cliente de volta para o id
+     * 
+     * @param cursor O cursor recebido no parâmetro "after"
+     * @return O id a partir do qual a próxima página começa
+     * @throws IllegalArgumentException Se o cursor não foi gerado por este servidor
+     * (o GlobalExceptionHandler transforma em HTTP 400)
+     */
+    public static Long decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.valueOf(decoded);
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException também é IllegalArgumentException
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    /**
+     * Codifica a posição do último produto de uma BUSCA em um cursor opaco
+     * 
+     * Na busca os produtos vêm ordenados por relevância (rank) e depois por id,
+     * então o cursor precisa dos dois valores: "rank:id".
+     * 
+     * @param rank A relevância do último produto da página
+     * @param lastId O id do último produto da página
+     * @return O cursor em Base64 URL-safe (sem padding)
+     */
+    public static String encodeSearchCursor(double rank, Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((rank + ":" + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor de busca recebido do cliente
+     * 
+     * @param cursor O cursor recebido no parâmetro "after" da busca
+     * @return A relevância e o id do último produto já entregue
+     * @throws IllegalArgumentException Se o cursor não foi gerado por este servidor
+     */
+    public static SearchCursor decodeSearchCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            return new SearchCursor(Double.parseDouble(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    /**
+     * Posição na busca: a próxima página começa depois deste (rank, id)
+     * 
+     * @param rank Relevância do último produto entregue
+     * @param id Id do último produto entregue
+     */
+    public record SearchCursor(double rank, long id) {
+
+        /**
+         * Posição antes do primeiro resultado (qualquer relevância vem depois dela)
+         */
+        public static final SearchCursor START = new SearchCursor(Double.MAX_VALUE, 0L);
+    }
+}
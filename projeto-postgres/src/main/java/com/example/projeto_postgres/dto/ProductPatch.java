@@ -0,0 +1,33 @@
+// Declaração do pacote - organiza a classe no pacote de DTOs (objetos de transferência de dados)
+package com.example.projeto_postgres.dto;
+
+// Importa anotações de validação do Bean Validation
+// @Pattern: Valida que o texto siga uma expressão regular (null é considerado válido)
+// @Positive: Valida que o número seja positivo (null é considerado válido)
+// @Size: Valida o tamanho máximo do texto (null é considerado válido)
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO de Atualização Parcial - Corpo do PATCH /products/{id}
+ * 
+ * Todos os campos são opcionais: apenas os campos enviados (não nulos) são alterados.
+ * 
+ * POR QUE NÃO USAR A ENTIDADE Product?
+ * - No Product, @NotBlank exige o nome SEMPRE, o que impediria alterar só o preço
+ * - Aqui as validações se aplicam apenas quando o campo é enviado
+ * 
+ * Exemplo de JSON (altera só o preço):
+ * {
+ *   "priceInCents": 199900
+ * }
+ * 
+ * @param name Novo nome do produto (opcional, mas não pode ser vazio nem passar de 100 caracteres se enviado)
+ * @param priceInCents Novo preço em centavos (opcional, mas deve ser positivo se enviado)
+ */
+public record ProductPatch(
+        @Pattern(regexp = ".*\\S.*", message = "O nome do produto não pode estar vazio")
+        @Size(max = 100, message = "O nome do produto deve ter no máximo 100 caracteres") String name,
+        @Positive(message = "O preço deve ser maior que zero") Integer priceInCents) {
+}
@@ -0,0 +1,36 @@
+// Declaração do pacote - organiza a classe no pacote de DTOs (objetos de transferência de dados)
+package com.example.projeto_postgres.dto;
+
+// Importa List para a lista de faixas
+import java.util.List;
+
+/**
+ * DTO do Histograma de Preços - Resposta de GET /products/price-histogram
+ * 
+ * O intervalo entre o menor e o maior preço é dividido em faixas de mesma
+ * largura. Cada faixa vai de fromInCents (incluído) até toInCents (excluído).
+ * A contagem de cada faixa é feita pelo banco (GROUP BY).
+ * 
+ * Exemplo de JSON (buckets=2, preços de 1000 a 2999):
+ * {"count": 40, "buckets": [
+ *   {"fromInCents": 1000, "toInCents": 2000, "count": 25},
+ *   {"fromInCents": 2000, "toInCents": 3000, "count": 15}
+ * ]}
+ * 
+ * Com o catálogo vazio, count é 0 e a lista de faixas é vazia.
+ * 
+ * @param count Quantidade total de produtos
+ * @param buckets As faixas, do menor preço ao maior (inclui as faixas sem produtos)
+ */
+public record ProductPriceHistogram(long count, List<Bucket> buckets) {
+
+    /**
+     * Uma faixa do histograma
+     * 
+     * @param fromInCents Início da faixa (incluído)
+     * @param toInCents Fim da faixa (excluído)
+     * @param count Quantidade de produtos com preço dentro da faixa
+     */
+    public record Bucket(long fromInCents, long toInCents, long count) {
+    }
+}
@@ -0,0 +1,32 @@
+// Declaração do pacote - organiza a classe no pacote de DTOs (objetos de transferência de dados)
+package com.example.projeto_postgres.dto;
+
+/**
+ * DTO de Estatísticas de Preço - Resposta de GET /products/stats
+ * 
+ * Todos os valores são calculados pelo banco (COUNT, MIN, MAX, AVG e
+ * PERCENTILE_CONT) em um único comando: nenhum produto é carregado na JVM.
+ * 
+ * Exemplo de JSON:
+ * {"count": 1000, "minInCents": 990, "maxInCents": 250000, "avgInCents": 15320.5,
+ *  "p50InCents": 8990.0, "p90InCents": 45000.0, "p99InCents": 199900.0}
+ * 
+ * Com o catálogo vazio, count é 0 e os demais campos são null.
+ * 
+ * @param count Quantidade de produtos
+ * @param minInCents Menor preço
+ * @param maxInCents Maior preço
+ * @param avgInCents Preço médio
+ * @param p50InCents Mediana (metade dos produtos custa até este valor)
+ * @param p90InCents Percentil 90 (90% dos produtos custam até este valor)
+ * @param p99InCents Percentil 99 (99% dos produtos custam até este valor)
+ */
+public record ProductPriceStats(
+        long count,
+        Integer minInCents,
+        Integer maxInCents,
+        Double avgInCents,
+        Double p50InCents,
+        Double p90InCents,
+        Double p99InCents) {
+}
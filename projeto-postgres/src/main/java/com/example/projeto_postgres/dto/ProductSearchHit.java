@@ -0,0 +1,38 @@
+// Declaração do pacote - organiza a classe no pacote de DTOs (objetos de transferência de dados)
+package com.example.projeto_postgres.dto;
+
+// Importa a entidade Product, montada a partir de cada resultado
+import com.example.projeto_postgres.model.Product;
+
+/**
+ * Projeção de um Resultado da Busca por Nome
+ * 
+ * Cada linha devolvida por ProductRepository.searchByName() traz as colunas
+ * do produto e a relevância (rank) calculada pelo PostgreSQL. O Spring Data
+ * implementa esta interface automaticamente, lendo as colunas pelo apelido (AS).
+ * 
+ * O rank não faz parte do Product: ele só é usado para ordenar os resultados
+ * e montar o cursor da próxima página.
+ */
+public interface ProductSearchHit {
+
+    Long getId();
+
+    String getName();
+
+    Integer getPriceInCents();
+
+    Long getVersion();
+
+    /**
+     * Relevância do produto para o termo buscado (ts_rank, maior = mais relevante)
+     */
+    Float getRank();
+
+    /**
+     * Converte o resultado na entidade Product devolvida pela API
+     */
+    default Product toProduct() {
+        return new Product(getId(), getName(), getPriceInCents(), getVersion());
+    }
+}
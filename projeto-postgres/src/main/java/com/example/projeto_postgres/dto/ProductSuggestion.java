@@ -0,0 +1,17 @@
+// Declaração do pacote - organiza a classe no pacote de DTOs (objetos de transferência de dados)
+package com.example.projeto_postgres.dto;
+
+/**
+ * DTO de Sugestão - Um item do "search-as-you-type" (GET /products/suggest)
+ * 
+ * Traz apenas o necessário para mostrar a sugestão e abrir o produto
+ * (GET /products/{id}): o preço e a versão não ficam no índice de sugestões.
+ * 
+ * Exemplo de JSON:
+ * {"id": 1, "name": "Cadeira Gamer"}
+ * 
+ * @param id O id do produto
+ * @param name O nome do produto (como foi cadastrado)
+ */
+public record ProductSuggestion(Long id, String name) {
+}
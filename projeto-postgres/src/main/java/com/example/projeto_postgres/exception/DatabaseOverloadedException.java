@@ -0,0 +1,21 @@
+// Declaração do pacote - organiza a classe no pacote de exceções
+package com.example.projeto_postgres.exception;
+
+// Importa a exceção do Spring para falhas de acesso ao banco
+// O GlobalExceptionHandler já a responde com HTTP 503 (e o gRPC com UNAVAILABLE)
+import org.springframework.dao.DataAccessResourceFailureException;
+
+/**
+ * Chamada ao banco recusada pelo limite de concorrência adaptativo
+ *
+ * Lançada pelo RepositoryConcurrencyLimiter ANTES de chegar ao banco, quando a
+ * operação já tem o máximo de chamadas simultâneas que o banco consegue atender
+ * com a latência atual. Por ser uma DataAccessResourceFailureException, a
+ * resposta é a mesma da falta de conexões: 503 com Retry-After.
+ */
+public class DatabaseOverloadedException extends DataAccessResourceFailureException {
+
+    public DatabaseOverloadedException(String message) {
+        super(message);
+    }
+}
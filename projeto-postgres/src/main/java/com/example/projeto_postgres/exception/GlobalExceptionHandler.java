@@ -4,6 +4,13 @@ package com.example.projeto_postgres.exception;
 // Importa HttpStatus para códigos HTTP padronizados
 import org.springframework.http.HttpStatus;
 
+// Importa HttpHeaders para o cabeçalho Retry-After
+import org.springframework.http.HttpHeaders;
+
+// Importa as exceções do Spring lançadas quando não há conexão disponível com o banco
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
 // Importa ResponseEntity para construir respostas HTTP
 import org.springframework.http.ResponseEntity;
 
@@ -12,6 +19,19 @@ import org.springframework.http.ResponseEntity;
 // (ex: @NotBlank, @Positive, etc.)
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+// Importa WebExchangeBindException
+// Equivalente da MethodArgumentNotValidException no modo reativo (WebFlux)
+import org.springframework.web.bind.support.WebExchangeBindException;
+
+// Importa ServerWebInputException
+// Equivalente da MethodArgumentTypeMismatchException no modo reativo (WebFlux)
+import org.springframework.web.server.ServerWebInputException;
+
+// Importa MethodArgumentTypeMismatchException
+// Esta exceção é lançada quando um parâmetro da URL não pode ser convertido
+// para o tipo do método (ex: ?limit=abc em um parâmetro int)
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
 // Importa @ExceptionHandler para tratar exceções específicas
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -50,6 +70,11 @@ import java.util.Map;
  * 2. Spring intercepta a exceção
  * 3. Procura um método @ExceptionHandler que trate esse tipo de exceção
  * 4. Executa o método e retorna a resposta HTTP apropriada
+ * 
+ * Os corpos de erro (Map<String, String>) não passam pelo MapSerializer do Jackson:
+ * o ProductJsonConverter reconhece o tipo declarado ResponseEntity<Map<String, String>>
+ * e escreve as chaves e valores direto no buffer da resposta (veja ProductJsonWriter).
+ * No modo reativo, os codecs do WebFlux continuam usando o Jackson.
  */
 @RestControllerAdvice // Marca como handler global de exceções para todos os controllers
 public class GlobalExceptionHandler {
@@ -92,6 +117,101 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    /**
+     * Trata exceções do tipo IllegalArgumentException
+     * 
+     * Usada quando o cliente envia parâmetros inválidos que não passam pelo Bean Validation.
+     * Exemplo: um cursor de paginação adulterado ou um limit fora do intervalo permitido.
+     * 
+     * Como IllegalArgumentException é subclasse de RuntimeException, o Spring escolhe
+     * sempre o handler MAIS ESPECÍFICO: este método, e não o handleRuntimeException.
+     * 
+     * @param ex A exceção que foi lançada
+     * @return ResponseEntity com o erro formatado em JSON
+     * 
+     * Exemplo de resposta JSON:
+     * {
+     *   "message": "Cursor inválido",
+     *   "status": "400"
+     * }
+     */
+    @ExceptionHandler(IllegalArgumentException.class) // Trata parâmetros inválidos
+    public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
+        // Cria um Map para construir a resposta JSON de erro
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        
+        // Adiciona o código HTTP 400 (Bad Request) ao JSON
+        error.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
+        
+        // Retorna resposta HTTP 400 com o JSON de erro no corpo
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    /**
+     * Trata parâmetros de URL com o tipo errado
+     * 
+     * Exemplo: GET /products?limit=abc. O Spring não consegue converter "abc" para
+     * o int do parâmetro limit e lança MethodArgumentTypeMismatchException antes de
+     * chamar o controller. É um parâmetro inválido como outro qualquer: respondemos
+     * 400 no mesmo formato do handleIllegalArgumentException.
+     * (Sem este método, o handleRuntimeException responderia um 404 enganoso.)
+     * 
+     * @param ex A exceção que foi lançada
+     * @return ResponseEntity com o erro formatado em JSON
+     * 
+     * Exemplo de resposta JSON:
+     * {
+     *   "message": "Parâmetro 'limit' inválido: abc",
+     *   "status": "400"
+     * }
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class) // Trata parâmetros com o tipo errado
+    public ResponseEntity<Map<String, String>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return handleIllegalArgumentException(
+                new IllegalArgumentException("Parâmetro '" + ex.getName() + "' inválido: " + ex.getValue()));
+    }
+
+    /**
+     * Trata a falta de conexões disponíveis com o banco (sobrecarga)
+     * 
+     * Quando todas as conexões estão em uso e a requisição espera mais que
+     * "app.datasource.acquire-timeout" na fila do BoundedDataSource, o Spring
+     * lança uma destas exceções:
+     * - CannotCreateTransactionException: ao abrir uma transação (@Transactional)
+     * - DataAccessResourceFailureException: ao executar uma consulta fora de transação
+     * 
+     * A DatabaseOverloadedException (limite adaptativo do RepositoryConcurrencyLimiter)
+     * é uma DataAccessResourceFailureException e também chega aqui.
+     * 
+     * Respondemos 503 (Service Unavailable) com o cabeçalho Retry-After, indicando
+     * ao cliente que o problema é temporário e que ele pode tentar de novo.
+     * (Sem este método, o handleRuntimeException responderia um 404 enganoso.)
+     * 
+     * @param ex A exceção que foi lançada
+     * @return ResponseEntity com o erro formatado em JSON
+     * 
+     * Exemplo de resposta JSON:
+     * {
+     *   "message": "Serviço temporariamente sobrecarregado, tente novamente",
+     *   "status": "503"
+     * }
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Map<String, String>> handleDatabaseUnavailable(RuntimeException ex) {
+        // Cria um Map para construir a resposta JSON de erro
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Serviço temporariamente sobrecarregado, tente novamente");
+        
+        // Adiciona o código HTTP 503 (Service Unavailable) ao JSON
+        error.put("status", String.valueOf(HttpStatus.SERVICE_UNAVAILABLE.value()));
+        
+        // Retorna resposta HTTP 503 pedindo ao cliente que tente de novo em 1 segundo
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     /**
      * Trata exceções de validação (Bean Validation)
      * 
@@ -141,5 +261,45 @@ public class GlobalExceptionHandler {
         // Retorna resposta HTTP 400 com todos os erros de validação no corpo
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
     }
-}
 
+    /**
+     * Trata exceções de validação no modo reativo (perfil "reactive")
+     * 
+     * No WebFlux, um @Valid que falha lança WebExchangeBindException em vez de
+     * MethodArgumentNotValidException. A resposta é a mesma do modo servlet, para
+     * que o contrato da API não mude com o modo de execução.
+     * 
+     * (WebExchangeBindException é uma RuntimeException: sem este método, o
+     * handleRuntimeException responderia 404.)
+     * 
+     * @param ex A exceção de validação contendo todos os erros de campo
+     * @return ResponseEntity com todos os erros de validação em JSON
+     */
+    @ExceptionHandler(WebExchangeBindException.class) // Trata erros de validação do WebFlux
+    public ResponseEntity<Map<String, String>> handleWebExchangeBindException(WebExchangeBindException ex) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getFieldErrors().forEach(error ->
+                errors.put(error.getField(), error.getDefaultMessage()));
+        errors.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+    }
+
+    /**
+     * Trata parâmetros de URL inválidos no modo reativo (perfil "reactive")
+     * 
+     * No WebFlux, ?limit=abc lança ServerWebInputException em vez de
+     * MethodArgumentTypeMismatchException. A resposta é a mesma do modo servlet.
+     * 
+     * (WebExchangeBindException é uma ServerWebInputException, mas o Spring escolhe
+     * o handler mais específico: os erros de validação continuam no método acima.)
+     * 
+     * @param ex A exceção que foi lançada
+     * @return ResponseEntity com o erro formatado em JSON
+     */
+    @ExceptionHandler(ServerWebInputException.class) // Trata parâmetros inválidos do WebFlux
+    public ResponseEntity<Map<String, String>> handleServerWebInputException(ServerWebInputException ex) {
+        String parameter = ex.getMethodParameter() != null ? ex.getMethodParameter().getParameterName() : null;
+        return handleIllegalArgumentException(new IllegalArgumentException(
+                parameter != null ? "Parâmetro '" + parameter + "' inválido" : ex.getReason()));
+    }
+}
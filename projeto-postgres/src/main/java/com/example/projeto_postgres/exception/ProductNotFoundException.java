@@ -0,0 +1,17 @@
+// Declaração do pacote - organiza a classe no pacote de exceções
+package com.example.projeto_postgres.exception;
+
+/**
+ * O produto pedido não existe
+ *
+ * Lançada pelo ProductService quando o id não corresponde a nenhum produto.
+ * O GlobalExceptionHandler responde com HTTP 404 (como as demais RuntimeException)
+ * e o gRPC com NOT_FOUND: só esta exceção vira NOT_FOUND no gRPC; erros
+ * inesperados viram INTERNAL.
+ */
+public class ProductNotFoundException extends RuntimeException {
+
+    public ProductNotFoundException() {
+        super("Produto não encontrado");
+    }
+}
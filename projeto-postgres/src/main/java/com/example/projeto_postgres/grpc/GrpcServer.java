@@ -0,0 +1,119 @@
+// Declaração do pacote - organiza a classe no pacote gRPC
+package com.example.projeto_postgres.grpc;
+
+import io.grpc.Grpc;
+import io.grpc.InsecureServerCredentials;
+import io.grpc.Server;
+
+// Importa o Logger (SLF4J) para registrar a porta em que o servidor subiu
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Importa @Value para ler a porta do application.properties
+import org.springframework.beans.factory.annotation.Value;
+
+// Importa SmartLifecycle para iniciar/parar o servidor junto com a aplicação
+import org.springframework.context.SmartLifecycle;
+
+// Importa @Profile para desligar este bean no modo reativo
+import org.springframework.context.annotation.Profile;
+
+// Importa @Component para registrar a classe como um bean do Spring
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Servidor gRPC (HTTP/2), ao lado do Tomcat da API REST
+ *
+ * Publica o ProductGrpcService em uma porta própria (app.grpc.port, padrão 9090).
+ * O Tomcat continua atendendo o REST na server.port; os dois usam o mesmo
+ * ProductService, o mesmo pool de conexões (HikariCP) e o mesmo cache.
+ *
+ * THREADS:
+ * - O Netty cuida da rede (poucas threads de event loop, nunca bloqueadas)
+ * - Cada chamada roda em uma thread virtual, como as requisições do Tomcat
+ *   (spring.threads.virtual.enabled): esperar o banco não ocupa uma thread do SO
+ *
+ * DESLIGAMENTO:
+ * Para de aceitar chamadas, espera as que estão em andamento por até
+ * SHUTDOWN_TIMEOUT_SECONDS e então cancela as restantes.
+ */
+@Profile("!reactive") // Não existe no modo reativo (perfil "reactive" usa WebFlux + R2DBC)
+@Component // Registra como bean do Spring
+public class GrpcServer implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(GrpcServer.class);
+
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final ProductGrpcService productGrpcService;
+    private final int port;
+
+    private ExecutorService executor;
+    private volatile Server server;
+
+    /**
+     * @param productGrpcService O serviço publicado
+     * @param port Porta do servidor gRPC (0 = porta livre qualquer, usada nos testes)
+     */
+    public GrpcServer(ProductGrpcService productGrpcService, @Value("${app.grpc.port:9090}") int port) {
+        this.productGrpcService = productGrpcService;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            server = Grpc.newServerBuilderForPort(port, InsecureServerCredentials.create())
+                    .executor(executor)
+                    .addService(productGrpcService)
+                    .build()
+                    .start();
+        } catch (IOException ex) {
+            executor.shutdown();
+            throw new UncheckedIOException("Não foi possível iniciar o servidor gRPC na porta " + port, ex);
+        }
+        log.info("Servidor gRPC escutando na porta {}", server.getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server current = server;
+        if (current == null) {
+            return;
+        }
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                current.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            current.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdown();
+        server = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * Porta em que o servidor está escutando (a porta real quando app.grpc.port=0)
+     */
+    public int getPort() {
+        Server current = server;
+        if (current == null) {
+            throw new IllegalStateException("O servidor gRPC não está em execução");
+        }
+        return current.getPort();
+    }
+}
@@ -6,14 +6,26 @@ package com.example.projeto_postgres.model;
 // @Table: Especifica o nome da tabela no banco de dados
 // @Id: Marca o campo como chave primária
 // @GeneratedValue: Define como a chave primária será gerada
+// @SequenceGenerator: Configura a sequence usada para gerar a chave primária
 // @Column: Define propriedades da coluna no banco de dados
+// @Version: Marca o campo de versão usado no controle de concorrência otimista
 import jakarta.persistence.*;
 
 // Importa anotações de validação do Bean Validation
 // @NotBlank: Valida que o campo não seja nulo, vazio ou apenas espaços
 // @Positive: Valida que o número seja positivo (maior que zero)
+// @NotNull: Valida que o campo seja informado
+// @Size: Valida o tamanho máximo do texto
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+// Importa @ColumnDefault do Hibernate para definir o valor padrão da coluna no banco
+import org.hibernate.annotations.ColumnDefault;
+
+// Importa @JsonProperty do Jackson para controlar como o campo aparece no JSON
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 // Importa anotações do Lombok para reduzir código boilerplate
 // @Getter: Gera automaticamente métodos getters para todos os campos
@@ -44,10 +56,14 @@ import lombok.Setter;
  * - Os dados são persistidos permanentemente no PostgreSQL
  */
 @Entity // Indica ao JPA que esta classe é uma entidade (será mapeada para uma tabela)
-@Table(name = "products") // Especifica o nome da tabela no banco de dados (opcional, usa o nome da classe se omitido)
+@Table(name = "products", indexes = {
+        // Índice do preço: MIN/MAX de GET /products/stats e /products/price-histogram
+        // são lidos nas pontas do índice, sem varrer a tabela
+        @Index(name = "products_price_in_cents_idx", columnList = "price_in_cents")
+}) // Especifica o nome da tabela no banco de dados e seus índices (criados pelo ddl-auto=update)
 @Getter // Lombok: Gera getters automaticamente (ex: getId(), getName(), getPriceInCents())
 @Setter // Lombok: Gera setters automaticamente (ex: setId(), setName(), setPriceInCents())
-@AllArgsConstructor // Lombok: Gera construtor com todos os campos (ex: new Product(1L, "Notebook", 250000))
+@AllArgsConstructor // Lombok: Gera construtor com todos os campos (ex: new Product(1L, "Notebook", 250000, 0L))
 @NoArgsConstructor // Lombok: Gera construtor sem argumentos (necessário para o JPA criar instâncias)
 public class Product {
 
@@ -55,18 +71,35 @@ public class Product {
      * Campo ID - Chave primária da tabela
      * 
      * O @Id marca este campo como chave primária.
-     * O @GeneratedValue com strategy IDENTITY significa que o banco de dados
-     * gerará automaticamente o valor usando SERIAL (PostgreSQL) ou AUTO_INCREMENT (MySQL).
+     * O @GeneratedValue com strategy SEQUENCE significa que o Hibernate busca os
+     * valores em uma sequence do banco ("products_seq") ANTES do INSERT.
+     * 
+     * POR QUE SEQUENCE E NÃO IDENTITY?
+     * - Com IDENTITY, o id só existe depois que o INSERT é executado
+     * - Por isso o Hibernate precisa executar cada INSERT imediatamente, um por vez,
+     *   o que DESLIGA o envio de INSERTs em lote (JDBC batching)
+     * - Com SEQUENCE, o id já é conhecido antes do INSERT, então o Hibernate pode
+     *   acumular vários INSERTs e enviá-los ao banco de uma só vez
+     * 
+     * @SequenceGenerator:
+     * - sequenceName: Nome da sequence no banco
+     * - allocationSize = 50: Cada ida à sequence reserva um bloco de 50 ids,
+     *   que são distribuídos em memória (uma consulta à sequence a cada 50 INSERTs)
+     * 
+     * O tamanho real do bloco é configurável em "app.products.id.allocation-size":
+     * o ProductIdSequenceConfig ajusta o INCREMENT BY da sequence na subida e o
+     * Hibernate usa o valor do banco (otimizador pooled-lo, veja o application.properties).
      * 
      * No PostgreSQL:
-     * - A coluna será criada como SERIAL ou BIGSERIAL
-     * - O banco gera automaticamente valores sequenciais (1, 2, 3, ...)
+     * - A sequence é criada como: CREATE SEQUENCE products_seq START WITH 1 INCREMENT BY 50
+     * - Bancos que já usavam IDENTITY são migrados na subida: o ProductIdSequenceConfig
+     *   posiciona a sequence depois do maior id existente
      * 
-     * GenerationType.IDENTITY: O banco de dados gera o ID automaticamente
      * Funciona tanto no H2 quanto no PostgreSQL!
      */
     @Id // Marca este campo como chave primária da tabela
-    @GeneratedValue(strategy = GenerationType.IDENTITY) // Define que o ID será gerado automaticamente pelo banco
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq") // Define que o ID virá da sequence
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50) // Sequence com blocos de 50 ids
     private Long id; // Tipo Long para suportar IDs grandes
 
     /**
@@ -77,6 +110,9 @@ public class Product {
      * - String vazia ("")
      * - String com apenas espaços ("   ")
      * 
+     * @Size(max = 100): Nomes maiores que a coluna são recusados com 400, em vez
+     * de chegarem ao banco (que daria erro ou cortaria o texto)
+     * 
      * @Column: Define propriedades da coluna no banco:
      * - nullable = false: A coluna não aceita valores NULL
      * - length = 100: Define o tamanho máximo da coluna VARCHAR(100)
@@ -89,6 +125,7 @@ public class Product {
      * automaticamente retorna um erro 400 (Bad Request) com a mensagem especificada.
      */
     @NotBlank(message = "O nome do produto não pode estar vazio") // Validação: campo obrigatório e não pode ser vazio
+    @Size(max = 100, message = "O nome do produto deve ter no máximo 100 caracteres") // Validação: cabe na coluna
     @Column(nullable = false, length = 100) // Define que a coluna é obrigatória e tem no máximo 100 caracteres
     private String name; // Nome do produto
 
@@ -99,6 +136,7 @@ public class Product {
      * para evitar problemas de arredondamento com números decimais.
      * Exemplo: R$ 2.500,00 = 250000 centavos
      * 
+     * @NotNull: O preço é obrigatório (o @Positive aceita null)
      * @Positive: Valida que o valor seja maior que zero
      * @Column(nullable = false): Garante que o preço seja obrigatório
      * 
@@ -109,8 +147,37 @@ public class Product {
      * O Spring Validation executa essas validações automaticamente quando
      * o método do controller recebe um objeto com @Valid.
      */
+    @NotNull(message = "O preço é obrigatório") // Validação: campo obrigatório (PUT é substituição completa)
     @Positive(message = "O preço deve ser maior que zero") // Validação: número deve ser positivo (> 0)
     @Column(nullable = false) // Define que a coluna é obrigatória (não aceita NULL)
     private Integer priceInCents; // Preço em centavos para evitar problemas de arredondamento
-}
 
+    /**
+     * Campo Version - Versão do produto (controle de concorrência otimista)
+     * 
+     * @Version: O Hibernate incrementa este campo automaticamente a cada UPDATE
+     * e inclui a versão na cláusula WHERE:
+     * UPDATE products SET ..., version = 2 WHERE id = ? AND version = 1
+     * Se outra transação alterou o produto antes, nenhuma linha é atualizada e o
+     * Hibernate lança uma exceção, evitando que uma alteração sobrescreva a outra.
+     * 
+     * A versão também é usada como ETag no GET /products/{id}:
+     * o cliente envia If-None-Match com a versão que já tem e, se nada mudou,
+     * recebe 304 Not Modified sem corpo (economiza banda e serialização).
+     * 
+     * No PostgreSQL:
+     * - A coluna é adicionada como: version BIGINT DEFAULT 0 NOT NULL
+     * - O DEFAULT 0 preenche as linhas que já existiam na tabela
+     * 
+     * @ColumnDefault("0"): Valor padrão da coluna, para que tabelas existentes possam
+     * receber a nova coluna NOT NULL sem precisar de migração manual.
+     * 
+     * @JsonProperty(access = READ_ONLY): A versão aparece nas respostas, mas é
+     * ignorada se o cliente enviá-la no corpo do POST/PUT (quem controla é o Hibernate).
+     */
+    @Version // Campo de versão gerenciado pelo Hibernate
+    @ColumnDefault("0") // Valor padrão da coluna no banco (preenche linhas antigas)
+    @Column(nullable = false) // Define que a coluna é obrigatória (não aceita NULL)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY) // Somente leitura no JSON
+    private Long version; // Versão do produto (0, 1, 2, ...)
+}
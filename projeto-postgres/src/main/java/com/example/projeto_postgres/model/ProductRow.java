@@ -0,0 +1,46 @@
+// Declaração do pacote - organiza a classe no modelo de domínio
+package com.example.projeto_postgres.model;
+
+// Importa as anotações do Spring Data (usadas pelo R2DBC, não pelo JPA)
+// @Id: Marca o campo como chave primária
+// @Table: Especifica o nome da tabela no banco de dados
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Linha da tabela "products" para o modo reativo (R2DBC)
+ *
+ * O R2DBC não entende as anotações do JPA (@Entity, @GeneratedValue, @Version...),
+ * por isso a pilha reativa usa este record em vez da entidade Product.
+ * A tabela é a mesma: os nomes das colunas seguem a convenção snake_case
+ * (priceInCents → price_in_cents), igual ao Hibernate.
+ *
+ * Nas respostas HTTP o record é convertido em Product (toProduct), para que o
+ * JSON seja exatamente o mesmo do ProductController.
+ *
+ * @param id Chave primária (vem da sequence products_seq)
+ * @param name Nome do produto
+ * @param priceInCents Preço em centavos
+ * @param version Versão do produto (usada como ETag)
+ */
+@Table("products") // Nome da tabela no banco (a mesma usada pelo JPA)
+public record ProductRow(@Id Long id, String name, Integer priceInCents, Long version) {
+
+    /**
+     * Cria a linha a ser inserida a partir do produto recebido na requisição
+     *
+     * @param id O id reservado na sequence
+     * @param product O produto enviado pelo cliente (já validado)
+     * @return A linha com versão inicial 0
+     */
+    public static ProductRow of(Long id, Product product) {
+        return new ProductRow(id, product.getName(), product.getPriceInCents(), 0L);
+    }
+
+    /**
+     * Converte a linha no objeto Product usado no JSON das respostas
+     */
+    public Product toProduct() {
+        return new Product(id, name, priceInCents, version);
+    }
+}
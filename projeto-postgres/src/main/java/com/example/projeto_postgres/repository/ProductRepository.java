@@ -4,11 +4,39 @@ package com.example.projeto_postgres.repository;
 // Importa a entidade Product que será gerenciada por este repositório
 import com.example.projeto_postgres.model.Product;
 
+// Importa a projeção dos resultados da busca por nome (produto + relevância)
+import com.example.projeto_postgres.dto.ProductSearchHit;
+
 // Importa JpaRepository do Spring Data JPA
 // JpaRepository é uma interface que fornece métodos prontos para operações CRUD
 // sem precisar implementar SQL manualmente
 import org.springframework.data.jpa.repository.JpaRepository;
 
+// Importa @Modifying para consultas que alteram dados (UPDATE/DELETE)
+import org.springframework.data.jpa.repository.Modifying;
+
+// Importa @Query e @QueryHints para declarar a consulta de exportação e suas dicas (hints)
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+// Importa QueryHint (JPA) e as constantes de hints do Hibernate
+// HINT_FETCH_SIZE: quantas linhas o driver JDBC busca por vez no banco
+// HINT_READ_ONLY: carrega as entidades sem guardar cópia para dirty checking
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+// Importa Limit para limitar a quantidade de linhas retornadas pela consulta
+// O Spring Data traduz o Limit em "LIMIT ?" (ou "FETCH FIRST ? ROWS ONLY") no SQL
+import org.springframework.data.domain.Limit;
+
+// Importa List para retornar coleções de produtos
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Importa Stream para percorrer os produtos um a um, sem carregar todos em memória
+import java.util.stream.Stream;
+
 // Importa a anotação @Repository
 // Marca esta interface como um componente Spring do tipo Repository
 // O Spring automaticamente cria uma implementação desta interface em tempo de execução
@@ -66,5 +94,319 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     //
     // O Spring Data JPA gera automaticamente a query SQL:
     // SELECT * FROM products WHERE LOWER(name) LIKE LOWER(?1)
-}
 
+    /**
+     * Projeção das leituras: monta cada Product pelo construtor (constructor expression)
+     * 
+     * SELECT new Product(p.id, p.name, p.priceInCents, p.version) devolve objetos
+     * Product COMUNS, que o Hibernate NÃO gerencia:
+     * - Não entram no contexto de persistência (sem EntityEntry, EntityKey, proxy)
+     * - Não guardam cópia dos valores carregados para o dirty checking
+     * - Nada é percorrido no flush e nada fica preso até o fim da requisição
+     * 
+     * As leituras da API só serializam os produtos (ou os guardam no ProductCache),
+     * então o estado gerenciado era alocado e descartado a cada requisição à toa.
+     * Alterar um destes objetos NÃO altera o banco: as escritas usam os métodos
+     * próprios (save, updateReturning, updatePartialReturning, deleteProductById).
+     */
+    String PRODUCT_VIEW = "new com.example.projeto_postgres.model.Product(p.id, p.name, p.priceInCents, p.version)";
+
+    /**
+     * Busca uma página de produtos usando paginação por cursor (keyset pagination)
+     * 
+     * Executa: SELECT id, name, price_in_cents, version FROM products WHERE id > ? ORDER BY id LIMIT ?
+     * 
+     * Como o filtro e a ordenação usam a chave primária (que já tem índice),
+     * o banco posiciona direto no id informado e lê apenas "limit" linhas.
+     * Por isso o custo de cada página é o mesmo, não importa a profundidade.
+     * 
+     * Os produtos vêm pela projeção PRODUCT_VIEW (objetos não gerenciados).
+     * 
+     * @param id O último id já entregue ao cliente (a página começa depois dele)
+     * @param limit Quantidade máxima de produtos a retornar
+     * @return Lista de produtos ordenada por id
+     */
+    @Query("SELECT " + PRODUCT_VIEW + " FROM Product p WHERE p.id > :id ORDER BY p.id")
+    List<Product> findPageAfter(Long id, Limit limit);
+
+    /**
+     * Busca um produto pelo id pela projeção PRODUCT_VIEW (objeto não gerenciado)
+     * 
+     * Usado pelo ProductCache em caso de miss, no lugar do findById() herdado,
+     * que devolveria uma entidade gerenciada.
+     * 
+     * @param id O ID do produto
+     * @return O produto, ou Optional vazio se ele não existir
+     */
+    @Query("SELECT " + PRODUCT_VIEW + " FROM Product p WHERE p.id = :id")
+    Optional<Product> findViewById(Long id);
+
+    /**
+     * Busca vários produtos pelos ids pela projeção PRODUCT_VIEW (objetos não gerenciados)
+     * 
+     * Usado pelo ProductInvalidationListener para reler os produtos alterados em outros nós.
+     * 
+     * @param ids Os ids dos produtos
+     * @return Os produtos que ainda existem (em qualquer ordem)
+     */
+    @Query("SELECT " + PRODUCT_VIEW + " FROM Product p WHERE p.id IN :ids")
+    List<Product> findViewsByIdIn(Collection<Long> ids);
+
+    /**
+     * Quantidade de linhas que o driver JDBC busca por vez durante a exportação
+     * 
+     * Sem fetch size, alguns drivers (como o do PostgreSQL) trazem o resultado
+     * INTEIRO para a memória antes de entregar a primeira linha.
+     */
+    int EXPORT_FETCH_SIZE = 1000;
+
+    /**
+     * Percorre TODOS os produtos como um Stream, ordenados por id
+     * 
+     * Diferente do findAll(), que monta uma List com todos os registros,
+     * o Stream lê as linhas sob demanda usando um cursor do banco:
+     * - O driver busca EXPORT_FETCH_SIZE linhas por vez
+     * - As entidades são carregadas como somente leitura (sem snapshot para dirty checking)
+     * - O consumo de memória fica estável, mesmo com dezenas de milhões de linhas
+     * 
+     * IMPORTANTE:
+     * - Deve ser chamado dentro de uma transação (@Transactional), pois o cursor
+     *   precisa da conexão aberta enquanto o Stream é consumido
+     * - O Stream DEVE ser fechado (try-with-resources) para liberar o cursor e a conexão
+     * 
+     * @return Stream com todos os produtos ordenados por id
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllForExport();
+
+    /**
+     * Configuração de texto do PostgreSQL usada na busca por nome
+     * 
+     * "portuguese" reduz as palavras ao radical (ex: "cadeiras" e "cadeira" se
+     * encontram) e ignora palavras sem significado ("de", "para", ...).
+     * O índice GIN (ProductSearchIndexConfig) é criado com esta mesma configuração:
+     * se as duas forem diferentes, o PostgreSQL não usa o índice.
+     */
+    String SEARCH_TEXT_CONFIG = "portuguese";
+
+    /**
+     * SQL da busca por nome (também usado pelo ReactiveProductService, via R2DBC)
+     */
+    String SEARCH_BY_NAME_SQL = "SELECT p.id AS \"id\", p.name AS \"name\", p.price_in_cents AS \"priceInCents\", "
+            + "p.version AS \"version\", r.rank AS \"rank\" "
+            + "FROM products p "
+            + "CROSS JOIN websearch_to_tsquery('" + SEARCH_TEXT_CONFIG + "', :q) tsq "
+            + "CROSS JOIN LATERAL (SELECT ts_rank(to_tsvector('" + SEARCH_TEXT_CONFIG + "', p.name), tsq) AS rank) r "
+            + "WHERE to_tsvector('" + SEARCH_TEXT_CONFIG + "', p.name) @@ tsq "
+            + "AND (r.rank < :afterRank OR (r.rank = :afterRank AND p.id > :afterId)) "
+            + "ORDER BY r.rank DESC, p.id "
+            + "LIMIT :limit";
+
+    /**
+     * Busca produtos pelo nome (full-text search), ordenados por relevância
+     * 
+     * Executa (simplificado):
+     * SELECT ..., ts_rank(to_tsvector('portuguese', name), tsq) AS rank
+     * FROM products, websearch_to_tsquery('portuguese', :q) tsq
+     * WHERE to_tsvector('portuguese', name) @@ tsq
+     * ORDER BY rank DESC, id
+     * 
+     * - websearch_to_tsquery: aceita o texto digitado pelo usuário como está
+     *   (palavras, "frase entre aspas", -excluir, or), sem erro de sintaxe
+     * - A condição @@ usa o índice GIN da expressão to_tsvector(...), então só
+     *   as linhas que contêm os termos são lidas (nada de varrer a tabela)
+     * - Paginação por cursor (keyset) sobre (rank, id): a página seguinte começa
+     *   depois do último (rank, id) entregue, sem OFFSET
+     * 
+     * O rank é calculado apenas para as linhas encontradas no índice. Termos
+     * muito comuns (presentes em boa parte do catálogo) ainda custam mais, pois
+     * todas as linhas encontradas precisam ser ordenadas.
+     * 
+     * @param q O texto digitado pelo usuário
+     * @param afterRank Relevância do último produto já entregue (Double.MAX_VALUE na primeira página)
+     * @param afterId Id do último produto já entregue (0 na primeira página)
+     * @param limit Quantidade máxima de resultados
+     * @return Os resultados com a relevância de cada produto
+     */
+    @Query(value = SEARCH_BY_NAME_SQL, nativeQuery = true)
+    List<ProductSearchHit> searchByName(String q, double afterRank, long afterId, int limit);
+
+    /**
+     * Projeção da linha de estatísticas de preço (GET /products/stats)
+     * 
+     * O Spring Data implementa esta interface lendo as colunas pelo apelido (AS).
+     * Com a tabela vazia, count é 0 e os demais valores são null.
+     */
+    interface PriceStatsRow {
+
+        Long getCount();
+
+        Integer getMin();
+
+        Integer getMax();
+
+        Double getAvg();
+
+        Double getP50();
+
+        Double getP90();
+
+        Double getP99();
+    }
+
+    /**
+     * Estatísticas de preço calculadas PELO BANCO, em UM único comando
+     * 
+     * Executa (simplificado):
+     * SELECT COUNT(*), MIN(price_in_cents), MAX(price_in_cents), AVG(price_in_cents),
+     *        PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY price_in_cents), ... (p90, p99)
+     * FROM products
+     * 
+     * Nenhum produto é carregado na JVM: só uma linha com os números volta do banco.
+     * PERCENTILE_CONT interpola entre os dois preços vizinhos (a mediana de
+     * 10 e 20 é 15), por isso os percentis e a média são Double.
+     * 
+     * @return Uma linha com as estatísticas
+     */
+    @Query(value = "SELECT COUNT(*) AS \"count\", "
+            + "MIN(price_in_cents) AS \"min\", MAX(price_in_cents) AS \"max\", "
+            + "CAST(AVG(CAST(price_in_cents AS DOUBLE PRECISION)) AS DOUBLE PRECISION) AS \"avg\", "
+            + "CAST(PERCENTILE_CONT(0.5) WITHIN GROUP (ORDER BY price_in_cents) AS DOUBLE PRECISION) AS \"p50\", "
+            + "CAST(PERCENTILE_CONT(0.9) WITHIN GROUP (ORDER BY price_in_cents) AS DOUBLE PRECISION) AS \"p90\", "
+            + "CAST(PERCENTILE_CONT(0.99) WITHIN GROUP (ORDER BY price_in_cents) AS DOUBLE PRECISION) AS \"p99\" "
+            + "FROM products", nativeQuery = true)
+    PriceStatsRow priceStats();
+
+    /**
+     * Projeção de uma faixa do histograma de preços (GET /products/price-histogram)
+     */
+    interface PriceBucketRow {
+
+        /**
+         * Número da faixa, de 1 a buckets
+         */
+        Integer getBucket();
+
+        /**
+         * Quantidade de produtos na faixa
+         */
+        Long getCount();
+
+        /**
+         * Menor preço do catálogo (o mesmo em todas as linhas)
+         */
+        Long getLo();
+
+        /**
+         * Maior preço do catálogo (o mesmo em todas as linhas)
+         */
+        Long getHi();
+    }
+
+    /**
+     * Histograma de preços calculado PELO BANCO, em UM único comando
+     * 
+     * Divide o intervalo [menor preço, maior preço] em "buckets" faixas de mesma
+     * largura e conta os produtos de cada uma (GROUP BY). Volta do banco no
+     * máximo uma linha por faixa (faixas vazias não aparecem).
+     * 
+     * - O menor e o maior preço (subconsulta "b") são lidos nas pontas do índice
+     *   products_price_in_cents_idx, sem ordenar a tabela
+     * - Os valores viram BIGINT para que "maior + 1" não estoure o INTEGER
+     * 
+     * PostgreSQL: width_bucket(preço, menor, maior + 1, buckets) devolve o número
+     * da faixa (1 a buckets) de cada preço. O "+ 1" torna o maior preço parte da
+     * última faixa (o limite superior do width_bucket é exclusivo).
+     * 
+     * @param buckets Quantidade de faixas
+     * @return Uma linha por faixa não vazia, ordenadas pelo número da faixa
+     */
+    @Query(value = "SELECT width_bucket(CAST(p.price_in_cents AS NUMERIC), b.lo, b.hi + 1, :buckets) AS \"bucket\", "
+            + "COUNT(*) AS \"count\", b.lo AS \"lo\", b.hi AS \"hi\" "
+            + "FROM products p "
+            + "CROSS JOIN (SELECT CAST(MIN(price_in_cents) AS BIGINT) AS lo, "
+            + "CAST(MAX(price_in_cents) AS BIGINT) AS hi FROM products) b "
+            + "GROUP BY 1, b.lo, b.hi "
+            + "ORDER BY 1", nativeQuery = true)
+    List<PriceBucketRow> priceHistogram(int buckets);
+
+    /**
+     * Busca SOMENTE a versão de um produto (sem carregar a entidade inteira)
+     * 
+     * Executa: SELECT version FROM products WHERE id = ?
+     * 
+     * Usado no GET condicional (If-None-Match): para saber se o cliente já tem a
+     * versão mais recente, basta comparar a versão. Não é preciso carregar a
+     * entidade, registrá-la no contexto de persistência nem serializá-la.
+     * 
+     * @param id O ID do produto
+     * @return A versão do produto, ou Optional vazio se ele não existir
+     */
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Atualiza um produto e devolve a linha atualizada em UM único comando
+     * 
+     * PostgreSQL: UPDATE ... RETURNING * executa o UPDATE e devolve as linhas
+     * alteradas na mesma ida ao banco (sem SELECT antes nem depois).
+     * 
+     * Substituição completa (PUT): nome e preço são obrigatórios e sempre gravados.
+     * - version = version + 1: incrementa a versão (ETag) como o @Version faria
+     * 
+     * Deve ser chamado dentro de uma transação de escrita (@Transactional).
+     * 
+     * @param id O ID do produto
+     * @param name O novo nome (obrigatório)
+     * @param priceInCents O novo preço (obrigatório)
+     * @return O produto atualizado, ou Optional vazio se nenhuma linha foi atualizada
+     */
+    @Query(value = "UPDATE products SET "
+            + "name = :name, "
+            + "price_in_cents = :priceInCents, "
+            + "version = version + 1 "
+            + "WHERE id = :id RETURNING *", nativeQuery = true)
+    Optional<Product> updateReturning(Long id, String name, Integer priceInCents);
+
+    /**
+     * Atualiza só os campos informados e devolve a linha atualizada (PATCH)
+     * 
+     * Mesmo comando do updateReturning, mas os campos null mantêm o valor atual:
+     * - COALESCE(:name, name): se o parâmetro for null, mantém o valor atual
+     * - CAST(... AS ...): informa o tipo do parâmetro ao PostgreSQL quando ele é null
+     *   (VARCHAR sem tamanho: CAST(... AS VARCHAR(100)) cortaria um nome longo em
+     *   silêncio; assim a coluna VARCHAR(100) recusa o valor)
+     * 
+     * @param id O ID do produto
+     * @param name O novo nome (null = não alterar)
+     * @param priceInCents O novo preço (null = não alterar)
+     * @return O produto atualizado, ou Optional vazio se nenhuma linha foi atualizada
+     */
+    @Query(value = "UPDATE products SET "
+            + "name = COALESCE(CAST(:name AS VARCHAR), name), "
+            + "price_in_cents = COALESCE(CAST(:priceInCents AS INTEGER), price_in_cents), "
+            + "version = version + 1 "
+            + "WHERE id = :id RETURNING *", nativeQuery = true)
+    Optional<Product> updatePartialReturning(Long id, String name, Integer priceInCents);
+
+    /**
+     * Deleta um produto com UM único comando
+     * 
+     * Executa: DELETE FROM products WHERE id = ?
+     * 
+     * Diferente do deleteById() herdado, que primeiro carrega a entidade (SELECT)
+     * para depois removê-la, aqui o DELETE é enviado direto ao banco.
+     * 
+     * @Modifying: Indica que a consulta altera dados (executeUpdate ao invés de SELECT)
+     * 
+     * @param id O ID do produto
+     * @return Quantidade de linhas removidas (0 se o produto não existia)
+     */
+    @Modifying
+    @Query("DELETE FROM Product p WHERE p.id = :id")
+    int deleteProductById(Long id);
+}
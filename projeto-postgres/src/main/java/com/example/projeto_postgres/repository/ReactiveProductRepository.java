@@ -0,0 +1,89 @@
+// Declaração do pacote - organiza a interface no pacote de repositórios
+package com.example.projeto_postgres.repository;
+
+// Importa a linha da tabela products usada pelo R2DBC
+import com.example.projeto_postgres.model.ProductRow;
+
+// Importa R2dbcRepository do Spring Data R2DBC
+// Equivalente reativo do JpaRepository: os métodos retornam Mono (0 ou 1) e Flux (0 a N)
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+// Importa @Profile para registrar o repositório apenas no modo reativo
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+// Importa os tipos reativos do Project Reactor
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositório Reativo (R2DBC) - Acesso NÃO bloqueante à tabela products
+ *
+ * Usado somente com o perfil "reactive". As consultas são as mesmas do
+ * ProductRepository (JPA), mas nenhuma thread fica parada esperando o banco:
+ * o resultado é entregue quando o PostgreSQL responde.
+ *
+ * As consultas são escritas em SQL (PostgreSQL) porque o R2DBC não tem JPQL.
+ */
+@Profile("reactive") // Só existe no modo reativo
+@Repository
+public interface ReactiveProductRepository extends R2dbcRepository<ProductRow, Long> {
+
+    /**
+     * Busca uma página de produtos (paginação por cursor)
+     *
+     * Mesma consulta do findPageAfter do ProductRepository.
+     *
+     * @param after O último id já entregue ao cliente
+     * @param limit Quantidade máxima de linhas
+     * @return Os produtos ordenados por id
+     */
+    @Query("SELECT * FROM products WHERE id > :after ORDER BY id LIMIT :limit")
+    Flux<ProductRow> findPage(Long after, int limit);
+
+    /**
+     * Busca SOMENTE a versão de um produto (para o GET condicional com ETag)
+     */
+    @Query("SELECT version FROM products WHERE id = :id")
+    Mono<Long> findVersionById(Long id);
+
+    /**
+     * Atualiza um produto e devolve a linha atualizada em UM único comando
+     *
+     * Mesmo UPDATE ... RETURNING * do ProductRepository: substituição completa
+     * (PUT) e a versão é incrementada.
+     *
+     * @return O produto atualizado, ou Mono vazio se o produto não existir
+     */
+    @Query("UPDATE products SET "
+            + "name = :name, "
+            + "price_in_cents = :priceInCents, "
+            + "version = version + 1 "
+            + "WHERE id = :id RETURNING *")
+    Mono<ProductRow> updateReturning(Long id, String name, Integer priceInCents);
+
+    /**
+     * Atualiza só os campos informados (PATCH): campos null mantêm o valor atual
+     *
+     * Mesmo comando do ProductRepository.updatePartialReturning.
+     *
+     * @return O produto atualizado, ou Mono vazio se o produto não existir
+     */
+    @Query("UPDATE products SET "
+            + "name = COALESCE(CAST(:name AS VARCHAR), name), "
+            + "price_in_cents = COALESCE(CAST(:priceInCents AS INTEGER), price_in_cents), "
+            + "version = version + 1 "
+            + "WHERE id = :id RETURNING *")
+    Mono<ProductRow> updatePartialReturning(Long id, String name, Integer priceInCents);
+
+    /**
+     * Deleta um produto com UM único comando
+     *
+     * @return Quantidade de linhas removidas (0 se o produto não existia)
+     */
+    @Modifying
+    @Query("DELETE FROM products WHERE id = :id")
+    Mono<Integer> deleteProductById(Long id);
+}
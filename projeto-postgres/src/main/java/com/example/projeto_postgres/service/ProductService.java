@@ -1,21 +1,70 @@
 // Declaração do pacote - organiza a classe no pacote de serviços
 package com.example.projeto_postgres.service;
 
+// Importa o cache de produtos em memória
+import com.example.projeto_postgres.cache.ProductCache;
+import com.example.projeto_postgres.cache.ProductCatalogSnapshot;
+import com.example.projeto_postgres.cache.ProductNameIndex;
+
+// Importa a cópia colunar de preços usada nas análises em memória
+import com.example.projeto_postgres.analytics.ProductPriceAnalytics;
+import com.example.projeto_postgres.cache.ProductInvalidationBus;
+
+// Importa os DTOs usados na listagem paginada e na criação em lote
+import com.example.projeto_postgres.dto.ProductBatchResult;
+import com.example.projeto_postgres.dto.ProductPage;
+import com.example.projeto_postgres.dto.ProductPatch;
+import com.example.projeto_postgres.dto.ProductPriceHistogram;
+import com.example.projeto_postgres.dto.ProductPriceRange;
+import com.example.projeto_postgres.dto.ProductPriceStats;
+import com.example.projeto_postgres.dto.ProductSuggestion;
+import com.example.projeto_postgres.dto.ProductSearchHit;
+
+// Importa a exceção de produto inexistente (HTTP 404, gRPC NOT_FOUND)
+import com.example.projeto_postgres.exception.ProductNotFoundException;
+
 // Importa a entidade Product
 import com.example.projeto_postgres.model.Product;
 
 // Importa o repositório para acessar os dados
 import com.example.projeto_postgres.repository.ProductRepository;
 
-// Importa Optional para trabalhar com valores que podem ser nulos
+// Importa coleções e Optional usados na paginação, na criação em lote e nas buscas
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+
+// Importa Consumer (quem recebe cada produto exportado) e Stream (leitura sob demanda)
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Importa o EntityManager do JPA para desanexar (detach) as entidades já exportadas
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+// Importa o Validator do Bean Validation para validar cada item do lote manualmente
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 
 // Importa anotações do Spring
 // @Service: Marca a classe como um serviço Spring (componente de lógica de negócio)
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+// Importa @Timed do Micrometer para medir o tempo de cada método do serviço
+import io.micrometer.core.annotation.Timed;
+
+// Importa @Profile para desligar este bean no modo reativo
+import org.springframework.context.annotation.Profile;
+
+// Importa @Transactional para controlar a transação dos métodos do serviço
+import org.springframework.transaction.annotation.Transactional;
+
 /**
  * Camada de Serviço - Lógica de Negócio com PostgreSQL
  * 
@@ -59,7 +108,9 @@ import org.springframework.stereotype.Service;
  * - Permite injeção via @Autowired em outras classes
  * - Gerencia o ciclo de vida do objeto
  */
+@Profile("!reactive") // Não existe no modo reativo (perfil "reactive" usa WebFlux + R2DBC)
 @Service // Marca como componente Spring do tipo Service (lógica de negócio)
+@Timed(value = "product.service", histogram = true) // Mede cada método público (métrica product.service, tag method)
 public class ProductService {
 
     /**
@@ -87,6 +138,79 @@ public class ProductService {
     @Autowired // Injeção de dependência: Spring injeta automaticamente o ProductRepository
     private ProductRepository productRepository; // Repositório para acessar dados do PostgreSQL
 
+    /**
+     * Cache de produtos em memória (Caffeine, política W-TinyLFU)
+     * 
+     * Fica na frente do productRepository.findViewById(): os produtos mais acessados
+     * são servidos da memória, sem ida ao banco.
+     */
+    @Autowired
+    private ProductCache productCache;
+
+    /**
+     * Índice de prefixos dos nomes (GET /products/suggest), em memória
+     * 
+     * Atualizado depois do commit de cada criação, alteração e exclusão.
+     */
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    /**
+     * Cópia colunar dos preços (GET /products/analytics/...), em memória
+     * 
+     * Atualizada depois do commit de cada criação, alteração e exclusão.
+     */
+    @Autowired
+    private ProductPriceAnalytics productPriceAnalytics;
+
+    /**
+     * Snapshot gzip do catálogo completo (GET /products/export), em memória
+     * 
+     * Invalidado depois do commit de cada criação, alteração e exclusão.
+     */
+    @Autowired
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
+    /**
+     * Barramento de invalidação entre nós (PostgreSQL LISTEN/NOTIFY)
+     * 
+     * Avisa os OUTROS nós da aplicação que um produto mudou, para que removam
+     * a cópia antiga dos seus caches locais.
+     */
+    @Autowired
+    private ProductInvalidationBus productInvalidationBus;
+
+    /**
+     * EntityManager do JPA (contexto de persistência da transação atual)
+     * 
+     * @PersistenceContext: O Spring injeta um proxy que sempre aponta para o
+     * EntityManager da transação em andamento (seguro para uso concorrente).
+     * 
+     * Usado na exportação para remover do contexto as entidades já escritas,
+     * evitando que ele cresça a cada linha lida.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Validator do Bean Validation (configurado automaticamente pelo Spring Boot)
+     * 
+     * No POST /products o @Valid do controller valida o produto antes de chegar aqui.
+     * Na criação em lote validamos item a item, para devolver o erro de cada posição
+     * sem rejeitar o lote inteiro.
+     */
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Tamanho do lote JDBC configurado no Hibernate (hibernate.jdbc.batch_size)
+     * 
+     * A cada "jdbcBatchSize" produtos, o contexto de persistência é descarregado (flush)
+     * e limpo (clear), para que a memória não cresça com lotes de dezenas de milhares de itens.
+     */
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize;
+
     /**
      * CREATE - Criar um novo produto
      * 
@@ -121,41 +245,406 @@ public class ProductService {
         // - Se o ID for null: cria um novo registro (INSERT INTO products ...)
         // - Se o ID existir: atualiza o registro existente (UPDATE products ...)
         // - O PostgreSQL gera o ID automaticamente usando SERIAL
+        // O id é sempre gerado pela sequence (ignora um id enviado pelo cliente)
+        product.setId(null);
         Product savedProduct = productRepository.save(product);
         
         // Aqui você pode adicionar lógica após salvar
         // Exemplo: enviar notificação, atualizar cache, etc.
         
+        // Torna o produto visível nas sugestões (GET /products/suggest)
+        // e avisa os outros nós, para que também o incluam nas sugestões deles
+        productNameIndex.putAfterCommit(List.of(savedProduct));
+        productPriceAnalytics.putAfterCommit(List.of(savedProduct));
+        productCatalogSnapshot.invalidateAfterCommit();
+        productInvalidationBus.publish(savedProduct.getId());
+        
         return savedProduct;
     }
 
     /**
-     * READ - Listar todos os produtos
+     * Quantidade máxima de produtos aceitos em um único POST /products/batch
+     */
+    public static final int MAX_BATCH_SIZE = 50_000;
+
+    /**
+     * CREATE - Criar vários produtos de uma vez (criação em lote)
      * 
-     * Este método pode ser estendido para:
-     * - Aplicar filtros
-     * - Ordenação customizada
-     * - Paginação
-     * - Cache
+     * Antes, carregar um feed de dezenas de milhares de produtos exigia um
+     * POST /products por item: uma ida ao banco e uma transação por linha.
      * 
-     * @return Lista de todos os produtos do PostgreSQL
+     * Agora o lote inteiro é inserido em UMA transação usando JDBC batching:
+     * - O Hibernate acumula os INSERTs e envia "hibernate.jdbc.batch_size" por vez
+     * - Os ids vêm da sequence em blocos (allocationSize), sem ida ao banco por item
+     * - No PostgreSQL, o driver reescreve cada lote em um único INSERT com várias linhas
+     *   (reWriteBatchedInserts=true na URL de conexão)
      * 
-     * COM POSTGRESQL:
-     * - Executa: SELECT * FROM products
-     * - Retorna todos os produtos salvos permanentemente no banco
-     * - Os dados persistem mesmo após reiniciar a aplicação
-     * 
-     * EXEMPLO DE MELHORIAS FUTURAS:
-     * - Adicionar paginação: findAll(int page, int size)
-     * - Adicionar filtros: findByCategory(String category)
-     * - Adicionar ordenação: findAllOrderByPrice()
-     * - Implementar cache: @Cacheable("products")
-     */
-    public List<Product> getAllProducts() {
-        // Busca todos os produtos no banco PostgreSQL
-        // findAll() executa: SELECT * FROM products
-        // Retorna uma List com todos os registros da tabela
-        return productRepository.findAll();
+     * VALIDAÇÃO:
+     * - Cada item é validado individualmente (@NotBlank, @Positive)
+     * - Itens inválidos não são inseridos e voltam com seus erros
+     * - Itens válidos são inseridos normalmente
+     * 
+     * @param products Os produtos a serem criados
+     * @return Um resultado por item, na mesma ordem da lista recebida
+     * @throws IllegalArgumentException Se o lote passar de MAX_BATCH_SIZE itens
+     */
+    @Transactional
+    public List<ProductBatchResult> createProducts(List<Product> products) {
+        // Limita o tamanho do lote (o GlobalExceptionHandler retorna HTTP 400)
+        if (products.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("O lote deve ter no máximo " + MAX_BATCH_SIZE + " produtos");
+        }
+
+        List<ProductBatchResult> results = new ArrayList<>(products.size());
+        int pending = 0; // Quantidade de produtos persistidos desde o último flush
+
+        for (int index = 0; index < products.size(); index++) {
+            Product product = products.get(index);
+
+            // Valida o item e guarda os erros por campo (mesmo formato do GlobalExceptionHandler)
+            Map<String, String> errors = validate(product);
+            if (!errors.isEmpty()) {
+                results.add(ProductBatchResult.invalid(index, errors));
+                continue;
+            }
+
+            // Garante que é um INSERT (o cliente não escolhe o id)
+            product.setId(null);
+            productRepository.save(product);
+            results.add(ProductBatchResult.created(index, product));
+
+            // A cada lote JDBC completo, envia os INSERTs e limpa o contexto de persistência
+            if (++pending == jdbcBatchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+
+        // Os produtos criados entram nas sugestões depois do commit (neste e nos outros nós)
+        List<Product> created = results.stream()
+                .filter(ProductBatchResult::isCreated)
+                .map(ProductBatchResult::product)
+                .toList();
+        productNameIndex.putAfterCommit(created);
+        productPriceAnalytics.putAfterCommit(created);
+        productCatalogSnapshot.invalidateAfterCommit();
+        created.forEach(product -> productInvalidationBus.publish(product.getId()));
+
+        // Os INSERTs restantes são enviados no commit da transação
+        return results;
+    }
+
+    /**
+     * Valida um produto do lote usando o Bean Validation
+     * 
+     * @param product O produto a ser validado (pode ser null se o JSON tiver "null" na lista)
+     * @return Mapa campo → mensagem de erro (vazio se o produto for válido)
+     */
+    private Map<String, String> validate(Product product) {
+        Map<String, String> errors = new HashMap<>();
+        if (product == null) {
+            errors.put("product", "O produto não pode ser nulo");
+            return errors;
+        }
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        for (ConstraintViolation<Product> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Tamanho padrão de página quando o cliente não informa "limit"
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * Tamanho máximo de página aceito
+     * Evita que um cliente peça "limit=1000000" e volte a carregar a tabela inteira
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * READ - Listar produtos com paginação por cursor (keyset pagination)
+     * 
+     * Substitui o antigo findAll(), que carregava a tabela inteira em uma única List.
+     * Com milhões de linhas isso levava segundos e causava picos de memória (heap).
+     * 
+     * Agora cada chamada lê no máximo "limit" produtos:
+     * - Executa: SELECT * FROM products WHERE id > ? ORDER BY id LIMIT ?
+     * - Usa o índice da chave primária, então toda página tem o mesmo custo
+     * - Busca limit + 1 linhas apenas para saber se existe uma próxima página
+     * - Os produtos vêm de uma projeção (ProductRepository.PRODUCT_VIEW): objetos comuns,
+     *   sem estado gerenciado pelo Hibernate nem cópias para dirty checking
+     * 
+     * @param after Cursor opaco recebido na página anterior (null para a primeira página)
+     * @param limit Quantidade de produtos por página (1 a MAX_PAGE_SIZE)
+     * @return A página de produtos e o cursor para a próxima página
+     * @throws IllegalArgumentException Se o cursor ou o limit forem inválidos
+     */
+    public ProductPage getProductsPage(String after, int limit) {
+        // Valida o tamanho da página (o GlobalExceptionHandler retorna HTTP 400)
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O limit deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+
+        // Sem cursor, começa do início (os ids gerados são sempre positivos)
+        Long afterId = (after == null || after.isBlank()) ? 0L : ProductPage.decodeCursor(after);
+
+        // Busca uma linha a mais para descobrir se há próxima página sem precisar de COUNT(*)
+        List<Product> products = productRepository.findPageAfter(afterId, Limit.of(limit + 1));
+
+        // Se não veio a linha extra, esta é a última página
+        if (products.size() <= limit) {
+            return new ProductPage(products, null);
+        }
+
+        // Remove a linha extra e usa o id do último item como cursor da próxima página
+        List<Product> page = products.subList(0, limit);
+        return new ProductPage(page, ProductPage.encodeCursor(page.get(limit - 1).getId()));
+    }
+
+    /**
+     * Tamanho máximo do texto de busca (o nome do produto tem no máximo 100 caracteres)
+     */
+    public static final int MAX_SEARCH_LENGTH = 100;
+
+    /**
+     * READ - Buscar produtos pelo nome (full-text search), do mais relevante ao menos relevante
+     * 
+     * Antes, a única forma de achar um produto pelo nome era baixar o catálogo
+     * inteiro e filtrar no cliente. Agora o PostgreSQL encontra os produtos pelo
+     * índice GIN (veja ProductSearchIndexConfig) e devolve só uma página.
+     * 
+     * A paginação é por cursor, como na listagem, mas a ordem é (relevância, id):
+     * o cursor guarda os dois valores do último produto entregue.
+     * 
+     * @param q O texto de busca (ex: "cadeira gamer")
+     * @param after Cursor opaco recebido na página anterior (null para a primeira página)
+     * @param limit Quantidade de produtos por página (1 a MAX_PAGE_SIZE)
+     * @return A página de resultados e o cursor para a próxima página
+     * @throws IllegalArgumentException Se o texto, o cursor ou o limit forem inválidos
+     */
+    public ProductPage searchProducts(String q, String after, int limit) {
+        // Valida o texto e o tamanho da página (o GlobalExceptionHandler retorna HTTP 400)
+        if (q == null || q.isBlank() || q.length() > MAX_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("O parâmetro q deve ter entre 1 e " + MAX_SEARCH_LENGTH + " caracteres");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O limit deve estar entre 1 e " + MAX_PAGE_SIZE);
+        }
+
+        // Sem cursor, começa antes do resultado mais relevante
+        ProductPage.SearchCursor cursor = (after == null || after.isBlank())
+                ? ProductPage.SearchCursor.START : ProductPage.decodeSearchCursor(after);
+
+        // Busca uma linha a mais para descobrir se há próxima página
+        List<ProductSearchHit> hits = productRepository.searchByName(q, cursor.rank(), cursor.id(), limit + 1);
+
+        List<Product> products = new ArrayList<>(Math.min(hits.size(), limit));
+        for (int i = 0; i < hits.size() && i < limit; i++) {
+            products.add(hits.get(i).toProduct());
+        }
+
+        // Se não veio a linha extra, esta é a última página
+        if (hits.size() <= limit) {
+            return new ProductPage(products, null);
+        }
+        ProductSearchHit last = hits.get(limit - 1);
+        return new ProductPage(products, ProductPage.encodeSearchCursor(last.getRank(), last.getId()));
+    }
+
+    /**
+     * Quantidade padrão de sugestões quando o cliente não informa "limit"
+     */
+    public static final int DEFAULT_SUGGEST_SIZE = 10;
+
+    /**
+     * Quantidade máxima de sugestões por chamada
+     */
+    public static final int MAX_SUGGEST_SIZE = 50;
+
+    /**
+     * READ - Sugerir produtos pelo início do nome (search-as-you-type)
+     * 
+     * Chamado a cada tecla digitada. NÃO vai ao banco: a busca é feita no
+     * ProductNameIndex, em memória, em microssegundos.
+     * 
+     * @param prefix O texto digitado até agora (ex: "cad")
+     * @param limit Quantidade máxima de sugestões (1 a MAX_SUGGEST_SIZE)
+     * @return Os produtos com uma palavra do nome começando com o prefixo
+     * @throws IllegalArgumentException Se o prefixo ou o limit forem inválidos
+     */
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        // Valida o prefixo e a quantidade (o GlobalExceptionHandler retorna HTTP 400)
+        if (prefix == null || prefix.isBlank() || prefix.length() > MAX_SEARCH_LENGTH) {
+            throw new IllegalArgumentException("O parâmetro prefix deve ter entre 1 e " + MAX_SEARCH_LENGTH + " caracteres");
+        }
+        if (limit < 1 || limit > MAX_SUGGEST_SIZE) {
+            throw new IllegalArgumentException("O limit deve estar entre 1 e " + MAX_SUGGEST_SIZE);
+        }
+        return productNameIndex.suggest(prefix, limit);
+    }
+
+    /**
+     * READ - Estatísticas de preço do catálogo (quantidade, mínimo, máximo, média e percentis)
+     * 
+     * Calculadas pelo banco em um único comando (veja ProductRepository.priceStats()):
+     * o catálogo NÃO é carregado na JVM, então o custo de memória não cresce com
+     * a quantidade de produtos.
+     * 
+     * @return As estatísticas (count 0 e demais valores null com o catálogo vazio)
+     */
+    public ProductPriceStats getPriceStats() {
+        ProductRepository.PriceStatsRow row = productRepository.priceStats();
+        return new ProductPriceStats(row.getCount(), row.getMin(), row.getMax(),
+                row.getAvg(), row.getP50(), row.getP90(), row.getP99());
+    }
+
+    /**
+     * Quantidade padrão de faixas do histograma quando o cliente não informa "buckets"
+     */
+    public static final int DEFAULT_HISTOGRAM_BUCKETS = 10;
+
+    /**
+     * Quantidade máxima de faixas do histograma
+     */
+    public static final int MAX_HISTOGRAM_BUCKETS = 100;
+
+    /**
+     * READ - Histograma de preços em faixas de mesma largura
+     * 
+     * O banco conta os produtos de cada faixa (GROUP BY) e devolve no máximo uma
+     * linha por faixa. Aqui apenas se calculam os limites de cada faixa e se
+     * completam as faixas sem produtos (que não vêm do banco) com zero.
+     * 
+     * A faixa i (0 a buckets - 1) começa em menor + teto(i * largura / buckets),
+     * onde largura = maior + 1 - menor: exatamente os preços que o banco colocou
+     * nela. Quando há menos preços distintos possíveis do que faixas (ex: todos
+     * os produtos com o mesmo preço), as faixas de largura zero são omitidas.
+     * 
+     * @param buckets Quantidade de faixas (1 a MAX_HISTOGRAM_BUCKETS)
+     * @return O histograma (sem faixas com o catálogo vazio)
+     * @throws IllegalArgumentException Se buckets estiver fora do intervalo permitido
+     */
+    public ProductPriceHistogram getPriceHistogram(int buckets) {
+        // Valida a quantidade de faixas (o GlobalExceptionHandler retorna HTTP 400)
+        if (buckets < 1 || buckets > MAX_HISTOGRAM_BUCKETS) {
+            throw new IllegalArgumentException("O buckets deve estar entre 1 e " + MAX_HISTOGRAM_BUCKETS);
+        }
+
+        List<ProductRepository.PriceBucketRow> rows = productRepository.priceHistogram(buckets);
+        if (rows.isEmpty()) {
+            return new ProductPriceHistogram(0, List.of());
+        }
+
+        // Soma as contagens por faixa (as que não vieram do banco ficam com zero)
+        long[] counts = new long[buckets];
+        long total = 0;
+        for (ProductRepository.PriceBucketRow row : rows) {
+            counts[Math.clamp(row.getBucket() - 1, 0, buckets - 1)] += row.getCount();
+            total += row.getCount();
+        }
+
+        // Calcula os limites de cada faixa a partir do menor e do maior preço
+        long lo = rows.get(0).getLo();
+        long width = rows.get(0).getHi() + 1 - lo;
+        List<ProductPriceHistogram.Bucket> result = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            long from = lo + Math.ceilDiv(i * width, buckets);
+            long to = lo + Math.ceilDiv((i + 1) * width, buckets);
+            if (from < to) {
+                result.add(new ProductPriceHistogram.Bucket(from, to, counts[i]));
+            }
+        }
+        return new ProductPriceHistogram(total, result);
+    }
+
+    /**
+     * Quantidade padrão de ids devolvidos por GET /products/analytics/price-range/ids
+     */
+    public static final int DEFAULT_RANGE_IDS = 1000;
+
+    /**
+     * Quantidade máxima de ids devolvidos por GET /products/analytics/price-range/ids
+     */
+    public static final int MAX_RANGE_IDS = 10_000;
+
+    /**
+     * ANÁLISE - Quantidade, soma, menor, maior e média dos preços em [minInCents, maxInCents]
+     * 
+     * NÃO vai ao banco: varre a cópia colunar de preços em memória
+     * (ProductPriceAnalytics), com SIMD e em paralelo. Dezenas de milhões de
+     * produtos levam poucos milissegundos.
+     * 
+     * @param minInCents Menor preço da faixa (incluído)
+     * @param maxInCents Maior preço da faixa (incluído)
+     * @return O resumo da faixa
+     * @throws IllegalArgumentException Se minInCents for maior que maxInCents
+     */
+    public ProductPriceRange analyzePriceRange(int minInCents, int maxInCents) {
+        // Valida a faixa (o GlobalExceptionHandler retorna HTTP 400)
+        if (minInCents > maxInCents) {
+            throw new IllegalArgumentException("O minInCents deve ser menor ou igual ao maxInCents");
+        }
+        return productPriceAnalytics.summarize(minInCents, maxInCents);
+    }
+
+    /**
+     * ANÁLISE - Ids (em ordem crescente) dos produtos com preço em [minInCents, maxInCents]
+     * 
+     * Também responde pela cópia colunar em memória, sem ir ao banco. Os produtos
+     * completos podem ser lidos depois por GET /products/{id} (cache).
+     * 
+     * @param minInCents Menor preço da faixa (incluído)
+     * @param maxInCents Maior preço da faixa (incluído)
+     * @param limit Quantidade máxima de ids (1 a MAX_RANGE_IDS)
+     * @return Os ids encontrados
+     * @throws IllegalArgumentException Se a faixa ou o limit forem inválidos
+     */
+    public long[] findProductIdsInPriceRange(int minInCents, int maxInCents, int limit) {
+        // Valida a faixa e a quantidade (o GlobalExceptionHandler retorna HTTP 400)
+        if (minInCents > maxInCents) {
+            throw new IllegalArgumentException("O minInCents deve ser menor ou igual ao maxInCents");
+        }
+        if (limit < 1 || limit > MAX_RANGE_IDS) {
+            throw new IllegalArgumentException("O limit deve estar entre 1 e " + MAX_RANGE_IDS);
+        }
+        return productPriceAnalytics.idsInRange(minInCents, maxInCents, limit);
+    }
+
+    /**
+     * READ - Exportar todos os produtos, um de cada vez
+     * 
+     * Usado pelo endpoint de exportação (NDJSON). Cada produto lido do banco é
+     * entregue ao "sink" e imediatamente desanexado do contexto de persistência.
+     * 
+     * POR QUE NÃO USAR findAll()?
+     * - findAll() mantém TODAS as entidades em memória ao mesmo tempo
+     * - Com 10 milhões de linhas, isso estoura o heap da aplicação
+     * - Aqui a memória usada é constante: apenas um lote de EXPORT_FETCH_SIZE linhas
+     * 
+     * @Transactional(readOnly = true):
+     * - Mantém a conexão aberta enquanto o Stream é consumido (necessário para o cursor)
+     * - Informa ao Hibernate que nada será alterado (sem flush, sem dirty checking)
+     * - No PostgreSQL, desliga o autocommit, o que habilita o fetch size do driver
+     * 
+     * @param sink Quem recebe cada produto (ex: o writer da resposta HTTP)
+     */
+    @Transactional(readOnly = true)
+    public void exportProducts(Consumer<Product> sink) {
+        // try-with-resources: garante que o cursor e a conexão sejam liberados
+        try (Stream<Product> products = productRepository.streamAllForExport()) {
+            products.forEach(product -> {
+                // Entrega o produto para quem está escrevendo a resposta
+                sink.accept(product);
+                
+                // Remove a entidade do contexto de persistência
+                // Sem isso, o contexto guardaria referência a todas as linhas já lidas
+                entityManager.detach(product);
+            });
+        }
     }
 
     /**
@@ -164,6 +653,11 @@ public class ProductService {
      * Este método encapsula a lógica de busca e tratamento de erro.
      * O Service é responsável por lançar exceções de negócio.
      * 
+     * CACHE (read-through):
+     * - Os produtos lidos ficam no ProductCache (tamanho limitado + TTL)
+     * - Leituras seguintes do mesmo id não vão ao banco
+     * - O produto retornado é compartilhado entre requisições: NÃO o altere
+     * 
      * @param id O ID do produto a ser buscado
      * @return O produto encontrado
      * @throws RuntimeException Se o produto não for encontrado
@@ -178,25 +672,49 @@ public class ProductService {
      * - Facilita reutilização (outros controllers podem usar o mesmo service)
      */
     public Product getProductById(Long id) {
-        // Busca o produto pelo ID no PostgreSQL
-        // findById() executa: SELECT * FROM products WHERE id = ?
-        // Retorna Optional<Product>:
-        // - Se encontrar: Optional<Product> com o produto
-        // - Se não encontrar: Optional.empty()
-        Optional<Product> productOptional = productRepository.findById(id);
+        // Busca o produto no cache; se não estiver lá, busca no banco e guarda no cache
+        // findViewById() executa: SELECT id, name, price_in_cents, version FROM products WHERE id = ?
+        // (somente em caso de miss) e devolve um Product não gerenciado pelo Hibernate
+        Product product = productCache.get(id, key -> productRepository.findViewById(key).orElse(null));
         
         // Se não encontrar, lança exceção
         // O GlobalExceptionHandler captura e retorna HTTP 404
-        if (productOptional.isEmpty()) {
-            throw new RuntimeException("Produto não encontrado");
+        if (product == null) {
+            throw new ProductNotFoundException();
         }
         
-        // Retorna o produto encontrado
-        return productOptional.get();
+        // Retorna o produto encontrado (cópia compartilhada do cache: não deve ser alterada)
+        return product;
     }
 
     /**
-     * UPDATE - Atualizar um produto existente
+     * READ - Buscar somente a versão de um produto (para o ETag)
+     * 
+     * Usado pelo GET condicional (If-None-Match). A ordem de busca é:
+     * 1. ProductCache: se o produto estiver no cache, nenhuma ida ao banco
+     * 2. Banco: SELECT version FROM products WHERE id = ? (sem carregar a entidade)
+     * 
+     * @param id O ID do produto
+     * @return A versão atual do produto
+     * @throws RuntimeException Se o produto não for encontrado
+     */
+    public Long getProductVersion(Long id) {
+        // Se o produto estiver no cache, a versão já está em memória
+        Product cached = productCache.getIfPresent(id);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        
+        // Caso contrário, busca apenas a coluna version
+        Optional<Long> version = productRepository.findVersionById(id);
+        if (version.isEmpty()) {
+            throw new ProductNotFoundException();
+        }
+        return version.get();
+    }
+
+    /**
+     * UPDATE - Atualizar um produto existente (substituição completa, PUT)
      * 
      * Este método encapsula a lógica de atualização.
      * Aqui você pode adicionar:
@@ -204,41 +722,67 @@ public class ProductService {
      * - Histórico de alterações
      * - Notificações de mudança
      * 
+     * UMA ÚNICA IDA AO BANCO:
+     * Antes: SELECT (buscar) + SELECT do merge + UPDATE, sem transação explícita.
+     * Agora: um único comando que atualiza e já devolve a linha atualizada:
+     * UPDATE products SET ... WHERE id = ? RETURNING *
+     * 
      * @param id O ID do produto a ser atualizado
      * @param productDetails Os novos dados do produto (já validados pelo Bean Validation)
      * @return O produto atualizado
      * @throws RuntimeException Se o produto não for encontrado
      * 
-     * COM POSTGRESQL:
-     * - Busca: SELECT * FROM products WHERE id = ?
-     * - Atualiza: UPDATE products SET name = ?, price_in_cents = ? WHERE id = ?
-     * - Os dados são atualizados permanentemente no banco
-     * 
      * EXEMPLO DE LÓGICA DE NEGÓCIO:
      * - Verificar se o usuário tem permissão para atualizar
      * - Salvar histórico de alterações
      * - Validar se a mudança é permitida (ex: não pode alterar preço se já foi vendido)
      */
+    @Transactional
     public Product updateProduct(Long id, Product productDetails) {
-        // Busca o produto existente no banco PostgreSQL
-        // Se não encontrar, lança exceção (tratada pelo GlobalExceptionHandler)
-        Product product = getProductById(id); // Reutiliza o método getProductById
-        
-        // Atualiza os campos do produto existente com os novos valores
-        // Não atualizamos o ID (chave primária não deve ser alterada)
-        product.setName(productDetails.getName()); // Atualiza o nome
-        product.setPriceInCents(productDetails.getPriceInCents()); // Atualiza o preço
-        
-        // Aqui você pode adicionar lógica antes de salvar
-        // Exemplo: validar se a mudança é permitida, registrar histórico, etc.
+        // Atualiza nome e preço (ambos obrigatórios no PUT, validados pelo @Valid)
+        return applyUpdate(productRepository.updateReturning(
+                id, productDetails.getName(), productDetails.getPriceInCents()));
+    }
+
+    /**
+     * UPDATE - Atualizar parcialmente um produto (PATCH)
+     * 
+     * Apenas os campos informados (não nulos) são alterados; os demais mantêm
+     * o valor atual. Também executa um único comando no banco.
+     * 
+     * @param id O ID do produto a ser atualizado
+     * @param patch Os campos a alterar (já validados pelo Bean Validation)
+     * @return O produto atualizado
+     * @throws IllegalArgumentException Se nenhum campo for informado
+     * @throws RuntimeException Se o produto não for encontrado
+     */
+    @Transactional
+    public Product patchProduct(Long id, ProductPatch patch) {
+        if (patch.name() == null && patch.priceInCents() == null) {
+            throw new IllegalArgumentException("Informe ao menos um campo para atualizar");
+        }
+        return applyUpdate(productRepository.updatePartialReturning(id, patch.name(), patch.priceInCents()));
+    }
+
+    /**
+     * Trata o resultado do UPDATE de um único comando e atualiza o cache
+     * 
+     * A versão é incrementada no próprio UPDATE (updateReturning no PUT,
+     * updatePartialReturning no PATCH), para que o ETag mude a cada alteração.
+     */
+    private Product applyUpdate(Optional<Product> updated) {
+        // Nenhuma linha atualizada = o produto não existe (retorna HTTP 404)
+        Product updatedProduct = updated
+                .orElseThrow(() -> new ProductNotFoundException());
         
-        // Salva o produto atualizado no PostgreSQL
-        // O JPA detecta que o ID já existe e faz UPDATE ao invés de INSERT
-        // Executa: UPDATE products SET name = ?, price_in_cents = ? WHERE id = ?
-        Product updatedProduct = productRepository.save(product);
+        // Atualiza o cache com o novo valor depois do commit da transação
+        productCache.putAfterCommit(updatedProduct);
+        productNameIndex.putAfterCommit(List.of(updatedProduct));
+        productPriceAnalytics.putAfterCommit(List.of(updatedProduct));
+        productCatalogSnapshot.invalidateAfterCommit();
         
-        // Aqui você pode adicionar lógica após salvar
-        // Exemplo: enviar notificação, atualizar cache, etc.
+        // Avisa os outros nós (NOTIFY enviado junto com o commit)
+        productInvalidationBus.publish(updatedProduct.getId());
         
         return updatedProduct;
     }
@@ -252,41 +796,35 @@ public class ProductService {
      * - Soft delete (marcar como deletado ao invés de remover)
      * - Logs de auditoria
      * 
+     * UMA ÚNICA IDA AO BANCO:
+     * Antes: existsById (SELECT) + deleteById (SELECT para carregar a entidade + DELETE).
+     * Agora: DELETE FROM products WHERE id = ?
+     * A quantidade de linhas afetadas diz se o produto existia (0 = HTTP 404).
+     * 
      * @param id O ID do produto a ser deletado
      * @throws RuntimeException Se o produto não for encontrado
      * 
-     * COM POSTGRESQL:
-     * - Verifica: SELECT COUNT(*) FROM products WHERE id = ?
-     * - Deleta: DELETE FROM products WHERE id = ?
-     * - O registro é removido permanentemente do banco
-     * 
      * EXEMPLO DE LÓGICA DE NEGÓCIO:
      * - Verificar se o produto pode ser deletado (ex: não tem vendas)
      * - Soft delete: marcar como deletado ao invés de remover do banco
      * - Registrar quem deletou e quando
      */
+    @Transactional
     public void deleteProduct(Long id) {
-        // Verifica se o produto existe no PostgreSQL antes de tentar deletar
-        // Executa: SELECT COUNT(*) FROM products WHERE id = ?
-        // Se não existir, lança exceção (retorna HTTP 404)
-        if (!productRepository.existsById(id)) {
-            throw new RuntimeException("Produto não encontrado");
+        // Deleta o produto com um único comando e verifica quantas linhas foram removidas
+        // Se nenhuma linha foi removida, o produto não existe (retorna HTTP 404)
+        int deleted = productRepository.deleteProductById(id);
+        if (deleted == 0) {
+            throw new ProductNotFoundException();
         }
         
-        // Aqui você pode adicionar validações de negócio
-        // Exemplo: verificar se o produto pode ser deletado
-        // Product product = getProductById(id);
-        // if (product.hasSales()) {
-        //     throw new BusinessException("Não é possível deletar produto com vendas");
-        // }
-        
-        // Deleta o produto do banco PostgreSQL
-        // deleteById() executa: DELETE FROM products WHERE id = ?
-        // Remove o registro permanentemente da tabela
-        productRepository.deleteById(id);
+        // Remove o produto do cache depois do commit da transação
+        productCache.evictAfterCommit(id);
+        productNameIndex.removeAfterCommit(id);
+        productPriceAnalytics.removeAfterCommit(id);
+        productCatalogSnapshot.invalidateAfterCommit();
         
-        // Aqui você pode adicionar lógica após deletar
-        // Exemplo: registrar log de auditoria, enviar notificação, etc.
+        // Avisa os outros nós (NOTIFY enviado junto com o commit)
+        productInvalidationBus.publish(id);
     }
 }
-
@@ -0,0 +1,464 @@
+// Declaração do pacote - organiza a classe no pacote de serviços
+package com.example.projeto_postgres.service;
+
+// Importa os DTOs usados na listagem paginada, na criação em lote e no PATCH
+import com.example.projeto_postgres.dto.ProductBatchResult;
+import com.example.projeto_postgres.dto.ProductPage;
+import com.example.projeto_postgres.dto.ProductPatch;
+
+// Importa a exceção de produto inexistente (HTTP 404, gRPC NOT_FOUND)
+import com.example.projeto_postgres.exception.ProductNotFoundException;
+
+// Importa a entidade Product (formato do JSON) e a linha usada pelo R2DBC
+import com.example.projeto_postgres.model.Product;
+import com.example.projeto_postgres.model.ProductRow;
+
+// Importa o limite de tamanho das mensagens de invalidação (mesmo formato do modo servlet)
+import com.example.projeto_postgres.cache.ProductInvalidationBus;
+
+// Importa o repositório reativo
+import com.example.projeto_postgres.repository.ProductRepository;
+import com.example.projeto_postgres.repository.ReactiveProductRepository;
+
+// Importa o Validator do Bean Validation para validar cada item do lote manualmente
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Importa as APIs do R2DBC e do Spring Data R2DBC
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+// Importa anotações do Spring
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+// Importa os tipos reativos do Project Reactor
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Importa coleções usadas na criação em lote
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Camada de Serviço Reativa - Mesma lógica do ProductService, sem bloquear threads
+ *
+ * Usada somente com o perfil "reactive" (WebFlux + R2DBC). Cada método devolve
+ * um Mono (0 ou 1 resultado) ou um Flux (0 a N resultados): nada é executado até
+ * que o WebFlux "assine" o resultado, e nenhuma thread fica parada esperando o banco.
+ * Poucas threads (event loop do Netty) atendem milhares de conexões ao mesmo tempo.
+ *
+ * DIFERENÇAS PARA O ProductService:
+ * - Não usa o ProductCache: cada leitura vai ao banco, de forma não bloqueante
+ * - Os ids vêm da mesma sequence (products_seq), reservados em blocos (pooled-lo),
+ *   então os dois modos podem gravar na mesma tabela sem colisão
+ * - Criações, alterações e exclusões enviam o mesmo NOTIFY de invalidação, para
+ *   que nós no modo servlet no mesmo banco atualizem cache, índices (sugestões e
+ *   análise de preços) e o snapshot da exportação
+ * - As exceções são as mesmas (RuntimeException = 404, IllegalArgumentException = 400)
+ */
+@Profile("reactive") // Só existe no modo reativo
+@Service // Marca como componente Spring do tipo Service (lógica de negócio)
+public class ReactiveProductService {
+
+    /**
+     * INSERT usado na criação em lote (os parâmetros são enviados em pipeline)
+     */
+    private static final String INSERT_SQL =
+            "INSERT INTO products (id, name, price_in_cents, version) VALUES ($1, $2, $3, 0)";
+
+    @Autowired
+    private ReactiveProductRepository productRepository;
+
+    @Autowired
+    private R2dbcEntityTemplate entityTemplate;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int insertBatchSize;
+
+    @Value("${app.products.cache.invalidation.channel:product_invalidation}")
+    private String invalidationChannel;
+
+    @Value("${app.products.cache.invalidation.enabled:true}")
+    private boolean invalidationEnabled;
+
+    /**
+     * Identificador deste nó nas mensagens de invalidação
+     * (o modo reativo não tem cache, então não precisa escutar as mensagens)
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Tamanho do bloco de ids da sequence (INCREMENT BY), lido uma única vez do banco
+     * O banco é a fonte da verdade, como no ProductIdSequenceConfig.
+     * Erros não ficam em cache: a próxima chamada tenta ler de novo.
+     */
+    private final Mono<Long> idBlockSize = Mono.defer(() -> databaseClient
+                    .sql("SELECT increment_by FROM pg_sequences WHERE sequencename = 'products_seq'")
+                    .map(row -> row.get(0, Long.class))
+                    .one())
+            .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                    "Sequence products_seq não encontrada (execute o database-setup.sql)")))
+            .cache(blockSize -> Duration.ofMillis(Long.MAX_VALUE), error -> Duration.ZERO, () -> Duration.ZERO);
+
+    /**
+     * Bloco de ids reservado e ainda não usado: [nextId, blockEnd)
+     * Acessado somente dentro de synchronized (idLock)
+     */
+    private final Object idLock = new Object();
+    private long nextId;
+    private long blockEnd;
+
+    /**
+     * CREATE - Criar um novo produto
+     *
+     * @param product O produto a ser criado (já validado pelo @Valid)
+     * @return O produto criado, com o id gerado pela sequence
+     */
+    @Transactional
+    public Mono<Product> createProduct(Product product) {
+        // O id é sempre gerado pela sequence (ignora um id enviado pelo cliente)
+        return reserveIds(1)
+                .flatMap(ids -> entityTemplate.insert(ProductRow.of(ids.getFirst(), product)))
+                .flatMap(row -> publish(List.of(row.id())).thenReturn(row.toProduct()));
+    }
+
+    /**
+     * CREATE - Criar vários produtos de uma vez (criação em lote)
+     *
+     * Mesmas regras do ProductService.createProducts: cada item é validado, os
+     * inválidos voltam com seus erros e os válidos são inseridos em UMA transação.
+     * Os INSERTs são enviados em grupos de "insertBatchSize" sem esperar a resposta
+     * de cada um (pipeline do protocolo do PostgreSQL).
+     *
+     * @param products Os produtos a serem criados
+     * @return Um resultado por item, na mesma ordem da lista recebida
+     */
+    @Transactional
+    public Mono<List<ProductBatchResult>> createProducts(List<Product> products) {
+        if (products.size() > ProductService.MAX_BATCH_SIZE) {
+            return Mono.error(new IllegalArgumentException(
+                    "O lote deve ter no máximo " + ProductService.MAX_BATCH_SIZE + " produtos"));
+        }
+
+        // Valida todos os itens antes de ir ao banco
+        List<ProductBatchResult> results = new ArrayList<>(products.size());
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int index = 0; index < products.size(); index++) {
+            Map<String, String> errors = validate(products.get(index));
+            results.add(errors.isEmpty() ? null : ProductBatchResult.invalid(index, errors));
+            if (errors.isEmpty()) {
+                validIndexes.add(index);
+            }
+        }
+        if (validIndexes.isEmpty()) {
+            return Mono.just(results);
+        }
+
+        return reserveIds(validIndexes.size()).flatMap(ids -> {
+            List<ProductRow> rows = new ArrayList<>(ids.size());
+            for (int i = 0; i < validIndexes.size(); i++) {
+                int index = validIndexes.get(i);
+                ProductRow row = ProductRow.of(ids.get(i), products.get(index));
+                rows.add(row);
+                results.set(index, ProductBatchResult.created(index, row.toProduct()));
+            }
+            // Envia um grupo de INSERTs por vez, em sequência (concatMap),
+            // e avisa os outros nós na mesma transação
+            return Flux.fromIterable(partition(rows, insertBatchSize))
+                    .concatMap(this::insertAll)
+                    .then(publish(ids))
+                    .then(Mono.just(results));
+        });
+    }
+
+    /**
+     * READ - Listar produtos com paginação por cursor
+     *
+     * Mesmo contrato do ProductService.getProductsPage (limit + 1 linhas para
+     * descobrir se existe próxima página).
+     */
+    public Mono<ProductPage> getProductsPage(String after, int limit) {
+        if (limit < 1 || limit > ProductService.MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException(
+                    "O limit deve estar entre 1 e " + ProductService.MAX_PAGE_SIZE));
+        }
+        return Mono.fromCallable(() -> (after == null || after.isBlank()) ? 0L : ProductPage.decodeCursor(after))
+                .flatMap(afterId -> productRepository.findPage(afterId, limit + 1)
+                        .map(ProductRow::toProduct)
+                        .collectList())
+                .map(products -> {
+                    if (products.size() <= limit) {
+                        return new ProductPage(products, null);
+                    }
+                    List<Product> page = products.subList(0, limit);
+                    return new ProductPage(page, ProductPage.encodeCursor(page.get(limit - 1).getId()));
+                });
+    }
+
+    /**
+     * READ - Buscar produtos pelo nome (full-text search)
+     *
+     * Mesmo SQL e mesmo contrato do ProductService.searchProducts (índice GIN,
+     * ordem por relevância, cursor sobre (rank, id)).
+     */
+    public Mono<ProductPage> searchProducts(String q, String after, int limit) {
+        if (q == null || q.isBlank() || q.length() > ProductService.MAX_SEARCH_LENGTH) {
+            return Mono.error(new IllegalArgumentException(
+                    "O parâmetro q deve ter entre 1 e " + ProductService.MAX_SEARCH_LENGTH + " caracteres"));
+        }
+        if (limit < 1 || limit > ProductService.MAX_PAGE_SIZE) {
+            return Mono.error(new IllegalArgumentException(
+                    "O limit deve estar entre 1 e " + ProductService.MAX_PAGE_SIZE));
+        }
+        return Mono.fromCallable(() -> (after == null || after.isBlank())
+                        ? ProductPage.SearchCursor.START : ProductPage.decodeSearchCursor(after))
+                .flatMap(cursor -> databaseClient.sql(ProductRepository.SEARCH_BY_NAME_SQL)
+                        .bind("q", q)
+                        .bind("afterRank", cursor.rank())
+                        .bind("afterId", cursor.id())
+                        .bind("limit", limit + 1)
+                        .map(row -> new SearchResult(new Product(
+                                row.get("id", Long.class),
+                                row.get("name", String.class),
+                                row.get("priceInCents", Integer.class),
+                                row.get("version", Long.class)), row.get("rank", Float.class)))
+                        .all()
+                        .collectList())
+                .map(results -> {
+                    List<Product> products = results.stream().limit(limit).map(SearchResult::product).toList();
+                    if (results.size() <= limit) {
+                        return new ProductPage(products, null);
+                    }
+                    SearchResult last = results.get(limit - 1);
+                    return new ProductPage(products,
+                            ProductPage.encodeSearchCursor(last.rank(), last.product().getId()));
+                });
+    }
+
+    /**
+     * READ - Exportar todos os produtos em streaming, com backpressure
+     *
+     * O banco entrega EXPORT_FETCH_SIZE linhas por vez e a próxima leva só é pedida
+     * quando o cliente HTTP consumiu as anteriores: um cliente lento desacelera a
+     * leitura no banco, em vez de acumular o catálogo inteiro em memória.
+     *
+     * @Transactional(readOnly = true): mantém a mesma conexão durante o streaming
+     * (necessário para o cursor do PostgreSQL).
+     */
+    @Transactional(readOnly = true)
+    public Flux<Product> exportProducts() {
+        return databaseClient.sql("SELECT id, name, price_in_cents, version FROM products ORDER BY id")
+                .filter(statement -> statement.fetchSize(ProductRepository.EXPORT_FETCH_SIZE))
+                .map(ReactiveProductService::toProduct)
+                .all();
+    }
+
+    /**
+     * READ - Buscar um produto por ID
+     *
+     * @return O produto, ou erro "Produto não encontrado" (HTTP 404)
+     */
+    public Mono<Product> getProductById(Long id) {
+        return productRepository.findById(id)
+                .map(ProductRow::toProduct)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException()));
+    }
+
+    /**
+     * READ - Buscar somente a versão de um produto (para o ETag)
+     */
+    public Mono<Long> getProductVersion(Long id) {
+        return productRepository.findVersionById(id)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException()));
+    }
+
+    /**
+     * UPDATE - Atualizar um produto existente (PUT)
+     */
+    @Transactional
+    public Mono<Product> updateProduct(Long id, Product productDetails) {
+        return applyUpdate(id, productRepository.updateReturning(
+                id, productDetails.getName(), productDetails.getPriceInCents()));
+    }
+
+    /**
+     * UPDATE - Atualizar parcialmente um produto (PATCH)
+     */
+    @Transactional
+    public Mono<Product> patchProduct(Long id, ProductPatch patch) {
+        if (patch.name() == null && patch.priceInCents() == null) {
+            return Mono.error(new IllegalArgumentException("Informe ao menos um campo para atualizar"));
+        }
+        return applyUpdate(id, productRepository.updatePartialReturning(id, patch.name(), patch.priceInCents()));
+    }
+
+    /**
+     * DELETE - Deletar um produto com um único comando
+     */
+    @Transactional
+    public Mono<Void> deleteProduct(Long id) {
+        return productRepository.deleteProductById(id)
+                .filter(deleted -> deleted > 0)
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException()))
+                .then(publish(List.of(id)));
+    }
+
+    /**
+     * Trata o resultado do UPDATE ... RETURNING * e avisa os outros nós
+     */
+    private Mono<Product> applyUpdate(Long id, Mono<ProductRow> updated) {
+        return updated
+                .switchIfEmpty(Mono.error(() -> new ProductNotFoundException()))
+                .flatMap(row -> publish(List.of(id)).thenReturn(row.toProduct()));
+    }
+
+    /**
+     * Envia o NOTIFY de invalidação na mesma transação da alteração
+     *
+     * Mesmo formato do ProductInvalidationBus ("<id do nó>:<id>,<id>"), dividido em
+     * várias mensagens quando passa do limite do NOTIFY. O PostgreSQL só entrega as
+     * mensagens se a transação for confirmada.
+     */
+    private Mono<Void> publish(List<Long> ids) {
+        if (!invalidationEnabled || ids.isEmpty()) {
+            return Mono.empty();
+        }
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(nodeId).append(':');
+        int emptyLength = payload.length();
+        for (Long id : ids) {
+            String value = String.valueOf(id);
+            if (payload.length() + value.length() + 1 > ProductInvalidationBus.MAX_PAYLOAD_LENGTH) {
+                payloads.add(payload.toString());
+                payload.setLength(emptyLength);
+            }
+            if (payload.length() > emptyLength) {
+                payload.append(',');
+            }
+            payload.append(value);
+        }
+        payloads.add(payload.toString());
+        return Flux.fromIterable(payloads)
+                .concatMap(message -> databaseClient.sql("SELECT pg_notify(:channel, :payload)")
+                        .bind("channel", invalidationChannel)
+                        .bind("payload", message)
+                        .then())
+                .then();
+    }
+
+    /**
+     * Reserva "count" ids da sequence products_seq
+     *
+     * Usa a mesma estratégia pooled-lo do Hibernate: cada nextval reserva o bloco
+     * [valor, valor + INCREMENT BY). Os ids que sobram ficam guardados para as
+     * próximas chamadas. Quando faltam ids, todos os blocos necessários são
+     * reservados em UMA consulta (generate_series).
+     */
+    private Mono<List<Long>> reserveIds(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        synchronized (idLock) {
+            while (ids.size() < count && nextId < blockEnd) {
+                ids.add(nextId++);
+            }
+        }
+        int missing = count - ids.size();
+        if (missing == 0) {
+            return Mono.just(ids);
+        }
+        return idBlockSize.flatMap(blockSize -> databaseClient
+                .sql("SELECT nextval('products_seq') FROM generate_series(1, :blocks)")
+                .bind("blocks", (int) ((missing + blockSize - 1) / blockSize))
+                .map(row -> row.get(0, Long.class))
+                .all()
+                .collectList()
+                .map(blockStarts -> {
+                    synchronized (idLock) {
+                        for (Long start : blockStarts) {
+                            long end = start + blockSize;
+                            long id = start;
+                            while (ids.size() < count && id < end) {
+                                ids.add(id++);
+                            }
+                            if (id < end) {
+                                // Sobrou parte do último bloco: fica para as próximas chamadas
+                                nextId = id;
+                                blockEnd = end;
+                            }
+                        }
+                    }
+                    return ids;
+                }));
+    }
+
+    /**
+     * Insere um grupo de linhas em uma única execução (Statement com várias ligações)
+     */
+    private Mono<Long> insertAll(List<ProductRow> rows) {
+        return databaseClient.inConnectionMany(connection -> {
+            Statement statement = connection.createStatement(INSERT_SQL);
+            for (int i = 0; i < rows.size(); i++) {
+                if (i > 0) {
+                    statement.add();
+                }
+                ProductRow row = rows.get(i);
+                statement.bind(0, row.id()).bind(1, row.name()).bind(2, row.priceInCents());
+            }
+            return Flux.from(statement.execute()).flatMap(result -> result.getRowsUpdated());
+        }).reduce(0L, Long::sum);
+    }
+
+    /**
+     * Valida um produto do lote (mesmo formato de erros do ProductService)
+     */
+    private Map<String, String> validate(Product product) {
+        Map<String, String> errors = new HashMap<>();
+        if (product == null) {
+            errors.put("product", "O produto não pode ser nulo");
+            return errors;
+        }
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        for (ConstraintViolation<Product> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Um resultado da busca: o produto e a relevância usada no cursor
+     */
+    private record SearchResult(Product product, float rank) {
+    }
+
+    private static Product toProduct(Readable row) {
+        return new Product(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("price_in_cents", Integer.class),
+                row.get("version", Long.class));
+    }
+
+    private static <T> List<List<T>> partition(List<T> items, int size) {
+        List<List<T>> parts = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += size) {
+            parts.add(items.subList(start, Math.min(start + size, items.size())));
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.projeto_postgres.benchmark;
+
+import com.example.projeto_postgres.ProjetoPostgresApplication;
+import com.example.projeto_postgres.dto.ProductPage;
+import com.example.projeto_postgres.model.Product;
+import com.example.projeto_postgres.service.ProductService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark: ProductController (Spring MVC + JPA) x ReactiveProductController (WebFlux + R2DBC)
+ *
+ * Sobe um PostgreSQL embarcado e a aplicação duas vezes sobre o mesmo banco:
+ * primeiro no modo padrão (que também cria a tabela e a sequence), depois com o
+ * perfil "reactive". As duas recebem a mesma carga:
+ * - Leituras de página (GET /products?after=...&limit=20) a partir de cursores
+ *   aleatórios, que sempre vão ao banco nos dois modos (sem o cache do ProductService)
+ * - Cada cliente espera "thinkMs" entre as requisições, simulando muitos clientes
+ *   lentos mantendo conexões abertas
+ *
+ * Relata vazão, latências (p50/p99/p99.9) e o pico de threads da plataforma da JVM
+ * durante a carga: o Tomcat cresce até 200 threads, o Netty usa uma por núcleo.
+ * (Os clientes rodam em threads virtuais, que não entram nessa contagem.)
+ *
+ * Não é um teste (o nome não termina em Test/Tests, então o Maven não o executa).
+ * Rode pela IDE ou com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.projeto_postgres.benchmark.ServletVsReactiveBenchmark
+ *     -Dexec.args="2000 20 50"
+ *
+ * Argumentos: [clientes simultâneos] [segundos por modo] [pausa entre requisições em ms]
+ */
+public class ServletVsReactiveBenchmark {
+
+    private static final int SEED_PRODUCTS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        // O DevTools reiniciaria a aplicação em outra classloader ao subir pelo main()
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int thinkMs = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+
+        System.out.printf("clientes=%d, duração=%ds por modo, pausa=%dms%n", clients, seconds, thinkMs);
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.start()) {
+            String jdbcUrl = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+            String r2dbcUrl = "r2dbc:postgresql://localhost:" + postgres.getPort() + "/postgres";
+
+            run("servlet (Tomcat + JPA)", null, jdbcUrl, r2dbcUrl, true, clients, seconds, thinkMs);
+            run("reativo (Netty + R2DBC)", "reactive", jdbcUrl, r2dbcUrl, false, clients, seconds, thinkMs);
+        }
+    }
+
+    private static void run(String mode, String profile, String jdbcUrl, String r2dbcUrl, boolean seed,
+                            int clients, int seconds, int thinkMs) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(ProjetoPostgresApplication.class)
+                .properties(
+                        "server.port=0",
+                        // Todos os clientes saem do mesmo IP: a cota de listagem recusaria quase tudo com 429
+                        "app.ratelimit.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "spring.datasource.url=" + jdbcUrl,
+                        "spring.datasource.username=postgres",
+                        "spring.datasource.password=postgres",
+                        "spring.r2dbc.url=" + r2dbcUrl);
+        if (profile != null) {
+            builder.profiles(profile);
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            if (seed) {
+                ProductService productService = context.getBean(ProductService.class);
+                List<Product> products = IntStream.range(0, SEED_PRODUCTS)
+                        .mapToObj(i -> new Product(null, "Produto " + i, 1_000 + i, null))
+                        .toList();
+                productService.createProducts(products);
+            }
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            drive(base, clients, Duration.ofSeconds(seconds), thinkMs).print(mode);
+        }
+    }
+
+    private static Result drive(String base, int clients, Duration duration, int thinkMs) throws Exception {
+        Result result = new Result();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+
+            // Aquecimento: JIT e pools de conexão
+            for (int i = 0; i < 200; i++) {
+                http.send(HttpRequest.newBuilder(pageUri(base)).build(), HttpResponse.BodyHandlers.discarding());
+            }
+            threads.resetPeakThreadCount();
+
+            long deadline = System.nanoTime() + duration.toNanos();
+            List<Thread> workers = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                workers.add(Thread.ofVirtual().start(() -> {
+                    LongList latencies = new LongList();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            int status = http.send(HttpRequest.newBuilder(pageUri(base)).build(),
+                                    HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status == 200) {
+                                latencies.add(System.nanoTime() - start);
+                            } else {
+                                result.failed.incrementAndGet();
+                            }
+                            Thread.sleep(thinkMs);
+                        } catch (InterruptedException ex) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        } catch (Exception ex) {
+                            result.failed.incrementAndGet();
+                        }
+                    }
+                    result.latencies.add(latencies.toArray());
+                }));
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+        result.elapsedNanos = duration.toNanos();
+        result.peakThreads = threads.getPeakThreadCount();
+        return result;
+    }
+
+    private static URI pageUri(String base) {
+        long after = ThreadLocalRandom.current().nextLong(SEED_PRODUCTS);
+        return URI.create(base + "/products?limit=20&after=" + ProductPage.encodeCursor(after));
+    }
+
+    private static final class Result {
+        final ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        final AtomicLong failed = new AtomicLong();
+        long elapsedNanos;
+        int peakThreads;
+
+        void print(String mode) {
+            long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            System.out.printf("%n== %s ==%n", mode);
+            System.out.printf("vazão: %.0f req/s (falhas: %d)%n", all.length / (elapsedNanos / 1e9), failed.get());
+            System.out.printf("latência: p50=%.1fms p99=%.1fms p99.9=%.1fms%n",
+                    percentile(all, 50), percentile(all, 99), percentile(all, 99.9));
+            System.out.printf("pico de threads da plataforma: %d%n", peakThreads);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    /**
+     * Lista de long sem boxing (evita criar um objeto Long por medição)
+     */
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
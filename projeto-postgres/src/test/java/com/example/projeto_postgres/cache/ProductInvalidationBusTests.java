@@ -0,0 +1,98 @@
+package com.example.projeto_postgres.cache;
+
+import com.example.projeto_postgres.model.Product;
+import com.example.projeto_postgres.service.ProductService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class ProductInvalidationBusTests {
+
+	private static EmbeddedPostgres postgres;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private ProductCache productCache;
+
+	@Autowired
+	private ProductInvalidationBus invalidationBus;
+
+	@Autowired
+	private ProductInvalidationListener invalidationListener;
+
+	@Autowired
+	private DataSource dataSource;
+
+	@DynamicPropertySource
+	static void postgresProperties(DynamicPropertyRegistry registry) throws IOException {
+		postgres = EmbeddedPostgres.start();
+		registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+		registry.add("spring.datasource.username", () -> "postgres");
+		registry.add("spring.datasource.password", () -> "postgres");
+	}
+
+	@AfterAll
+	static void stopPostgres() throws IOException {
+		postgres.close();
+	}
+
+	@BeforeEach
+	void awaitListener() throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!invalidationListener.isListening() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		assertTrue(invalidationListener.isListening());
+	}
+
+	@Test
+	void evictsProductWhenAnotherNodeNotifies() throws InterruptedException {
+		Product product = productService.createProduct(new Product(null, "Notebook", 250000, null));
+		productService.getProductById(product.getId());
+		assertNotNull(productCache.getIfPresent(product.getId()));
+
+		// Simula o NOTIFY enviado por outro nó após um UPDATE
+		new JdbcTemplate(dataSource).query("SELECT pg_notify(?, ?)", rs -> { },
+				invalidationBus.getChannel(), "outro-no:" + product.getId());
+
+		assertNull(awaitEviction(product.getId()));
+	}
+
+	@Test
+	void keepsFreshEntryAfterItsOwnNotification() throws InterruptedException {
+		Product product = productService.createProduct(new Product(null, "Mouse", 5000, null));
+		productService.updateProduct(product.getId(), new Product(null, "Mouse sem fio", 7000, null));
+
+		// O NOTIFY deste nó também chega ao seu LISTEN, mas deve ser ignorado
+		Thread.sleep(500);
+		Product cached = productCache.getIfPresent(product.getId());
+		assertNotNull(cached);
+		assertEquals("Mouse sem fio", cached.getName());
+	}
+
+	private Product awaitEviction(Long id) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (productCache.getIfPresent(id) != null && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+		return productCache.getIfPresent(id);
+	}
+
+}
@@ -0,0 +1,358 @@
+// Declaração do pacote - organiza a classe no pacote de análises em memória
+package com.example.projeto_test.analytics;
+
+// Importa a entidade Product (usada apenas para receber id e preço) e o DTO do resultado
+import com.example.projeto_test.dto.ProductPriceRange;
+import com.example.projeto_test.model.Product;
+
+// Importa o Micrometer para publicar o tamanho das colunas no Actuator (/actuator/prometheus)
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Importa @Component para registrar a classe como um bean do Spring
+import org.springframework.stereotype.Component;
+
+// Importa as classes de sincronização de transação do Spring
+// Permitem executar código somente DEPOIS que a transação for confirmada (commit)
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Cópia Colunar dos Preços em Memória (análises sem ir ao banco)
+ * 
+ * Guarda SOMENTE o id e o preço de cada produto, em dois arrays primitivos
+ * paralelos (ids[i] custa prices[i]), ordenados por id:
+ * - Sem objetos Product e sem boxing: 12 bytes por produto
+ *   (10 milhões de produtos ≈ 120 MB, contra vários GB em entidades)
+ * - O int[] de preços é varrido sequencialmente, na velocidade da memória,
+ *   com instruções SIMD (Vector API) e em paralelo (fork/join) acima de
+ *   1 milhão de produtos (veja PriceKernels)
+ * 
+ * RESPONDE:
+ * - summarize(min, max): quantidade, soma, menor e maior preço na faixa
+ * - idsInRange(min, max, limit): ids dos produtos com preço na faixa
+ * 
+ * ATUALIZAÇÃO INCREMENTAL:
+ * - Carregada na subida a partir do banco (ProductIndexLoader)
+ * - Mantida pelo ProductService (create/update/delete), sempre DEPOIS do commit
+ * - Alteração de preço: busca binária pelo id e troca do valor no lugar
+ * - Criação: ids novos são maiores que os existentes (sequence), então vão para o fim
+ *   do array; ids fora de ordem (blocos de outros nós) são intercalados em uma cópia
+ * - Exclusão: o preço vira DELETED (0, nunca é um preço válido) e a posição é
+ *   reaproveitada na compactação, quando os excluídos passam de 1/4 do array
+ * 
+ * CONCORRÊNCIA:
+ * - Várias consultas rodam juntas (read lock); uma escrita espera as consultas em
+ *   andamento (write lock). As consultas levam milissegundos e as escritas,
+ *   microssegundos (exceto intercalação e compactação, que copiam o array)
+ */
+@Component // Registra como bean do Spring (uma única cópia por aplicação)
+public class ProductPriceAnalytics implements MeterBinder {
+
+    /**
+     * Preço das posições excluídas (os preços válidos são positivos: @Positive)
+     */
+    private static final int DELETED = 0;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Colunas (alteradas somente com o write lock)
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] prices = new int[INITIAL_CAPACITY];
+
+    /**
+     * Posições ocupadas de ids/prices (inclui as excluídas)
+     */
+    private int size;
+
+    /**
+     * Posições excluídas (preço DELETED) ainda não compactadas
+     */
+    private int deleted;
+
+    /**
+     * Quantidade, soma, menor e maior preço dos produtos com preço em [minInCents, maxInCents]
+     * 
+     * @param minInCents Menor preço da faixa (incluído)
+     * @param maxInCents Maior preço da faixa (incluído)
+     * @return O resumo da faixa (min/max null se nenhum produto estiver na faixa)
+     */
+    public ProductPriceRange summarize(int minInCents, int maxInCents) {
+        // As posições excluídas (preço 0) nunca entram na faixa
+        int min = Math.max(minInCents, DELETED + 1);
+        lock.readLock().lock();
+        try {
+            PriceKernels.Summary summary = min > maxInCents
+                    ? PriceKernels.Summary.EMPTY
+                    : PriceKernels.summarizeParallel(prices, 0, size, min, maxInCents);
+            return summary.count() == 0
+                    ? new ProductPriceRange(0, 0, null, null, null)
+                    : new ProductPriceRange(summary.count(), summary.sum(), summary.min(), summary.max(),
+                            (double) summary.sum() / summary.count());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids (em ordem crescente) dos produtos com preço em [minInCents, maxInCents]
+     * 
+     * A varredura para assim que "limit" ids forem encontrados.
+     * 
+     * @param minInCents Menor preço da faixa (incluído)
+     * @param maxInCents Maior preço da faixa (incluído)
+     * @param limit Quantidade máxima de ids
+     * @return Os ids encontrados
+     */
+    public long[] idsInRange(int minInCents, int maxInCents, int limit) {
+        int min = Math.max(minInCents, DELETED + 1);
+        if (min > maxInCents) {
+            return new long[0];
+        }
+        long[] out = new long[limit];
+        lock.readLock().lock();
+        try {
+            int found = PriceKernels.filter(ids, prices, 0, size, min, maxInCents, out);
+            return found == limit ? out : Arrays.copyOf(out, found);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adiciona ou atualiza o preço dos produtos imediatamente (carga inicial, em blocos)
+     * 
+     * @param products Os produtos (só id e priceInCents são lidos)
+     */
+    public void putAll(Collection<Product> products) {
+        // Ordena o lote por id para procurar e intercalar em uma única passada
+        long[] newIds = new long[products.size()];
+        int[] newPrices = new int[products.size()];
+        Product[] sorted = products.toArray(Product[]::new);
+        Arrays.sort(sorted, (a, b) -> Long.compare(a.getId(), b.getId()));
+        for (int i = 0; i < sorted.length; i++) {
+            newIds[i] = sorted[i].getId();
+            newPrices[i] = sorted[i].getPriceInCents();
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Produtos já presentes: troca o preço no lugar; os demais seguem para inserção
+            int inserted = 0;
+            for (int i = 0; i < newIds.length; i++) {
+                int position = Arrays.binarySearch(ids, 0, size, newIds[i]);
+                if (position >= 0) {
+                    if (prices[position] == DELETED) {
+                        deleted--;
+                    }
+                    prices[position] = newPrices[i];
+                } else if (inserted == 0 || newIds[inserted - 1] != newIds[i]) {
+                    newIds[inserted] = newIds[i];
+                    newPrices[inserted++] = newPrices[i];
+                } else {
+                    // Mesmo id repetido no lote: vale o último preço
+                    newPrices[inserted - 1] = newPrices[i];
+                }
+            }
+            insert(newIds, newPrices, inserted);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove um produto imediatamente
+     * 
+     * @param id O id do produto
+     */
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0 && prices[position] != DELETED) {
+                prices[position] = DELETED;
+                deleted++;
+                if (deleted > size / 4) {
+                    compact();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adiciona ou atualiza os produtos depois que a transação atual for confirmada
+     * 
+     * Usado pelo createProduct, createProducts, updateProduct e patchProduct.
+     * 
+     * @param products Os produtos criados ou alterados
+     */
+    public void putAfterCommit(Collection<Product> products) {
+        // Guarda só id e preço: a entidade pode ser alterada ou desanexada até o commit
+        Product[] copies = new Product[products.size()];
+        int i = 0;
+        for (Product product : products) {
+            copies[i++] = new Product(product.getId(), null, product.getPriceInCents(), null);
+        }
+        afterCommit(() -> putAll(Arrays.asList(copies)));
+    }
+
+    /**
+     * Remove o produto depois que a transação atual for confirmada
+     * 
+     * Usado pelo deleteProduct.
+     * 
+     * @param id O id do produto removido
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Quantidade de produtos nas colunas (sem os excluídos)
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size - deleted;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Memória usada pelas colunas, em bytes (inclui a capacidade reservada)
+     */
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) ids.length * Long.BYTES + (long) prices.length * Integer.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * true se as varreduras usam a Vector API (JVM iniciada com --add-modules jdk.incubator.vector)
+     */
+    public boolean isVectorized() {
+        return PriceKernels.VECTOR;
+    }
+
+    /**
+     * Publica o tamanho das colunas no Micrometer (chamado pelo Spring Boot)
+     * 
+     * - app.products.analytics.size: produtos nas colunas
+     * - app.products.analytics.bytes: memória dos arrays
+     * 
+     * @param registry O registro de métricas da aplicação
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.products.analytics.size", this, ProductPriceAnalytics::size)
+                .description("Produtos na cópia colunar de preços")
+                .register(registry);
+        Gauge.builder("app.products.analytics.bytes", this, ProductPriceAnalytics::estimatedBytes)
+                .description("Memória da cópia colunar de preços")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Insere os "count" primeiros ids (ordenados, ausentes das colunas) e seus preços
+     * 
+     * Se todos forem maiores que o último id (o caso comum), são copiados para o fim.
+     * Senão, as colunas são intercaladas com eles em arrays novos.
+     */
+    private void insert(long[] newIds, int[] newPrices, int count) {
+        if (count == 0) {
+            return;
+        }
+        if (size == 0 || newIds[0] > ids[size - 1]) {
+            ensureCapacity(size + count);
+            System.arraycopy(newIds, 0, ids, size, count);
+            System.arraycopy(newPrices, 0, prices, size, count);
+            size += count;
+            return;
+        }
+        int capacity = grownCapacity(size + count);
+        long[] mergedIds = new long[capacity];
+        int[] mergedPrices = new int[capacity];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < size || j < count) {
+            if (j == count || (i < size && ids[i] < newIds[j])) {
+                mergedIds[k] = ids[i];
+                mergedPrices[k++] = prices[i++];
+            } else {
+                mergedIds[k] = newIds[j];
+                mergedPrices[k++] = newPrices[j++];
+            }
+        }
+        ids = mergedIds;
+        prices = mergedPrices;
+        size = k;
+    }
+
+    /**
+     * Remove as posições excluídas, movendo as demais para a frente (no próprio array)
+     */
+    private void compact() {
+        int k = 0;
+        for (int i = 0; i < size; i++) {
+            if (prices[i] != DELETED) {
+                ids[k] = ids[i];
+                prices[k++] = prices[i];
+            }
+        }
+        size = k;
+        deleted = 0;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > ids.length) {
+            int capacity = grownCapacity(required);
+            ids = Arrays.copyOf(ids, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+        }
+    }
+
+    /**
+     * Capacidade para caber "required" posições: a atual, se já couber;
+     * senão 1,5x a atual, ou o necessário se for maior
+     */
+    private int grownCapacity(int required) {
+        if (required <= ids.length) {
+            return ids.length;
+        }
+        return Math.max(required, ids.length + (ids.length >> 1));
+    }
+
+    /**
+     * Executa a ação após o commit da transação atual
+     * 
+     * Se não houver transação ativa, executa imediatamente.
+     * Se a transação sofrer rollback, a ação NÃO é executada.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
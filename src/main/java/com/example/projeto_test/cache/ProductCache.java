@@ -0,0 +1,208 @@
+// Declaração do pacote - organiza a classe no pacote de cache
+package com.example.projeto_test.cache;
+
+// Importa a entidade Product que será guardada no cache
+import com.example.projeto_test.model.Product;
+
+// Importa o Caffeine, biblioteca de cache em memória de alta performance
+// Cache: o cache em si (mapa chave → valor com limite de tamanho e expiração)
+// Caffeine: builder para configurar o cache
+// CacheStats: contadores de acertos (hits), falhas (misses) e remoções (evictions)
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+// Importa o Micrometer para publicar os contadores do cache no Actuator (/actuator/prometheus)
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Importa @Value para ler as configurações do application.properties
+import org.springframework.beans.factory.annotation.Value;
+
+// Importa @Component para registrar a classe como um bean do Spring
+import org.springframework.stereotype.Component;
+
+// Importa as classes de sincronização de transação do Spring
+// Permitem executar código somente DEPOIS que a transação for confirmada (commit)
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Cache de Produtos em Memória (read-through)
+ * 
+ * Cerca de 5% dos produtos recebem 90% das leituras. Sem cache, cada
+ * GET /products/{id} vai ao banco, mesmo para os produtos mais acessados.
+ * 
+ * Este cache fica na frente do productRepository.findViewById():
+ * - Se o produto estiver no cache (hit): devolve em microssegundos, sem ir ao banco
+ * - Se não estiver (miss): busca no banco, guarda no cache e devolve
+ * 
+ * POR QUE CAFFEINE?
+ * - Usa a política W-TinyLFU: considera a FREQUÊNCIA de acesso, não só o acesso recente
+ * - Um produto acessado uma única vez (ex: varredura) não expulsa os produtos "quentes"
+ * - Tamanho máximo limitado: o consumo de memória (heap) tem teto
+ * - Expiração por tempo (TTL): dados antigos não ficam para sempre
+ * - Contadores de hit/miss/eviction para monitoramento
+ * 
+ * CONSISTÊNCIA:
+ * - updateProduct/deleteProduct atualizam ou removem a entrada somente DEPOIS do commit
+ * - Assim, um rollback não deixa no cache um valor que nunca existiu no banco
+ * - O TTL limita por quanto tempo uma leitura concorrente com a escrita pode ficar desatualizada
+ * 
+ * IMPORTANTE: o cache guarda CÓPIAS desanexadas (detached) das entidades,
+ * que são compartilhadas entre requisições. Quem ler do cache não deve alterá-las.
+ * 
+ * MÉTRICAS: por implementar MeterBinder, o Spring Boot registra automaticamente
+ * os contadores do cache no Micrometer (cache.gets, cache.puts, cache.evictions...
+ * com a tag cache="products").
+ */
+@Component // Registra como bean do Spring (singleton: um único cache por aplicação)
+public class ProductCache implements MeterBinder {
+
+    /**
+     * O cache propriamente dito: id do produto → cópia do produto
+     */
+    private final Cache<Long, Product> cache;
+
+    /**
+     * Cria o cache com as configurações do application.properties
+     * 
+     * @param maximumSize Quantidade máxima de produtos no cache
+     * @param ttl Tempo de vida de cada entrada depois de escrita
+     */
+    public ProductCache(
+            @Value("${app.products.cache.maximum-size:10000}") long maximumSize,
+            @Value("${app.products.cache.ttl:10m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize) // Limite de tamanho (política W-TinyLFU)
+                .expireAfterWrite(ttl) // Expira a entrada após o TTL
+                .recordStats() // Habilita os contadores de hit/miss/eviction
+                .build();
+    }
+
+    /**
+     * Busca um produto no cache ou, se não estiver lá, no "loader" (banco)
+     * 
+     * Se várias requisições pedirem o mesmo id ao mesmo tempo, apenas UMA vai ao banco;
+     * as outras esperam e recebem o mesmo resultado.
+     * 
+     * @param id O ID do produto
+     * @param loader Função que busca o produto no banco (retorna null se não existir)
+     * @return O produto, ou null se ele não existir (ausências não são guardadas)
+     */
+    public Product get(Long id, Function<Long, Product> loader) {
+        return cache.get(id, key -> {
+            Product product = loader.apply(key);
+            return product == null ? null : copyOf(product);
+        });
+    }
+
+    /**
+     * Busca um produto somente no cache (sem ir ao banco)
+     * 
+     * @param id O ID do produto
+     * @return O produto, ou null se não estiver no cache
+     */
+    public Product getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * Atualiza a entrada do produto depois que a transação atual for confirmada
+     * 
+     * Usado pelo updateProduct: os leitores seguintes recebem o valor novo
+     * sem precisar ir ao banco.
+     * 
+     * @param product O produto atualizado
+     */
+    public void putAfterCommit(Product product) {
+        // A cópia é feita somente após o commit, quando o flush já foi executado
+        afterCommit(() -> cache.put(product.getId(), copyOf(product)));
+    }
+
+    /**
+     * Remove a entrada do produto depois que a transação atual for confirmada
+     * 
+     * Usado pelo deleteProduct.
+     * 
+     * @param id O ID do produto removido
+     */
+    public void evictAfterCommit(Long id) {
+        afterCommit(() -> cache.invalidate(id));
+    }
+
+    /**
+     * Remove uma entrada imediatamente
+     * 
+     * @param id O ID do produto
+     */
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Remove TODAS as entradas imediatamente
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Contadores do cache: hits, misses, evictions, tempo de carga, etc.
+     * 
+     * Exemplo: stats().hitRate() = 0.92 significa que 92% das leituras não foram ao banco
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Publica os contadores do cache no Micrometer (chamado pelo Spring Boot)
+     * 
+     * @param registry O registro de métricas da aplicação
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "products");
+    }
+
+    /**
+     * Quantidade aproximada de produtos no cache
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Executa a ação após o commit da transação atual
+     * 
+     * Se não houver transação ativa, executa imediatamente.
+     * Se a transação sofrer rollback, a ação NÃO é executada.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Cria uma cópia desanexada do produto
+     * 
+     * O cache não pode guardar a entidade gerenciada pelo JPA: ela pertence ao
+     * contexto de persistência de uma requisição e poderia ser alterada por ela.
+     */
+    private static Product copyOf(Product product) {
+        return new Product(product.getId(), product.getName(), product.getPriceInCents(), product.getVersion());
+    }
+}
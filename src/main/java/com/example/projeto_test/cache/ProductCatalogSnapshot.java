@@ -0,0 +1,349 @@
+// Declaração do pacote - organiza a classe no pacote de cache
+package com.example.projeto_test.cache;
+
+// Importa o Micrometer para publicar acertos, reconstruções e tamanho no Actuator
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Importa @Value para ler o limite de tamanho do application.properties
+import org.springframework.beans.factory.annotation.Value;
+
+// Importa @Component para registrar a classe como um bean do Spring
+import org.springframework.stereotype.Component;
+
+// Importa as classes de sincronização de transação do Spring
+// Permitem executar código somente DEPOIS que a transação for confirmada (commit)
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Snapshot Pré-Comprimido do Catálogo Completo (GET /products/export)
+ *
+ * Sem o snapshot, cada exportação lê a tabela inteira, serializa cada produto e
+ * (com a compressão do Tomcat ligada) comprime tudo de novo, mesmo que nada
+ * tenha mudado desde a exportação anterior.
+ *
+ * Aqui o NDJSON do catálogo comprimido em gzip fica guardado em um byte[]. As
+ * exportações seguintes escrevem esse buffer na resposta (Content-Encoding:
+ * gzip), sem consulta, serialização ou compressão.
+ *
+ * CONSTRUÇÃO (sem trabalho extra e sem espera):
+ * - O snapshot nasce de uma exportação em streaming que já estava acontecendo:
+ *   o gzip enviado ao cliente é copiado (tee) para o buffer ao mesmo tempo
+ * - Nenhuma requisição espera pela construção: sem snapshot pronto, todas
+ *   recebem o streaming normal desde o primeiro byte
+ * - Só uma exportação por vez copia para o buffer; as demais apenas transmitem
+ * - Só exportações de clientes que aceitam gzip constroem o snapshot (as outras
+ *   não produzem o gzip que seria copiado)
+ *
+ * ATUALIZAÇÃO:
+ * - O ProductService invalida o snapshot depois do commit de cada criação,
+ *   alteração e exclusão
+ * - Se uma escrita acontecer durante a construção, o resultado não é guardado
+ *   (já nasceu desatualizado); a exportação em si não é afetada
+ *
+ * MEMÓRIA:
+ * Se o gzip passa de "app.products.snapshot.max-size", a cópia é descartada na
+ * hora (a exportação segue normalmente) e novas tentativas ficam suspensas por
+ * "app.products.snapshot.too-large-retry", mesmo que haja escritas nesse meio
+ * tempo: um catálogo grande raramente encolhe a ponto de caber.
+ */
+@Component // Registra como bean do Spring (um único snapshot por aplicação)
+public class ProductCatalogSnapshot implements MeterBinder {
+
+    /**
+     * Catálogo em NDJSON comprimido com gzip
+     *
+     * @param gzip Os bytes comprimidos (NÃO altere: o array é compartilhado entre requisições)
+     * @param products Quantidade de produtos no snapshot
+     */
+    public record Snapshot(byte[] gzip, long products) {
+    }
+
+    /**
+     * Snapshot guardado junto com a geração em que foi construído
+     */
+    private record Stored(Snapshot snapshot, long generation) {
+    }
+
+    private final long maxBytes;
+    private final long tooLargeRetryNanos;
+
+    /**
+     * Incrementada a cada invalidação; um snapshot só vale para a geração em que
+     * a sua construção começou
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Há uma exportação copiando o gzip para um novo snapshot
+     */
+    private final AtomicBoolean building = new AtomicBoolean();
+
+    private volatile Stored stored;
+
+    /**
+     * Até quando (System.nanoTime) não se tenta construir de novo, depois que o
+     * catálogo passou do limite
+     */
+    private volatile long tooLargeUntil;
+    private volatile boolean tooLarge;
+
+    // Contadores publicados no Micrometer
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder rebuildNanos = new LongAdder();
+
+    /**
+     * @param maxSize Tamanho máximo do snapshot comprimido
+     * @param tooLargeRetry Intervalo sem novas tentativas depois que o catálogo passou de maxSize
+     */
+    public ProductCatalogSnapshot(@Value("${app.products.snapshot.max-size:32MB}") DataSize maxSize,
+                                  @Value("${app.products.snapshot.too-large-retry:10m}") Duration tooLargeRetry) {
+        this.maxBytes = maxSize.toBytes();
+        this.tooLargeRetryNanos = tooLargeRetry.toNanos();
+    }
+
+    /**
+     * Devolve o snapshot pronto, sem esperar nem construir nada
+     *
+     * @return O snapshot, ou null se alguma escrita o invalidou (a exportação
+     *         deve ser gerada em streaming, de preferência por um Build)
+     */
+    public Snapshot current() {
+        Stored current = stored;
+        if (current != null && current.generation() == generation.get()) {
+            hits.increment();
+            return current.snapshot();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Reserva a construção do próximo snapshot para uma exportação em streaming
+     *
+     * @return O Build, ou null se outra exportação já está construindo ou se o
+     *         catálogo passou do limite há pouco tempo (basta transmitir)
+     */
+    public Build startBuild() {
+        if (tooLarge && System.nanoTime() - tooLargeUntil < 0) {
+            return null;
+        }
+        if (!building.compareAndSet(false, true)) {
+            return null;
+        }
+        return new Build(generation.get());
+    }
+
+    /**
+     * Descarta o snapshot imediatamente
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        stored = null;
+    }
+
+    /**
+     * Descarta o snapshot depois que a transação atual for confirmada
+     *
+     * Usado pelo createProduct, createProducts, updateProduct, patchProduct e deleteProduct.
+     */
+    public void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    /**
+     * Diz se o cabeçalho Accept-Encoding aceita gzip (ignora "gzip;q=0")
+     *
+     * @param acceptEncoding O valor do cabeçalho (pode ser null)
+     */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(parameter.substring(2)) == 0;
+                    } catch (NumberFormatException ex) {
+                        rejected = true;
+                    }
+                }
+            }
+            if (!rejected) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Publica as métricas do snapshot no Micrometer (chamado pelo Spring Boot)
+     *
+     * - app.products.snapshot.requests{result="hit" | "miss"}: exportações servidas
+     *   pelo snapshot pronto ou geradas em streaming
+     * - app.products.snapshot.hit-ratio: acertos / exportações
+     * - app.products.snapshot.rebuild: quantidade e tempo das exportações que
+     *   geraram um snapshot guardado
+     * - app.products.snapshot.bytes: tamanho do snapshot atual (comprimido)
+     *
+     * @param registry O registro de métricas da aplicação
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("app.products.snapshot.requests", hits, LongAdder::sum)
+                .description("Exportações do catálogo por resultado no snapshot")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("app.products.snapshot.requests", misses, LongAdder::sum)
+                .description("Exportações do catálogo por resultado no snapshot")
+                .tag("result", "miss")
+                .register(registry);
+        Gauge.builder("app.products.snapshot.hit-ratio", this, ProductCatalogSnapshot::hitRatio)
+                .description("Fração das exportações servidas pelo snapshot pronto")
+                .register(registry);
+        FunctionTimer.builder("app.products.snapshot.rebuild", this,
+                        snapshot -> snapshot.rebuilds.sum(), snapshot -> snapshot.rebuildNanos.sum(),
+                        TimeUnit.NANOSECONDS)
+                .description("Reconstruções do snapshot do catálogo")
+                .register(registry);
+        Gauge.builder("app.products.snapshot.bytes", this, ProductCatalogSnapshot::currentBytes)
+                .description("Tamanho do snapshot comprimido do catálogo")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private long currentBytes() {
+        Stored current = stored;
+        return current == null ? 0 : current.snapshot().gzip().length;
+    }
+
+    /**
+     * Construção de um snapshot a partir de uma exportação em streaming
+     *
+     * Criado na thread da exportação, quando ela começa a escrever: o gzip é
+     * escrito em tee(outputStream), countProduct() é chamado a cada produto e
+     * complete() depois de fechar o gzip. O close() (em um finally) libera a reserva; o snapshot só é guardado se complete() foi
+     * chamado (a exportação chegou ao fim, com o rodapé do gzip) e nenhuma
+     * escrita aconteceu desde o startBuild().
+     */
+    public final class Build implements AutoCloseable {
+
+        private final long startGeneration;
+        private final long start = System.nanoTime();
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        private long products;
+        private boolean completed;
+
+        private Build(long startGeneration) {
+            this.startGeneration = startGeneration;
+        }
+
+        /**
+         * Envolve a saída da resposta: tudo o que for escrito nela também vai para o snapshot
+         */
+        public OutputStream tee(OutputStream response) {
+            return new FilterOutputStream(response) {
+                @Override
+                public void write(int b) throws IOException {
+                    out.write(b);
+                    copy(new byte[] {(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    out.write(bytes, offset, length);
+                    copy(bytes, offset, length);
+                }
+            };
+        }
+
+        /**
+         * Conta um produto escrito na exportação
+         */
+        public void countProduct() {
+            products++;
+        }
+
+        /**
+         * A exportação chegou ao fim e o gzip foi fechado
+         */
+        public void complete() {
+            completed = true;
+        }
+
+        private void copy(byte[] bytes, int offset, int length) {
+            if (buffer == null) {
+                return;
+            }
+            if (buffer.size() + (long) length > maxBytes) {
+                // Passou do limite: a cópia é descartada, a resposta continua
+                buffer = null;
+                tooLargeUntil = System.nanoTime() + tooLargeRetryNanos;
+                tooLarge = true;
+                return;
+            }
+            buffer.write(bytes, offset, length);
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (!completed || buffer == null) {
+                    return;
+                }
+                tooLarge = false;
+                if (generation.get() != startGeneration) {
+                    return;
+                }
+                rebuilds.increment();
+                rebuildNanos.add(System.nanoTime() - start);
+                // Uma invalidação depois desta linha muda a geração, e o current() ignora o snapshot
+                stored = new Stored(new Snapshot(buffer.toByteArray(), products), startGeneration);
+                buffer = null;
+            } finally {
+                building.set(false);
+            }
+        }
+    }
+}
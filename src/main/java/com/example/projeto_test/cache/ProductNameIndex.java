@@ -0,0 +1,382 @@
+// Declaração do pacote - organiza a classe no pacote de cache
+package com.example.projeto_test.cache;
+
+// Importa a entidade Product e o DTO devolvido nas sugestões
+import com.example.projeto_test.dto.ProductSuggestion;
+import com.example.projeto_test.model.Product;
+
+// Importa o Micrometer para publicar o tamanho do índice no Actuator (/actuator/prometheus)
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Importa @Component para registrar a classe como um bean do Spring
+import org.springframework.stereotype.Component;
+
+// Importa as classes de sincronização de transação do Spring
+// Permitem executar código somente DEPOIS que a transação for confirmada (commit)
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de Prefixos dos Nomes dos Produtos (search-as-you-type)
+ * 
+ * A cada tecla digitada, o cliente chama GET /products/suggest?prefix=cad.
+ * Ir ao banco a cada tecla custaria uma consulta por caractere; aqui a busca
+ * é feita em memória, em microssegundos.
+ * 
+ * ESTRUTURA:
+ * - Cada nome é separado em termos (palavras normalizadas: minúsculas, sem acento)
+ *   "Cadeira Gamer Azul" → "cadeira", "gamer", "azul"
+ * - terms: termo → ids dos produtos com esse termo (long[] ordenado)
+ *   Os termos ficam ORDENADOS (skip list), então todos os termos que começam
+ *   com "cad" estão lado a lado: basta percorrer a faixa a partir de "cad"
+ * - names: id → nome original (o que é devolvido na sugestão)
+ * 
+ * MEMÓRIA:
+ * - Cada termo é guardado UMA vez, não importa quantos produtos o usem
+ *   ("cadeira" em 100 mil produtos = uma String + um long[] de 100 mil ids)
+ * - Cada ocorrência de um termo custa 8 bytes (um long no array de ids)
+ * - O custo por produto é publicado em app.products.suggest.bytes-per-product
+ * 
+ * ATUALIZAÇÃO:
+ * - Carregado na subida a partir do banco (ProductIndexLoader)
+ * - Mantido atualizado pelo ProductService (create/update/delete), sempre
+ *   DEPOIS do commit, como o ProductCache
+ * - Leituras não usam lock; as escritas são serializadas (são muito mais raras)
+ */
+@Component // Registra como bean do Spring (um único índice por aplicação)
+public class ProductNameIndex implements MeterBinder {
+
+    /**
+     * Separa o nome em termos (tudo que não é letra ou número separa palavras)
+     */
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Acentos e outros sinais que o Normalizer separa das letras ("é" → "e" + "´")
+     */
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Estimativas de memória da JVM de 64 bits (com compressed oops), em bytes
+     * - Termo: nó da skip list + String + array de bytes + cabeçalho do long[]
+     * - Produto: nó do ConcurrentHashMap + Long + String + array de bytes
+     */
+    private static final int TERM_OVERHEAD_BYTES = 100;
+    private static final int PRODUCT_OVERHEAD_BYTES = 95;
+
+    private final ConcurrentSkipListMap<String, long[]> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> names = new ConcurrentHashMap<>();
+
+    /**
+     * Serializa as escritas (ReentrantLock não prende a thread virtual à thread do SO)
+     */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Contadores para a estimativa de memória (alterados somente com o writeLock)
+    private volatile long termCount;
+    private volatile long termChars;
+    private volatile long postingCount;
+    private volatile long nameChars;
+
+    /**
+     * Sugere produtos cujo nome tem uma palavra começando com o prefixo
+     * 
+     * Com mais de uma palavra ("cadeira ga"), as palavras completas precisam
+     * existir no nome e a ÚLTIMA é tratada como prefixo: "Cadeira Gamer" aparece.
+     * 
+     * @param prefix O texto digitado até agora
+     * @param limit Quantidade máxima de sugestões
+     * @return As sugestões, em ordem alfabética do termo encontrado
+     */
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        List<String> words = terms(prefix);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        String last = words.getLast();
+        List<String> complete = words.subList(0, words.size() - 1);
+
+        Set<Long> ids = new LinkedHashSet<>();
+        if (complete.isEmpty()) {
+            // Uma palavra só: percorre os termos que começam com o prefixo
+            for (long[] postings : terms.subMap(last, true, last + Character.MAX_VALUE, false).values()) {
+                for (long id : postings) {
+                    if (ids.add(id) && ids.size() == limit) {
+                        return toSuggestions(ids);
+                    }
+                }
+            }
+        } else {
+            // Várias palavras: parte dos produtos da primeira palavra completa e
+            // confere as demais no nome de cada um
+            long[] candidates = terms.getOrDefault(complete.getFirst(), new long[0]);
+            for (long id : candidates) {
+                String name = names.get(id);
+                if (name != null && matches(name, complete, last) && ids.add(id) && ids.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return toSuggestions(ids);
+    }
+
+    /**
+     * Adiciona ou atualiza produtos imediatamente (usado na carga inicial, em blocos)
+     * 
+     * Os ids novos de cada termo são juntados e inseridos de uma vez: o array
+     * de um termo comum é copiado uma vez por bloco, não uma vez por produto.
+     * 
+     * @param products Os produtos a indexar
+     */
+    public void putAll(Collection<Product> products) {
+        writeLock.lock();
+        try {
+            Map<String, List<Long>> added = new HashMap<>();
+            for (Product product : products) {
+                String previous = names.put(product.getId(), product.getName());
+                if (product.getName().equals(previous)) {
+                    continue;
+                }
+                if (previous != null) {
+                    nameChars -= previous.length();
+                    for (String term : new HashSet<>(terms(previous))) {
+                        removePosting(term, product.getId());
+                    }
+                }
+                nameChars += product.getName().length();
+                for (String term : new HashSet<>(terms(product.getName()))) {
+                    added.computeIfAbsent(term, key -> new ArrayList<>()).add(product.getId());
+                }
+            }
+            added.forEach((term, ids) -> addPostings(term, ids.stream().mapToLong(Long::longValue).sorted().toArray()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Remove um produto imediatamente
+     * 
+     * @param id O id do produto
+     */
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            String previous = names.remove(id);
+            if (previous != null) {
+                nameChars -= previous.length();
+                for (String term : new HashSet<>(terms(previous))) {
+                    removePosting(term, id);
+                }
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adiciona ou atualiza os produtos depois que a transação atual for confirmada
+     * 
+     * Usado pelo createProduct, createProducts, updateProduct e patchProduct.
+     * 
+     * @param products Os produtos criados ou alterados
+     */
+    public void putAfterCommit(Collection<Product> products) {
+        // Guarda só id e nome: a entidade pode ser alterada ou desanexada até o commit
+        List<Product> copies = new ArrayList<>(products.size());
+        for (Product product : products) {
+            copies.add(new Product(product.getId(), product.getName(), null, null));
+        }
+        afterCommit(() -> putAll(copies));
+    }
+
+    /**
+     * Remove o produto depois que a transação atual for confirmada
+     * 
+     * Usado pelo deleteProduct.
+     * 
+     * @param id O id do produto removido
+     */
+    public void removeAfterCommit(Long id) {
+        afterCommit(() -> remove(id));
+    }
+
+    /**
+     * Quantidade de produtos no índice
+     */
+    public int size() {
+        return names.size();
+    }
+
+    /**
+     * Memória aproximada usada pelo índice, em bytes
+     */
+    public long estimatedBytes() {
+        return termCount * TERM_OVERHEAD_BYTES + termChars
+                + postingCount * Long.BYTES
+                + names.size() * (long) PRODUCT_OVERHEAD_BYTES + nameChars;
+    }
+
+    /**
+     * Publica o tamanho do índice no Micrometer (chamado pelo Spring Boot)
+     * 
+     * - app.products.suggest.size: produtos no índice
+     * - app.products.suggest.terms: termos distintos
+     * - app.products.suggest.bytes: memória aproximada
+     * - app.products.suggest.bytes-per-product: memória aproximada por produto
+     * 
+     * @param registry O registro de métricas da aplicação
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.products.suggest.size", this, ProductNameIndex::size)
+                .description("Produtos no índice de sugestões")
+                .register(registry);
+        Gauge.builder("app.products.suggest.terms", this, index -> index.termCount)
+                .description("Termos distintos no índice de sugestões")
+                .register(registry);
+        Gauge.builder("app.products.suggest.bytes", this, ProductNameIndex::estimatedBytes)
+                .description("Memória aproximada do índice de sugestões")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("app.products.suggest.bytes-per-product", this,
+                        index -> index.size() == 0 ? 0 : (double) index.estimatedBytes() / index.size())
+                .description("Memória aproximada do índice de sugestões por produto")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Separa um texto em termos normalizados ("Cadeira Gamér" → ["cadeira", "gamer"])
+     */
+    static List<String> terms(String text) {
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> result = new ArrayList<>();
+        for (String term : NON_WORD.split(normalized)) {
+            if (!term.isEmpty()) {
+                result.add(term);
+            }
+        }
+        return result;
+    }
+
+    private static boolean matches(String name, List<String> complete, String last) {
+        List<String> nameTerms = terms(name);
+        if (!nameTerms.containsAll(complete)) {
+            return false;
+        }
+        for (String term : nameTerms) {
+            if (term.startsWith(last)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<ProductSuggestion> toSuggestions(Set<Long> ids) {
+        List<ProductSuggestion> suggestions = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            String name = names.get(id);
+            // O produto pode ter sido removido entre a busca do id e a leitura do nome
+            if (name != null) {
+                suggestions.add(new ProductSuggestion(id, name));
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Junta os ids (ordenados) ao array ordenado do termo (cria o termo se for novo)
+     * 
+     * O array é substituído por uma cópia: leitores em andamento continuam
+     * vendo o array antigo, sem lock.
+     */
+    private void addPostings(String term, long[] ids) {
+        terms.compute(term, (key, postings) -> {
+            if (postings == null) {
+                termCount++;
+                termChars += key.length();
+                postingCount += ids.length;
+                return ids;
+            }
+            // Merge de dois arrays ordenados (ids já presentes não são repetidos)
+            long[] merged = new long[postings.length + ids.length];
+            int i = 0;
+            int j = 0;
+            int size = 0;
+            while (i < postings.length || j < ids.length) {
+                long next;
+                if (j == ids.length || (i < postings.length && postings[i] <= ids[j])) {
+                    next = postings[i++];
+                } else {
+                    next = ids[j++];
+                }
+                if (size == 0 || merged[size - 1] != next) {
+                    merged[size++] = next;
+                }
+            }
+            postingCount += size - postings.length;
+            return size == merged.length ? merged : Arrays.copyOf(merged, size);
+        });
+    }
+
+    /**
+     * Remove o id do array ordenado do termo (remove o termo se ficar vazio)
+     */
+    private void removePosting(String term, long id) {
+        terms.computeIfPresent(term, (key, postings) -> {
+            int position = Arrays.binarySearch(postings, id);
+            if (position < 0) {
+                return postings;
+            }
+            postingCount--;
+            if (postings.length == 1) {
+                termCount--;
+                termChars -= key.length();
+                return null;
+            }
+            long[] updated = new long[postings.length - 1];
+            System.arraycopy(postings, 0, updated, 0, position);
+            System.arraycopy(postings, position + 1, updated, position, postings.length - position - 1);
+            return updated;
+        });
+    }
+
+    /**
+     * Executa a ação após o commit da transação atual
+     * 
+     * Se não houver transação ativa, executa imediatamente.
+     * Se a transação sofrer rollback, a ação NÃO é executada.
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_test.config;
+
+// Importa as fábricas dos formatos binários do Jackson
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+// Importa classes do Spring
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Formatos binários (CBOR e Smile) para as respostas e requisições do ProductController
+ * 
+ * JSON continua sendo o padrão. Um cliente que envia um destes cabeçalhos recebe
+ * (ou pode enviar) o mesmo conteúdo em binário:
+ * - Accept / Content-Type: application/cbor (CBOR, RFC 8949)
+ * - Accept / Content-Type: application/x-jackson-smile (Smile, formato binário do Jackson)
+ * 
+ * POR QUE BINÁRIO ENTRE SERVIÇOS?
+ * - Números saem como binário (sem converter dígitos de/para texto)
+ * - Nomes de campos repetidos em uma página: o Smile guarda cada nome uma vez e
+ *   depois só referencia (uma página de 500 produtos fica bem menor)
+ * - Ler não exige procurar aspas, escapes e separadores caractere a caractere
+ * Veja ProductBinaryFormatBenchmark (módulo benchmarks) para os números.
+ * 
+ * Os ObjectMappers vêm do Jackson2ObjectMapperBuilder do Spring Boot (um novo a
+ * cada injeção), então têm os mesmos módulos e regras do JSON, inclusive o
+ * @JsonProperty(READ_ONLY) da versão. Declarar os conversores como beans faz o
+ * Spring Boot usá-los no lugar dos conversores CBOR/Smile padrão do Spring MVC.
+ */
+@Configuration // Marca como classe de configuração do Spring (define beans)
+public class BinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
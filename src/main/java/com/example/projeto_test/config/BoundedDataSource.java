@@ -0,0 +1,169 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_test.config;
+
+// Importa DelegatingDataSource do Spring: um DataSource que repassa tudo para outro
+// Por ser um tipo conhecido do Spring Boot, as métricas do Hikari continuam funcionando
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+// Importa o Micrometer para medir a espera na fila e o tamanho da fila
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * DataSource com Limite de Concorrência (bulkhead na frente do pool de conexões)
+ * 
+ * Com threads virtuais, a aplicação pode ter MILHARES de requisições em andamento
+ * ao mesmo tempo, mas o pool do Hikari tem apenas 10 conexões. Sem controle,
+ * milhares de threads disputariam essas 10 conexões ao mesmo tempo (stampede).
+ * 
+ * COMO FUNCIONA:
+ * - Um Semaphore com a mesma quantidade de permissões que o tamanho do pool
+ * - getConnection() só chega ao Hikari depois de conseguir uma permissão
+ * - A permissão é devolvida quando a conexão é fechada (devolvida ao pool)
+ * - As threads esperam em FILA (semáforo justo/fair), na ordem de chegada
+ * - Se a espera passar do tempo limite, a requisição falha rápido (HTTP 503)
+ *   ao invés de ficar presa esperando indefinidamente
+ * 
+ * Para threads virtuais, esperar no Semaphore é barato: a thread virtual é
+ * "estacionada" e não ocupa nenhuma thread do sistema operacional.
+ */
+public class BoundedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutNanos;
+
+    /**
+     * Tempo de espera por uma permissão (null até as métricas serem registradas)
+     */
+    private volatile Timer acquireTimer;
+
+    /**
+     * @param target O DataSource real (pool do Hikari)
+     * @param maxConcurrentConnections Quantidade máxima de conexões em uso ao mesmo tempo
+     * @param acquireTimeout Tempo máximo de espera por uma conexão
+     */
+    public BoundedDataSource(DataSource target, int maxConcurrentConnections, Duration acquireTimeout) {
+        super(target);
+        this.permits = new Semaphore(maxConcurrentConnections, true);
+        this.acquireTimeoutNanos = acquireTimeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquirePermit();
+        try {
+            return releaseOnClose(super.getConnection());
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquirePermit();
+        try {
+            return releaseOnClose(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Quantidade de threads esperando por uma conexão (útil para monitoramento)
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Registra as métricas da fila no Micrometer (chamado pelo MetricsConfig)
+     * 
+     * - app.datasource.acquire: tempo esperando na fila (histograma)
+     * - app.datasource.pending: threads esperando uma conexão agora
+     * - app.datasource.available: permissões livres agora
+     * 
+     * Somado ao hikaricp.connections.acquire (espera dentro do Hikari), mostra
+     * quanto de uma requisição lenta foi gasto só esperando conexão.
+     * 
+     * @param registry O registro de métricas da aplicação
+     */
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("app.datasource.pending", permits, Semaphore::getQueueLength)
+                .description("Threads esperando uma conexão com o banco")
+                .register(registry);
+        Gauge.builder("app.datasource.available", permits, Semaphore::availablePermits)
+                .description("Conexões que ainda podem ser usadas sem esperar")
+                .register(registry);
+        acquireTimer = Timer.builder("app.datasource.acquire")
+                .description("Tempo de espera na fila por uma conexão com o banco")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Espera por uma permissão até o tempo limite
+     * 
+     * @throws SQLTransientConnectionException Se o tempo acabar (o Spring converte
+     * em CannotCreateTransactionException, tratada como HTTP 503)
+     */
+    private void acquirePermit() throws SQLException {
+        long start = System.nanoTime();
+        try {
+            boolean acquired = permits.tryAcquire(acquireTimeoutNanos, TimeUnit.NANOSECONDS);
+            Timer timer = acquireTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            if (!acquired) {
+                throw new SQLTransientConnectionException(
+                        "Tempo esgotado aguardando conexão com o banco (" + getQueueLength() + " na fila)");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrompido aguardando conexão com o banco", ex);
+        }
+    }
+
+    /**
+     * Envolve a conexão em um proxy que devolve a permissão no close()
+     * 
+     * O AtomicBoolean garante que a permissão seja devolvida UMA única vez,
+     * mesmo que close() seja chamado mais de uma vez.
+     */
+    private Connection releaseOnClose(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getTargetException();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,197 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_test.config;
+
+// Importa o Caffeine para guardar os baldes de cada cliente com limite de tamanho e expiração
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+// Importa o Micrometer para publicar as rejeições no Actuator
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Importa @Value para ler as cotas do application.properties
+import org.springframework.beans.factory.annotation.Value;
+
+// Importa @Component para registrar a classe como um bean do Spring
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limitador de Taxa por Cliente (token bucket sem locks)
+ *
+ * Cada cliente tem um balde de fichas por cota (leitura, escrita e listagem):
+ * o balde enche a "requests-per-second" fichas por segundo até "burst" fichas,
+ * e cada requisição gasta uma. Sem ficha, a requisição é rejeitada na hora
+ * (HTTP 429 pelo RateLimitFilter), sem entrar em fila: um cliente barulhento
+ * não consegue ocupar as conexões do pool que os outros precisam.
+ *
+ * IMPLEMENTAÇÃO (GCRA, equivalente ao token bucket):
+ * O balde não guarda a quantidade de fichas, e sim UM long por cota: o instante
+ * teórico (System.nanoTime) em que o balde estaria cheio de novo. Uma requisição
+ * é aceita se esse instante, somado ao intervalo entre fichas, não passa de
+ * "burst" intervalos à frente de agora. A atualização é um único compareAndSet:
+ * - sem locks e sem synchronized (nenhuma thread espera por outra)
+ * - sem relógio em segundo plano reabastecendo os baldes
+ * - o custo é uma busca no Caffeine, um nanoTime e um CAS (bem abaixo de 1 µs,
+ *   veja ClientRateLimiterBenchmark)
+ *
+ * MEMÓRIA:
+ * Um cliente parado pelo tempo de encher o maior balde tem todos os baldes
+ * cheios, então esquecê-lo não muda nada: os baldes expiram depois desse tempo.
+ * Acima de "app.ratelimit.max-clients" os clientes menos ativos são descartados
+ * (e recomeçam com o balde cheio se voltarem).
+ */
+@Component // Registra como bean do Spring (um único limitador por aplicação)
+public class ClientRateLimiter implements MeterBinder {
+
+    /**
+     * Cotas independentes: gastar as escritas não bloqueia as leituras do mesmo cliente
+     */
+    public enum Quota {
+
+        /**
+         * GET de um produto e das análises em memória (/{id}, /suggest, /stats...)
+         */
+        READ,
+
+        /**
+         * POST, PUT, PATCH e DELETE
+         */
+        WRITE,
+
+        /**
+         * Listagens que percorrem muitas linhas (/products, /products/search, /products/export)
+         */
+        LIST;
+
+        /**
+         * Nome usado na tag "quota" das métricas
+         */
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private static final Quota[] QUOTAS = Quota.values();
+
+    /**
+     * Intervalo entre fichas de cada cota (1 s / requests-per-second)
+     */
+    private final long[] intervalNanos = new long[QUOTAS.length];
+
+    /**
+     * Tempo para encher o balde vazio de cada cota (burst * intervalo)
+     */
+    private final long[] capacityNanos = new long[QUOTAS.length];
+
+    private final LongAdder[] rejected = new LongAdder[QUOTAS.length];
+
+    private final Cache<String, AtomicLongArray> clients;
+
+    /**
+     * @param readRate Leituras por segundo por cliente
+     * @param readBurst Leituras seguidas permitidas com o balde cheio
+     * @param writeRate Escritas por segundo por cliente
+     * @param writeBurst Escritas seguidas permitidas com o balde cheio
+     * @param listRate Listagens e exportações por segundo por cliente
+     * @param listBurst Listagens seguidas permitidas com o balde cheio
+     * @param maxClients Quantidade máxima de clientes acompanhados ao mesmo tempo
+     */
+    public ClientRateLimiter(
+            @Value("${app.ratelimit.read.requests-per-second:200}") int readRate,
+            @Value("${app.ratelimit.read.burst:400}") int readBurst,
+            @Value("${app.ratelimit.write.requests-per-second:50}") int writeRate,
+            @Value("${app.ratelimit.write.burst:100}") int writeBurst,
+            @Value("${app.ratelimit.list.requests-per-second:10}") int listRate,
+            @Value("${app.ratelimit.list.burst:30}") int listBurst,
+            @Value("${app.ratelimit.max-clients:100000}") long maxClients) {
+        configure(Quota.READ, readRate, readBurst);
+        configure(Quota.WRITE, writeRate, writeBurst);
+        configure(Quota.LIST, listRate, listBurst);
+        long idleNanos = 0;
+        for (Quota quota : QUOTAS) {
+            rejected[quota.ordinal()] = new LongAdder();
+            idleNanos = Math.max(idleNanos, capacityNanos[quota.ordinal()]);
+        }
+        this.clients = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(idleNanos).plusSeconds(1))
+                .build();
+    }
+
+    private void configure(Quota quota, int rate, int burst) {
+        if (rate < 1 || burst < 1) {
+            throw new IllegalArgumentException("A cota " + quota.tag() + " precisa de requests-per-second e burst maiores que zero");
+        }
+        intervalNanos[quota.ordinal()] = TimeUnit.SECONDS.toNanos(1) / rate;
+        capacityNanos[quota.ordinal()] = intervalNanos[quota.ordinal()] * burst;
+    }
+
+    /**
+     * Tenta gastar uma ficha da cota do cliente
+     *
+     * @param client Identificação do cliente (endereço IP ou cabeçalho configurado)
+     * @param quota A cota da requisição
+     * @return 0 se a requisição foi aceita; senão, os nanossegundos até haver uma ficha
+     */
+    public long tryAcquire(String client, Quota quota) {
+        AtomicLongArray buckets = clients.get(client, ClientRateLimiter::newBuckets);
+        int index = quota.ordinal();
+        long interval = intervalNanos[index];
+        long capacity = capacityNanos[index];
+        long now = System.nanoTime();
+        while (true) {
+            long full = buckets.get(index);
+            // Instante em que o balde estaria cheio depois de gastar esta ficha
+            long next = Math.max(full, now) + interval;
+            long ahead = next - now;
+            if (ahead > capacity) {
+                rejected[index].increment();
+                return ahead - capacity;
+            }
+            if (buckets.compareAndSet(index, full, next)) {
+                return 0;
+            }
+            // Outra requisição do mesmo cliente gastou uma ficha ao mesmo tempo: tenta de novo
+        }
+    }
+
+    /**
+     * Baldes de um cliente novo, todos cheios (instante "cheio de novo" no passado)
+     */
+    private static AtomicLongArray newBuckets(String client) {
+        AtomicLongArray buckets = new AtomicLongArray(QUOTAS.length);
+        for (int i = 0; i < QUOTAS.length; i++) {
+            buckets.set(i, Long.MIN_VALUE);
+        }
+        return buckets;
+    }
+
+    /**
+     * Publica as métricas do limitador no Micrometer (chamado pelo Spring Boot)
+     *
+     * - app.ratelimit.rejected{quota="read" | "write" | "list"}: requisições rejeitadas (HTTP 429)
+     * - app.ratelimit.clients: clientes com baldes em memória
+     *
+     * @param registry O registro de métricas da aplicação
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Quota quota : QUOTAS) {
+            FunctionCounter.builder("app.ratelimit.rejected", rejected[quota.ordinal()], LongAdder::sum)
+                    .description("Requisições rejeitadas pelo limite de taxa por cliente")
+                    .tag("quota", quota.tag())
+                    .register(registry);
+        }
+        Gauge.builder("app.ratelimit.clients", clients, Cache::estimatedSize)
+                .description("Clientes acompanhados pelo limitador de taxa")
+                .register(registry);
+    }
+}
@@ -0,0 +1,105 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_test.config;
+
+// Importa o Jackson (ObjectMapper configurado pelo Spring Boot)
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Importa o Micrometer (biblioteca de métricas usada pelo Actuator)
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Importa classes do Spring
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Configuração de Métricas (Actuator + Micrometer)
+ * 
+ * O Spring Boot já mede automaticamente:
+ * - http.server.requests: cada endpoint do ProductController (tempo total da requisição)
+ * - spring.data.repository.invocations: cada chamada ao ProductRepository (SQL)
+ * - hikaricp.connections.*: uso do pool e espera por conexão no Hikari
+ * - hibernate.*: estatísticas do Hibernate (consultas, entidades carregadas, flushes)
+ * - product.service: cada método do ProductService (@Timed)
+ * - cache.*: acertos e falhas do ProductCache (MeterBinder)
+ * 
+ * Esta classe completa o que falta para separar o tempo de uma requisição lenta:
+ * - app.datasource.*: espera na fila do BoundedDataSource
+ * - http.server.serialization: tempo para gerar o JSON da resposta
+ *   (pelo ProductJsonConverter para Product e erros, pelo Jackson para o resto)
+ * 
+ * Tudo fica disponível em /actuator/prometheus (e em /actuator/metrics).
+ */
+@Configuration // Marca como classe de configuração do Spring (define beans)
+public class MetricsConfig {
+
+    /**
+     * Registra as métricas da fila de conexões (se o DataSource for o BoundedDataSource)
+     */
+    @Bean
+    public MeterBinder boundedDataSourceMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> dataSource.ifAvailable(candidate -> {
+            if (candidate instanceof BoundedDataSource bounded) {
+                bounded.bindTo(registry);
+            }
+        });
+    }
+
+    /**
+     * Conversor JSON das respostas HTTP que mede o tempo de serialização
+     * 
+     * Substitui o conversor padrão do Spring Boot (mesmo ObjectMapper, mesma saída).
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new TimedJacksonConverter(objectMapper, meterRegistry);
+    }
+
+    /**
+     * Conversor JSON dedicado para as respostas do ProductController
+     * 
+     * Escreve Product, List<Product>, ProductPage e os corpos de erro do
+     * GlobalExceptionHandler com o ProductJsonWriter (sem reflexão, buffers do pool).
+     * O Spring Boot coloca beans HttpMessageConverter antes dos conversores padrão,
+     * então ele é consultado antes do Jackson; os demais tipos seguem para o Jackson.
+     */
+    @Bean
+    public ProductJsonConverter productJsonConverter(MeterRegistry meterRegistry) {
+        return new ProductJsonConverter(new SerializationTimers(meterRegistry));
+    }
+
+    /**
+     * MappingJackson2HttpMessageConverter com um Timer por tipo de resposta
+     * 
+     * Métrica: http.server.serialization{type="ProductPriceStats" | "ProductBatchResult" | ...}
+     * Inclui a escrita no buffer da resposta (para respostas grandes, parte da
+     * escrita na rede).
+     */
+    static class TimedJacksonConverter extends MappingJackson2HttpMessageConverter {
+
+        private final SerializationTimers timers;
+
+        TimedJacksonConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+            super(objectMapper);
+            this.timers = new SerializationTimers(meterRegistry);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            long start = System.nanoTime();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                timers.record(object.getClass(), start);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_test.config;
+
+// Importa InitializingBean para executar código assim que o bean for criado
+import org.springframework.beans.factory.InitializingBean;
+
+// Importa @Value para ler propriedades do application.properties
+import org.springframework.beans.factory.annotation.Value;
+
+// Importa o pós-processador do Spring Boot que faz o EntityManagerFactory (Hibernate)
+// depender de outros beans, ou seja, ser criado DEPOIS deles
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+
+// Importa anotações de configuração do Spring
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Importa JdbcTemplate para executar SQL simples diretamente pelo JDBC
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Configuração da Sequence de IDs do Product
+ * 
+ * O id do Product vem da sequence "products_seq" com o otimizador pooled-lo:
+ * cada nó da aplicação chama a sequence UMA vez e recebe um bloco de ids
+ * [valor, valor + allocationSize), que é distribuído em memória.
+ * 
+ * O tamanho do bloco (allocationSize) controla o custo dos INSERTs:
+ * - allocationSize = 1: uma ida à sequence por INSERT (limitado pela latência do banco)
+ * - allocationSize = 500: uma ida à sequence a cada 500 INSERTs
+ * 
+ * COMO O TAMANHO DO BLOCO É CONFIGURADO:
+ * 1. Antes do Hibernate iniciar, esta classe garante que a sequence exista e que o
+ *    INCREMENT BY dela seja pelo menos "app.products.id.allocation-size"
+ * 2. O Hibernate, com increment_size_mismatch_strategy=FIX, lê o INCREMENT BY real
+ *    da sequence e usa esse valor como tamanho do bloco
+ * 
+ * Ou seja: a sequence do banco é a fonte da verdade, e todos os nós usam o mesmo bloco.
+ * 
+ * IMPORTANTE: o incremento só é AUMENTADO automaticamente, nunca diminuído.
+ * Diminuir o incremento com outros nós rodando faria um nó receber ids dentro
+ * do bloco (maior) que outro nó ainda está usando.
+ */
+@Configuration // Marca como classe de configuração do Spring (define beans)
+public class ProductIdSequenceConfig {
+
+    /**
+     * Nome da sequence usada pelo @SequenceGenerator do Product
+     */
+    public static final String SEQUENCE_NAME = "products_seq";
+
+    /**
+     * Cria o bean que prepara a sequence antes do Hibernate
+     * 
+     * @param dataSource O pool de conexões configurado pelo Spring Boot
+     * @param allocationSize Tamanho desejado para o bloco de ids
+     */
+    @Bean
+    public ProductIdSequenceInitializer productIdSequenceInitializer(
+            DataSource dataSource,
+            @Value("${app.products.id.allocation-size:50}") int allocationSize) {
+        return new ProductIdSequenceInitializer(new JdbcTemplate(dataSource), allocationSize);
+    }
+
+    /**
+     * Faz o EntityManagerFactory (Hibernate) ser criado DEPOIS do inicializador da sequence
+     * 
+     * Assim, quando o Hibernate ler o INCREMENT BY da sequence, ela já está ajustada.
+     * O método é static porque pós-processadores de fábrica de beans precisam ser
+     * criados antes de todos os outros beans.
+     */
+    @Bean
+    public static EntityManagerFactoryDependsOnPostProcessor productIdSequenceDependency() {
+        return new EntityManagerFactoryDependsOnPostProcessor("productIdSequenceInitializer");
+    }
+
+    /**
+     * Inicializador da Sequence - executa uma vez na subida da aplicação
+     * 
+     * 1. Cria a sequence se ela ainda não existir
+     * 2. Aumenta o INCREMENT BY se ele for menor que o tamanho de bloco configurado
+     * 3. Se a tabela já tiver produtos com ids maiores que a sequence (ex: ids antigos
+     *    gerados por IDENTITY), reposiciona a sequence depois do maior id
+     */
+    public static class ProductIdSequenceInitializer implements InitializingBean {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final int allocationSize;
+
+        public ProductIdSequenceInitializer(JdbcTemplate jdbcTemplate, int allocationSize) {
+            if (allocationSize < 1) {
+                throw new IllegalArgumentException("app.products.id.allocation-size deve ser maior que zero");
+            }
+            this.jdbcTemplate = jdbcTemplate;
+            this.allocationSize = allocationSize;
+        }
+
+        @Override
+        public void afterPropertiesSet() {
+            // 1. Garante que a sequence exista (em um banco novo, ela é criada aqui)
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE_NAME
+                    + " START WITH 1 INCREMENT BY " + allocationSize);
+
+            // 2. Aumenta o incremento se necessário (nunca diminui, veja a documentação da classe)
+            Long currentIncrement = jdbcTemplate.queryForObject(
+                    "SELECT INCREMENT FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                    Long.class, SEQUENCE_NAME.toUpperCase());
+            if (currentIncrement != null && currentIncrement < allocationSize) {
+                jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE_NAME + " INCREMENT BY " + allocationSize);
+            }
+
+            // 3. Se a tabela já existir, garante que a sequence esteja depois do maior id
+            Integer tables = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'PRODUCTS'",
+                    Integer.class);
+            if (tables != null && tables > 0) {
+                Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM products", Long.class);
+                Long baseValue = jdbcTemplate.queryForObject(
+                        "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?",
+                        Long.class, SEQUENCE_NAME.toUpperCase());
+                if (maxId != null && baseValue != null && baseValue <= maxId) {
+                    // Com pooled-lo, o próximo bloco começa exatamente no próximo valor da sequence
+                    jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE_NAME + " RESTART WITH " + (maxId + 1));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_test.config;
+
+// Importa os índices em memória (sugestões e preços) e o serviço usado para ler o catálogo
+import com.example.projeto_test.analytics.ProductPriceAnalytics;
+import com.example.projeto_test.cache.ProductNameIndex;
+import com.example.projeto_test.model.Product;
+import com.example.projeto_test.service.ProductService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+// Importa SmartInitializingSingleton: executado depois que todos os beans foram
+// criados e ANTES de o servidor web começar a aceitar requisições
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+// Importa @Component para registrar a classe como um bean do Spring
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carga Inicial dos Índices em Memória (ProductNameIndex e ProductPriceAnalytics)
+ * 
+ * Na subida da aplicação, percorre o catálogo inteiro UMA vez com o mesmo Stream
+ * da exportação (ProductService.exportProducts: fetch size, somente leitura, sem
+ * acumular entidades) e entrega cada bloco aos dois índices: os nomes ao índice
+ * de sugestões e os preços à cópia colunar.
+ * 
+ * Como roda antes de o servidor web aceitar requisições, a primeira sugestão
+ * (ou análise de preços) já encontra os índices completos. Depois disso, o
+ * ProductService os mantém atualizados a cada criação, alteração e exclusão.
+ */
+@Component // Registra como bean do Spring
+public class ProductIndexLoader implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductIndexLoader.class);
+
+    /**
+     * Quantidade de produtos indexados de uma vez
+     */
+    private static final int CHUNK_SIZE = 10_000;
+
+    private final ProductService productService;
+    private final ProductNameIndex productNameIndex;
+    private final ProductPriceAnalytics productPriceAnalytics;
+
+    public ProductIndexLoader(ProductService productService, ProductNameIndex productNameIndex,
+                              ProductPriceAnalytics productPriceAnalytics) {
+        this.productService = productService;
+        this.productNameIndex = productNameIndex;
+        this.productPriceAnalytics = productPriceAnalytics;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        List<Product> chunk = new ArrayList<>(CHUNK_SIZE);
+        productService.exportProducts(product -> {
+            chunk.add(product);
+            if (chunk.size() == CHUNK_SIZE) {
+                productNameIndex.putAll(chunk);
+                productPriceAnalytics.putAll(chunk);
+                chunk.clear();
+            }
+        });
+        productNameIndex.putAll(chunk);
+        productPriceAnalytics.putAll(chunk);
+
+        int size = productNameIndex.size();
+        log.info("Índice de sugestões carregado: {} produtos, ~{} bytes por produto, em {} ms", size,
+                size == 0 ? 0 : productNameIndex.estimatedBytes() / size,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Cópia colunar de preços carregada: {} produtos, {} bytes, varredura {}", productPriceAnalytics.size(),
+                productPriceAnalytics.estimatedBytes(),
+                productPriceAnalytics.isVectorized() ? "SIMD (Vector API)" : "escalar (sem --add-modules jdk.incubator.vector)");
+    }
+}
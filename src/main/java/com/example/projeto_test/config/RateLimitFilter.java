@@ -0,0 +1,142 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_test.config;
+
+// Importa as classes da API de Servlets (requisição, resposta, cadeia de filtros)
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Importa @Value para ler as opções do application.properties
+import org.springframework.beans.factory.annotation.Value;
+
+// Importa @Order para posicionar o filtro logo depois do filtro de métricas
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+// Importa @Component para registrar o filtro como um bean do Spring
+// (o Spring Boot registra automaticamente todo bean Filter no Tomcat)
+import org.springframework.stereotype.Component;
+
+// Importa OncePerRequestFilter: garante uma única execução por requisição
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filtro de Limite de Taxa por Cliente na Frente do ProductController
+ *
+ * Classifica cada requisição de /products em uma cota do ClientRateLimiter e,
+ * sem ficha disponível, responde na hora:
+ *
+ * HTTP 429 Too Many Requests
+ * Retry-After: 1
+ * {"message":"Limite de requisições excedido, tente novamente em 1 s","status":"429"}
+ *
+ * A requisição rejeitada não chega ao controller nem ao banco, então não ocupa
+ * conexão do pool (nem espera na fila do BoundedDataSource).
+ *
+ * CLIENTE:
+ * - Por padrão, o endereço IP da conexão (request.getRemoteAddr())
+ * - Com "app.ratelimit.client-header" (ex: X-Client-Id), o valor desse cabeçalho,
+ *   quando presente. Use apenas atrás de um gateway que preencha o cabeçalho:
+ *   vindo do próprio cliente, ele poderia trocar de valor para ganhar cotas novas.
+ *
+ * ORDEM:
+ * Roda depois do filtro de observação do Spring Boot (as 429 aparecem em
+ * http.server.requests) e antes dos demais (inclusive o ServerTimingFilter).
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 10) // Depois do ServerHttpObservationFilter (HIGHEST_PRECEDENCE + 1)
+@Component // Registra como bean do Spring (o Spring Boot o adiciona aos filtros do Tomcat)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String PRODUCTS_PATH = "/products";
+
+    private final ClientRateLimiter rateLimiter;
+    private final boolean enabled;
+    private final String clientHeader;
+
+    /**
+     * @param rateLimiter Os baldes de cada cliente
+     * @param enabled Liga/desliga o limite (desligado nos testes de carga)
+     * @param clientHeader Cabeçalho que identifica o cliente (vazio = endereço IP)
+     */
+    public RateLimitFilter(ClientRateLimiter rateLimiter,
+                           @Value("${app.ratelimit.enabled:true}") boolean enabled,
+                           @Value("${app.ratelimit.client-header:}") String clientHeader) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.clientHeader = clientHeader.isBlank() ? null : clientHeader;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Só a API de produtos (o Actuator e o console do H2 ficam de fora)
+        return !enabled || !isProductsPath(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long waitNanos = rateLimiter.tryAcquire(clientOf(request), quotaOf(request.getMethod(), request.getRequestURI()));
+        if (waitNanos == 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        // Retry-After é em segundos inteiros: arredonda para cima (nunca 0)
+        long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+
+        // Mesmo formato de erro do GlobalExceptionHandler
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Limite de requisições excedido, tente novamente em " + retryAfter + " s");
+        error.put("status", String.valueOf(HttpStatus.TOO_MANY_REQUESTS.value()));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (ProductJsonWriter json = ProductJsonWriter.open(response.getOutputStream())) {
+            json.writeStringMap(error);
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String client = request.getHeader(clientHeader);
+            if (client != null && !client.isEmpty()) {
+                return client;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Diz se o caminho é da API de produtos: "/products" ou "/products/..."
+     * ("/productsX" não é)
+     */
+    static boolean isProductsPath(String path) {
+        return path.startsWith(PRODUCTS_PATH)
+                && (path.length() == PRODUCTS_PATH.length() || path.charAt(PRODUCTS_PATH.length()) == '/');
+    }
+
+    /**
+     * Escolhe a cota pelo método e pelo caminho (sem consultar os mapeamentos do Spring MVC)
+     */
+    static ClientRateLimiter.Quota quotaOf(String method, String path) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return ClientRateLimiter.Quota.WRITE;
+        }
+        String endpoint = path.substring(PRODUCTS_PATH.length());
+        if (endpoint.isEmpty() || endpoint.equals("/")
+                || endpoint.startsWith("/search") || endpoint.startsWith("/export")) {
+            return ClientRateLimiter.Quota.LIST;
+        }
+        return ClientRateLimiter.Quota.READ;
+    }
+}
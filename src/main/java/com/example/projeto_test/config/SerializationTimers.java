@@ -0,0 +1,47 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_test.config;
+
+// Importa o Micrometer (biblioteca de métricas usada pelo Actuator)
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers da métrica http.server.serialization, um por tipo de resposta
+ * 
+ * Compartilhado pelos conversores JSON (TimedJacksonConverter e ProductJsonConverter),
+ * para que a métrica continue com uma série por tipo, não importa qual conversor
+ * escreveu a resposta.
+ */
+class SerializationTimers {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Um Timer por classe serializada (evita procurar o Timer no registro a cada resposta)
+     */
+    private final Map<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+    SerializationTimers(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Registra o tempo de serialização de um objeto do tipo informado
+     */
+    void record(Class<?> type, long startNanos) {
+        timers.computeIfAbsent(type, this::timerFor)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timerFor(Class<?> type) {
+        return Timer.builder("http.server.serialization")
+                .description("Tempo para serializar o corpo da resposta em JSON")
+                .tag("type", type.getSimpleName())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
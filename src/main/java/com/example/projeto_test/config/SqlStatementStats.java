@@ -0,0 +1,96 @@
+// Declaração do pacote - organiza a classe no pacote de configurações
+package com.example.projeto_test.config;
+
+import java.util.Locale;
+
+/**
+ * Contador de Comandos SQL por Requisição
+ * 
+ * Guarda, para a requisição HTTP em andamento, quantos comandos SQL foram
+ * enviados ao banco e quanto tempo o banco levou para respondê-los.
+ * 
+ * COMO FUNCIONA:
+ * - O ServerTimingFilter chama start() no início da requisição
+ * - O StatementCountingDataSource chama record() a cada execute*() de um Statement
+ * - No fim, o filtro devolve os números no cabeçalho Server-Timing e chama clear()
+ * 
+ * Os números ficam em um ThreadLocal: só contam os comandos executados na
+ * thread da requisição. Código assíncrono (ex: a escrita do GET /products/export,
+ * feita em outra thread) não entra na contagem.
+ * 
+ * Diferente de spring.jpa.show-sql, nada é escrito no console: contar custa
+ * apenas um incremento e uma leitura do relógio por comando.
+ */
+public final class SqlStatementStats {
+
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long durationNanos;
+
+    private SqlStatementStats() {
+    }
+
+    /**
+     * Começa a contar os comandos da thread atual (zera a contagem anterior)
+     * 
+     * @return A contagem da thread atual
+     */
+    public static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * A contagem da thread atual, ou null se ninguém chamou start()
+     */
+    public static SqlStatementStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Para de contar os comandos da thread atual
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Registra um comando executado na thread atual (ignorado se não houver contagem)
+     * 
+     * @param nanos Tempo que o comando levou no banco
+     */
+    static void record(long nanos) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.durationNanos += nanos;
+        }
+    }
+
+    /**
+     * Quantidade de comandos enviados ao banco
+     * (um executeBatch() conta como um comando: é uma única ida ao banco)
+     */
+    public int getStatements() {
+        return statements;
+    }
+
+    /**
+     * Tempo total gasto no banco, em nanossegundos
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Valor do cabeçalho Server-Timing
+     * 
+     * Exemplo: db;dur=1.35;desc="2 statements"
+     * O navegador mostra esses números na aba Network (Timing) do DevTools.
+     */
+    public String toServerTiming() {
+        return String.format(Locale.ROOT, "db;dur=%.2f;desc=\"%d statements\"", durationNanos / 1e6, statements);
+    }
+}
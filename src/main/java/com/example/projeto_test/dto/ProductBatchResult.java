@@ -0,0 +1,59 @@
+// Declaração do pacote - organiza a classe no pacote de DTOs (objetos de transferência de dados)
+package com.example.projeto_test.dto;
+
+// Importa a entidade Product retornada nos itens criados com sucesso
+import com.example.projeto_test.model.Product;
+
+// Importa @JsonInclude para omitir campos nulos do JSON
+// (itens criados não têm "errors" e itens inválidos não têm "product")
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// Importa HttpStatus para os códigos de status de cada item
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+
+/**
+ * DTO de Resultado de Lote - Resultado de UM item do POST /products/batch
+ * 
+ * O endpoint de criação em lote devolve uma lista de resultados NA MESMA ORDEM
+ * dos produtos enviados, para que o cliente saiba exatamente quais foram criados
+ * e quais foram rejeitados pela validação.
+ * 
+ * Exemplo de resposta JSON (segundo item com nome vazio):
+ * [
+ *   {"index": 0, "status": 201, "product": {"id": 51, "name": "Notebook", "priceInCents": 250000}},
+ *   {"index": 1, "status": 400, "errors": {"name": "O nome do produto não pode estar vazio"}}
+ * ]
+ * 
+ * @param index Posição do item na lista enviada pelo cliente
+ * @param status Código HTTP do item (201 criado, 400 inválido)
+ * @param product O produto criado, com o ID gerado (null se inválido)
+ * @param errors Erros de validação por campo (null se criado)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL) // Não escreve campos nulos no JSON
+public record ProductBatchResult(int index, int status, Product product, Map<String, String> errors) {
+
+    /**
+     * Cria o resultado de um item inserido com sucesso
+     */
+    public static ProductBatchResult created(int index, Product product) {
+        return new ProductBatchResult(index, HttpStatus.CREATED.value(), product, null);
+    }
+
+    /**
+     * Cria o resultado de um item rejeitado pela validação
+     */
+    public static ProductBatchResult invalid(int index, Map<String, String> errors) {
+        return new ProductBatchResult(index, HttpStatus.BAD_REQUEST.value(), null, errors);
+    }
+
+    /**
+     * Indica se o item foi criado (usado pelo controller para escolher o status da resposta)
+     */
+    @JsonIgnore // Não é um campo da resposta, apenas um atalho para o controller
+    public boolean isCreated() {
+        return status == HttpStatus.CREATED.value();
+    }
+}
@@ -0,0 +1,27 @@
+// Declaração do pacote - organiza a classe no pacote de DTOs (objetos de transferência de dados)
+package com.example.projeto_test.dto;
+
+/**
+ * DTO do Resumo de uma Faixa de Preço - Resposta de GET /products/analytics/price-range
+ * 
+ * Calculado na cópia colunar de preços em memória (ProductPriceAnalytics),
+ * sem consultar o banco.
+ * 
+ * Exemplo de JSON (minInCents=1000&maxInCents=5000):
+ * {"count": 3, "sumInCents": 9000, "minInCents": 1000, "maxInCents": 5000, "avgInCents": 3000.0}
+ * 
+ * Sem produtos na faixa, count e sumInCents são 0 e os demais campos são null.
+ * 
+ * @param count Quantidade de produtos com preço na faixa
+ * @param sumInCents Soma dos preços desses produtos
+ * @param minInCents Menor preço encontrado na faixa
+ * @param maxInCents Maior preço encontrado na faixa
+ * @param avgInCents Preço médio na faixa
+ */
+public record ProductPriceRange(
+        long count,
+        long sumInCents,
+        Integer minInCents,
+        Integer maxInCents,
+        Double avgInCents) {
+}
@@ -4,6 +4,13 @@ package com.example.projeto_test.exception;
 // Importa HttpStatus para códigos HTTP padronizados
 import org.springframework.http.HttpStatus;
 
+// Importa HttpHeaders para o cabeçalho Retry-After
+import org.springframework.http.HttpHeaders;
+
+// Importa as exceções do Spring lançadas quando não há conexão disponível com o banco
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
 // Importa ResponseEntity para construir respostas HTTP
 import org.springframework.http.ResponseEntity;
 
@@ -12,6 +19,11 @@ import org.springframework.http.ResponseEntity;
 // (ex: @NotBlank, @Positive, etc.)
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
+// Importa MethodArgumentTypeMismatchException
+// Esta exceção é lançada quando um parâmetro da URL não pode ser convertido
+// para o tipo do método (ex: ?limit=abc em um parâmetro int)
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
 // Importa @ExceptionHandler para tratar exceções específicas
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
@@ -45,6 +57,10 @@ import java.util.Map;
  * 2. Spring intercepta a exceção
  * 3. Procura um método @ExceptionHandler que trate esse tipo de exceção
  * 4. Executa o método e retorna a resposta HTTP apropriada
+ * 
+ * Os corpos de erro (Map<String, String>) não passam pelo MapSerializer do Jackson:
+ * o ProductJsonConverter reconhece o tipo declarado ResponseEntity<Map<String, String>>
+ * e escreve as chaves e valores direto no buffer da resposta (veja ProductJsonWriter).
  */
 @RestControllerAdvice // Marca como handler global de exceções para todos os controllers
 public class GlobalExceptionHandler {
@@ -83,6 +99,101 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    /**
+     * Trata exceções do tipo IllegalArgumentException
+     * 
+     * Usada quando o cliente envia parâmetros inválidos que não passam pelo Bean Validation.
+     * Exemplo: um cursor de paginação adulterado ou um limit fora do intervalo permitido.
+     * 
+     * Como IllegalArgumentException é subclasse de RuntimeException, o Spring escolhe
+     * sempre o handler MAIS ESPECÍFICO: este método, e não o handleRuntimeException.
+     * 
+     * @param ex A exceção que foi lançada
+     * @return ResponseEntity com o erro formatado em JSON
+     * 
+     * Exemplo de resposta JSON:
+     * {
+     *   "message": "Cursor inválido",
+     *   "status": "400"
+     * }
+     */
+    @ExceptionHandler(IllegalArgumentException.class) // Trata parâmetros inválidos
+    public ResponseEntity<Map<String, String>> handleIllegalArgumentException(IllegalArgumentException ex) {
+        // Cria um Map para construir a resposta JSON de erro
+        Map<String, String> error = new HashMap<>();
+        error.put("message", ex.getMessage());
+        
+        // Adiciona o código HTTP 400 (Bad Request) ao JSON
+        error.put("status", String.valueOf(HttpStatus.BAD_REQUEST.value()));
+        
+        // Retorna resposta HTTP 400 com o JSON de erro no corpo
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+    }
+
+    /**
+     * Trata parâmetros de URL com o tipo errado
+     * 
+     * Exemplo: GET /products?limit=abc. O Spring não consegue converter "abc" para
+     * o int do parâmetro limit e lança MethodArgumentTypeMismatchException antes de
+     * chamar o controller. É um parâmetro inválido como outro qualquer: respondemos
+     * 400 no mesmo formato do handleIllegalArgumentException.
+     * (Sem este método, o handleRuntimeException responderia um 404 enganoso.)
+     * 
+     * @param ex A exceção que foi lançada
+     * @return ResponseEntity com o erro formatado em JSON
+     * 
+     * Exemplo de resposta JSON:
+     * {
+     *   "message": "Parâmetro 'limit' inválido: abc",
+     *   "status": "400"
+     * }
+     */
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class) // Trata parâmetros com o tipo errado
+    public ResponseEntity<Map<String, String>> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return handleIllegalArgumentException(
+                new IllegalArgumentException("Parâmetro '" + ex.getName() + "' inválido: " + ex.getValue()));
+    }
+
+    /**
+     * Trata a falta de conexões disponíveis com o banco (sobrecarga)
+     * 
+     * Quando todas as conexões estão em uso e a requisição espera mais que
+     * "app.datasource.acquire-timeout" na fila do BoundedDataSource, o Spring
+     * lança uma destas exceções:
+     * - CannotCreateTransactionException: ao abrir uma transação (@Transactional)
+     * - DataAccessResourceFailureException: ao executar uma consulta fora de transação
+     * 
+     * A DatabaseOverloadedException (limite adaptativo do RepositoryConcurrencyLimiter)
+     * é uma DataAccessResourceFailureException e também chega aqui.
+     * 
+     * Respondemos 503 (Service Unavailable) com o cabeçalho Retry-After, indicando
+     * ao cliente que o problema é temporário e que ele pode tentar de novo.
+     * (Sem este método, o handleRuntimeException responderia um 404 enganoso.)
+     * 
+     * @param ex A exceção que foi lançada
+     * @return ResponseEntity com o erro formatado em JSON
+     * 
+     * Exemplo de resposta JSON:
+     * {
+     *   "message": "Serviço temporariamente sobrecarregado, tente novamente",
+     *   "status": "503"
+     * }
+     */
+    @ExceptionHandler({CannotCreateTransactionException.class, DataAccessResourceFailureException.class})
+    public ResponseEntity<Map<String, String>> handleDatabaseUnavailable(RuntimeException ex) {
+        // Cria um Map para construir a resposta JSON de erro
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Serviço temporariamente sobrecarregado, tente novamente");
+        
+        // Adiciona o código HTTP 503 (Service Unavailable) ao JSON
+        error.put("status", String.valueOf(HttpStatus.SERVICE_UNAVAILABLE.value()));
+        
+        // Retorna resposta HTTP 503 pedindo ao cliente que tente de novo em 1 segundo
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(error);
+    }
+
     /**
      * Trata exceções de validação (Bean Validation)
      * 
@@ -0,0 +1,353 @@
+// Declaração do pacote - organiza a classe no pacote gRPC
+package com.example.projeto_test.grpc;
+
+// Importa os DTOs e a entidade usados pelo ProductService
+import com.example.projeto_test.dto.ProductBatchResult;
+import com.example.projeto_test.dto.ProductPage;
+import com.example.projeto_test.model.Product;
+
+// Importa a exceção que vira NOT_FOUND (as demais viram INTERNAL)
+import com.example.projeto_test.exception.ProductNotFoundException;
+
+// Importa as mensagens e a base do serviço geradas a partir de src/main/proto/product_catalog.proto
+import com.example.projeto_test.grpc.proto.CreateProductRequest;
+import com.example.projeto_test.grpc.proto.CreateProductResult;
+import com.example.projeto_test.grpc.proto.CreateProductsResponse;
+import com.example.projeto_test.grpc.proto.DeleteProductRequest;
+import com.example.projeto_test.grpc.proto.DeleteProductResponse;
+import com.example.projeto_test.grpc.proto.GetProductRequest;
+import com.example.projeto_test.grpc.proto.ListProductsRequest;
+import com.example.projeto_test.grpc.proto.ProductCatalogGrpc;
+import com.example.projeto_test.grpc.proto.ProductMessage;
+import com.example.projeto_test.grpc.proto.UpdateProductRequest;
+
+// Importa o Service: o gRPC segue o mesmo fluxo do REST (Service → Repository)
+import com.example.projeto_test.service.ProductService;
+
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+
+// Importa o Validator do Bean Validation (as mensagens protobuf não passam pelo @Valid)
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço gRPC do Catálogo de Produtos (products.v1.ProductCatalog)
+ *
+ * Expõe as mesmas operações do ProductController em protobuf sobre HTTP/2, para
+ * os consumidores internos: várias chamadas simultâneas dividem a mesma conexão
+ * (multiplexação) e as mensagens binárias são menores e mais baratas de ler que JSON.
+ *
+ * Toda a regra de negócio continua no ProductService (cache, índices, snapshot,
+ * métricas @Timed); esta classe só converte mensagens e erros.
+ *
+ * ERROS (equivalentes aos do GlobalExceptionHandler):
+ * - IllegalArgumentException e validação → INVALID_ARGUMENT (HTTP 400)
+ * - Banco indisponível ou pool esgotado → UNAVAILABLE (HTTP 503)
+ * - ProductNotFoundException → NOT_FOUND (HTTP 404)
+ * - Qualquer outro erro → INTERNAL (HTTP 500): um erro inesperado não se disfarça de 404
+ *
+ * O servidor que publica este serviço é o GrpcServer (porta app.grpc.port).
+ */
+@Component // Registra como bean do Spring (adicionado ao servidor pelo GrpcServer)
+public class ProductGrpcService extends ProductCatalogGrpc.ProductCatalogImplBase {
+
+    /**
+     * Produtos gravados por transação no CreateProducts
+     *
+     * O fluxo do cliente é gravado em blocos: a memória fica limitada ao bloco
+     * atual e cada bloco usa o mesmo caminho em lote do POST /products/batch.
+     */
+    static final int BULK_CHUNK_SIZE = 1_000;
+
+    @Autowired // Injeção de dependência: a mesma instância usada pelo ProductController
+    private ProductService productService;
+
+    /**
+     * Validator do Bean Validation (configurado automaticamente pelo Spring Boot)
+     */
+    @Autowired
+    private Validator validator;
+
+    /**
+     * Equivalente ao GET /products/{id}
+     */
+    @Override
+    public void getProduct(GetProductRequest request, StreamObserver<ProductMessage> responseObserver) {
+        unary(responseObserver, () -> toMessage(productService.getProductById(request.getId())));
+    }
+
+    /**
+     * Equivalente ao POST /products
+     */
+    @Override
+    public void createProduct(CreateProductRequest request, StreamObserver<ProductMessage> responseObserver) {
+        unary(responseObserver, () -> {
+            Product product = validated(new Product(null, request.getName(), request.getPriceInCents(), null));
+            return toMessage(productService.createProduct(product));
+        });
+    }
+
+    /**
+     * Equivalente ao PUT /products/{id}
+     */
+    @Override
+    public void updateProduct(UpdateProductRequest request, StreamObserver<ProductMessage> responseObserver) {
+        unary(responseObserver, () -> {
+            Product details = validated(new Product(null, request.getName(), request.getPriceInCents(), null));
+            return toMessage(productService.updateProduct(request.getId(), details));
+        });
+    }
+
+    /**
+     * Equivalente ao DELETE /products/{id}
+     */
+    @Override
+    public void deleteProduct(DeleteProductRequest request, StreamObserver<DeleteProductResponse> responseObserver) {
+        unary(responseObserver, () -> {
+            productService.deleteProduct(request.getId());
+            return DeleteProductResponse.getDefaultInstance();
+        });
+    }
+
+    /**
+     * Catálogo inteiro em fluxo (server streaming), em ordem de id
+     *
+     * As páginas são lidas pela mesma paginação por cursor do GET /products, uma
+     * de cada vez e SOMENTE quando o cliente consumiu a anterior: o envio respeita
+     * o controle de fluxo do HTTP/2 (isReady / onReady), então um cliente lento
+     * não faz o servidor carregar o catálogo inteiro em memória.
+     */
+    @Override
+    public void listProducts(ListProductsRequest request, StreamObserver<ProductMessage> responseObserver) {
+        int pageSize = request.getPageSize() == 0 ? ProductService.DEFAULT_PAGE_SIZE : request.getPageSize();
+        ServerCallStreamObserver<ProductMessage> call = (ServerCallStreamObserver<ProductMessage>) responseObserver;
+        ProductStream stream = new ProductStream(call, pageSize);
+        // Com um handler registrado, onNext depois do cancelamento não lança exceção
+        call.setOnCancelHandler(stream::cancel);
+        call.setOnReadyHandler(stream);
+    }
+
+    /**
+     * Criação em lote em fluxo (client streaming)
+     *
+     * Mesmas regras do POST /products/batch: cada item é validado sozinho (os
+     * inválidos voltam com os erros por campo, sem derrubar os outros) e o fluxo
+     * inteiro pode ter no máximo ProductService.MAX_BATCH_SIZE produtos.
+     *
+     * Diferente do REST, os blocos de BULK_CHUNK_SIZE são confirmados conforme
+     * chegam: se o fluxo falhar no meio, os blocos anteriores continuam gravados
+     * (a resposta de erro informa quantos produtos já tinham sido criados).
+     */
+    @Override
+    public StreamObserver<CreateProductRequest> createProducts(StreamObserver<CreateProductsResponse> responseObserver) {
+        return new StreamObserver<>() {
+
+            private final List<Product> chunk = new ArrayList<>(BULK_CHUNK_SIZE);
+            private final CreateProductsResponse.Builder response = CreateProductsResponse.newBuilder();
+
+            /**
+             * Posição (no fluxo) do primeiro item do bloco atual
+             */
+            private int offset;
+
+            private boolean failed;
+
+            @Override
+            public void onNext(CreateProductRequest request) {
+                if (failed) {
+                    return;
+                }
+                if (offset + chunk.size() == ProductService.MAX_BATCH_SIZE) {
+                    fail(new IllegalArgumentException("O lote deve ter no máximo " + ProductService.MAX_BATCH_SIZE + " produtos"));
+                    return;
+                }
+                chunk.add(new Product(null, request.getName(), request.getPriceInCents(), null));
+                if (chunk.size() == BULK_CHUNK_SIZE) {
+                    flush();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                // Cliente cancelou ou a conexão caiu: os blocos já gravados permanecem
+                failed = true;
+                chunk.clear();
+            }
+
+            @Override
+            public void onCompleted() {
+                if (failed) {
+                    return;
+                }
+                flush();
+                if (!failed) {
+                    responseObserver.onNext(response.build());
+                    responseObserver.onCompleted();
+                }
+            }
+
+            /**
+             * Grava o bloco atual (uma transação) e acumula os resultados
+             *
+             * Roda na thread da chamada: enquanto o bloco é gravado, o gRPC não
+             * pede mais mensagens ao cliente (o fluxo se ajusta ao banco).
+             */
+            private void flush() {
+                if (chunk.isEmpty()) {
+                    return;
+                }
+                try {
+                    for (ProductBatchResult result : productService.createProducts(chunk)) {
+                        CreateProductResult.Builder item = CreateProductResult.newBuilder()
+                                .setIndex(offset + result.index());
+                        if (result.isCreated()) {
+                            item.setProduct(toMessage(result.product()));
+                            response.setCreated(response.getCreated() + 1);
+                        } else {
+                            item.putAllErrors(result.errors());
+                            response.setRejected(response.getRejected() + 1);
+                        }
+                        response.addResults(item);
+                    }
+                    offset += chunk.size();
+                    chunk.clear();
+                } catch (RuntimeException ex) {
+                    fail(ex);
+                }
+            }
+
+            private void fail(RuntimeException ex) {
+                failed = true;
+                chunk.clear();
+                Status status = toStatus(ex);
+                responseObserver.onError(status
+                        .withDescription(status.getDescription() + " (" + response.getCreated() + " produtos já criados)")
+                        .asRuntimeException());
+            }
+        };
+    }
+
+    /**
+     * Envia o catálogo página a página, sempre que o transporte aceitar mais mensagens
+     *
+     * O gRPC chama run() quando a chamada fica pronta para enviar (onReady); o
+     * laço envia enquanto isReady() for true e busca a próxima página apenas
+     * quando a atual acabou. As chamadas de onReady de uma mesma chamada nunca
+     * rodam em paralelo, então o estado não precisa de sincronização.
+     */
+    private final class ProductStream implements Runnable {
+
+        private final ServerCallStreamObserver<ProductMessage> call;
+        private final int pageSize;
+
+        private Iterator<Product> page = Collections.emptyIterator();
+        private String cursor;
+        private boolean lastPage;
+        private volatile boolean done;
+
+        ProductStream(ServerCallStreamObserver<ProductMessage> call, int pageSize) {
+            this.call = call;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public void run() {
+            if (done) {
+                return;
+            }
+            try {
+                while (!done && call.isReady()) {
+                    if (page.hasNext()) {
+                        call.onNext(toMessage(page.next()));
+                    } else if (lastPage) {
+                        done = true;
+                        call.onCompleted();
+                    } else {
+                        ProductPage next = productService.getProductsPage(cursor, pageSize);
+                        page = next.items().iterator();
+                        cursor = next.nextCursor();
+                        lastPage = cursor == null;
+                    }
+                }
+            } catch (RuntimeException ex) {
+                done = true;
+                call.onError(toStatus(ex).asRuntimeException());
+            }
+        }
+
+        void cancel() {
+            done = true;
+        }
+    }
+
+    /**
+     * Executa uma chamada unária: uma resposta em caso de sucesso ou o status de erro
+     */
+    private static <T> void unary(StreamObserver<T> responseObserver, Supplier<T> call) {
+        T response;
+        try {
+            response = call.get();
+        } catch (RuntimeException ex) {
+            responseObserver.onError(toStatus(ex).asRuntimeException());
+            return;
+        }
+        responseObserver.onNext(response);
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Valida o produto como o @Valid do controller
+     *
+     * @throws IllegalArgumentException Com os erros por campo ("name: ...; priceInCents: ...")
+     */
+    private Product validated(Product product) {
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return product;
+    }
+
+    /**
+     * Converte as exceções do ProductService no status gRPC equivalente ao HTTP do GlobalExceptionHandler
+     */
+    static Status toStatus(RuntimeException ex) {
+        if (ex instanceof IllegalArgumentException) {
+            return Status.INVALID_ARGUMENT.withDescription(ex.getMessage());
+        }
+        if (ex instanceof CannotCreateTransactionException || ex instanceof DataAccessResourceFailureException) {
+            return Status.UNAVAILABLE.withDescription("Serviço temporariamente sobrecarregado, tente novamente");
+        }
+        if (ex instanceof ProductNotFoundException) {
+            return Status.NOT_FOUND.withDescription(ex.getMessage());
+        }
+        return Status.INTERNAL.withDescription("Erro interno").withCause(ex);
+    }
+
+    private static ProductMessage toMessage(Product product) {
+        return ProductMessage.newBuilder()
+                .setId(product.getId())
+                .setName(product.getName())
+                .setPriceInCents(product.getPriceInCents())
+                .setVersion(product.getVersion() != null ? product.getVersion() : 0)
+                .build();
+    }
+}
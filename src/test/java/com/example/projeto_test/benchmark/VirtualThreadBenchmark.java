@@ -0,0 +1,243 @@
+package com.example.projeto_test.benchmark;
+
+import com.example.projeto_test.ProjetoTestApplication;
+import com.example.projeto_test.model.Product;
+import com.example.projeto_test.service.ProductService;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark: Threads da Plataforma x Threads Virtuais
+ *
+ * Sobe a aplicação (H2) duas vezes, uma com spring.threads.virtual.enabled=false e
+ * outra com true, e dispara a mesma carga contra as duas:
+ * - 90% GET /products/{id} de um produto "quente" (atendido pelo cache, sem banco)
+ * - 10% GET /products?limit=20 (vai ao banco)
+ *
+ * Para imitar um banco lento, cada conexão fica presa por "dbLatencyMs" antes de
+ * voltar ao pool. Com 10 conexões, as leituras no banco formam fila; no modo de
+ * threads da plataforma essa fila ocupa as 200 threads do Tomcat e as leituras do
+ * cache também ficam esperando. Com threads virtuais, só quem precisa do banco espera.
+ *
+ * Não é um teste (o nome não termina em Test/Tests, então o Maven não o executa).
+ * Rode pela IDE ou com:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *     -Dexec.mainClass=com.example.projeto_test.benchmark.VirtualThreadBenchmark
+ *     -Dexec.args="1000 15 20"
+ *
+ * Argumentos: [clientes simultâneos] [segundos por modo] [latência do banco em ms]
+ */
+public class VirtualThreadBenchmark {
+
+    private static final int SEED_PRODUCTS = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        // O DevTools reiniciaria a aplicação em outra classloader ao subir pelo main()
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 1_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+        int dbLatencyMs = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        System.out.printf("clientes=%d, duração=%ds por modo, latência do banco=%dms%n",
+                clients, seconds, dbLatencyMs);
+        for (boolean virtual : new boolean[] {false, true}) {
+            run(virtual, clients, seconds, dbLatencyMs);
+        }
+    }
+
+    private static void run(boolean virtual, int clients, int seconds, int dbLatencyMs) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ProjetoTestApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        // Todos os clientes saem do mesmo IP: o limite de taxa recusaria quase tudo com 429
+                        "app.ratelimit.enabled=false",
+                        "spring.jpa.show-sql=false",
+                        "spring.h2.console.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark-" + virtual)
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(slowDatabase(dbLatencyMs)))
+                .run()) {
+
+            ProductService productService = context.getBean(ProductService.class);
+            List<Product> seed = IntStream.range(0, SEED_PRODUCTS)
+                    .mapToObj(i -> new Product(null, "Produto " + i, 1_000 + i, null))
+                    .toList();
+            long hotId = productService.createProducts(seed).getFirst().product().getId();
+
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            Result result = drive(base, hotId, clients, Duration.ofSeconds(seconds));
+            result.print(virtual ? "threads virtuais" : "threads da plataforma");
+        }
+    }
+
+    /**
+     * Carga em circuito fechado: cada cliente envia a próxima requisição assim que
+     * recebe a resposta da anterior. Os clientes rodam em threads virtuais para que
+     * o próprio gerador de carga não seja o gargalo.
+     */
+    private static Result drive(String base, long hotId, int clients, Duration duration) throws Exception {
+        Result result = new Result();
+        URI cached = URI.create(base + "/products/" + hotId);
+        URI database = URI.create(base + "/products?limit=20");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(executor)
+                     .build()) {
+
+            // Aquecimento: coloca o produto quente no cache
+            http.send(HttpRequest.newBuilder(cached).build(), HttpResponse.BodyHandlers.discarding());
+
+            long deadline = System.nanoTime() + duration.toNanos();
+            List<Thread> threads = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                threads.add(Thread.ofVirtual().start(() -> {
+                    LongList cacheLatencies = new LongList();
+                    LongList databaseLatencies = new LongList();
+                    while (System.nanoTime() < deadline) {
+                        boolean hitsDatabase = ThreadLocalRandom.current().nextInt(10) == 0;
+                        HttpRequest request = HttpRequest.newBuilder(hitsDatabase ? database : cached).build();
+                        long start = System.nanoTime();
+                        try {
+                            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status == 503) {
+                                result.rejected.incrementAndGet();
+                                continue;
+                            }
+                            if (status < 200 || status >= 300) {
+                                // Erros rápidos (429, 4xx, 5xx) não entram nas latências
+                                result.errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception ex) {
+                            result.failed.incrementAndGet();
+                            continue;
+                        }
+                        (hitsDatabase ? databaseLatencies : cacheLatencies).add(System.nanoTime() - start);
+                    }
+                    result.cache.add(cacheLatencies.toArray());
+                    result.database.add(databaseLatencies.toArray());
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+        result.elapsedNanos = duration.toNanos();
+        return result;
+    }
+
+    /**
+     * Simula um banco lento: cada conexão demora "latencyMs" para voltar ao pool,
+     * como se cada consulta levasse esse tempo no servidor.
+     */
+    private static BeanPostProcessor slowDatabase(int latencyMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || !"dataSource".equals(beanName)) {
+                    return bean;
+                }
+                return new DelegatingDataSource(dataSource) {
+                    @Override
+                    public Connection getConnection() throws SQLException {
+                        Connection connection = super.getConnection();
+                        return (Connection) Proxy.newProxyInstance(
+                                Connection.class.getClassLoader(),
+                                new Class<?>[] {Connection.class},
+                                (proxy, method, methodArgs) -> {
+                                    if ("close".equals(method.getName())) {
+                                        Thread.sleep(latencyMs);
+                                    }
+                                    try {
+                                        return method.invoke(connection, methodArgs);
+                                    } catch (InvocationTargetException ex) {
+                                        throw ex.getTargetException();
+                                    }
+                                });
+                    }
+                };
+            }
+        };
+    }
+
+    private static final class Result {
+        final ConcurrentLinkedQueue<long[]> cache = new ConcurrentLinkedQueue<>();
+        final ConcurrentLinkedQueue<long[]> database = new ConcurrentLinkedQueue<>();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        long elapsedNanos;
+
+        void print(String mode) {
+            long[] cacheAll = merge(cache);
+            long[] databaseAll = merge(database);
+            double throughput = (cacheAll.length + databaseAll.length) / (elapsedNanos / 1e9);
+            System.out.printf("%n== %s ==%n", mode);
+            System.out.printf("vazão: %.0f req/s (503: %d, outros não-2xx: %d, falhas: %d)%n",
+                    throughput, rejected.get(), errors.get(), failed.get());
+            System.out.printf("cache: n=%d p50=%.1fms p99=%.1fms%n",
+                    cacheAll.length, percentile(cacheAll, 50), percentile(cacheAll, 99));
+            System.out.printf("banco: n=%d p50=%.1fms p99=%.1fms%n",
+                    databaseAll.length, percentile(databaseAll, 50), percentile(databaseAll, 99));
+        }
+
+        private static long[] merge(ConcurrentLinkedQueue<long[]> parts) {
+            long[] all = parts.stream().flatMapToLong(Arrays::stream).toArray();
+            Arrays.sort(all);
+            return all;
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+
+    /**
+     * Lista de long sem boxing (evita criar um objeto Long por medição)
+     */
+    private static final class LongList {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
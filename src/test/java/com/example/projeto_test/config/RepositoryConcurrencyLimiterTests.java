@@ -0,0 +1,202 @@
+package com.example.projeto_test.config;
+
+import com.example.projeto_test.dto.ProductBatchResult;
+import com.example.projeto_test.exception.DatabaseOverloadedException;
+import com.example.projeto_test.model.Product;
+import com.example.projeto_test.repository.ProductRepository;
+import com.example.projeto_test.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Limite de concorrência adaptativo na frente do ProductRepository
+ *
+ * A latência do banco é simulada dentro do próprio H2: a função SIMULATED_LATENCY
+ * (CREATE ALIAS) dorme pelo tempo pedido, ocupando a conexão como uma consulta lenta.
+ */
+@SpringBootTest
+public class RepositoryConcurrencyLimiterTests {
+
+	@Autowired
+	private RepositoryConcurrencyLimiter limiter;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Chamada pelo H2 em "CALL SIMULATED_LATENCY(ms)" (precisa ser pública)
+	 */
+	public static void simulatedLatency(int millis) throws InterruptedException {
+		Thread.sleep(millis);
+	}
+
+	@BeforeEach
+	void createLatencyFunction() {
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS SIMULATED_LATENCY FOR '"
+				+ RepositoryConcurrencyLimiterTests.class.getName() + ".simulatedLatency'");
+	}
+
+	@Test
+	void classifiesRepositoryMethodsByOperation() throws Exception {
+		assertEquals(RepositoryConcurrencyLimiter.Operation.READ, RepositoryConcurrencyLimiter.operationOf(
+				ProductRepository.class.getMethod("findViewById", Long.class)));
+		assertEquals(RepositoryConcurrencyLimiter.Operation.LIST, RepositoryConcurrencyLimiter.operationOf(
+				ProductRepository.class.getMethod("findPageAfter", Long.class, Limit.class)));
+		assertEquals(RepositoryConcurrencyLimiter.Operation.WRITE, RepositoryConcurrencyLimiter.operationOf(
+				ProductRepository.class.getMethod("save", Object.class)));
+	}
+
+	@Test
+	void shedsRepositoryCallsAboveTheLimitImmediately() {
+		AdaptiveConcurrencyLimit reads = limiter.limit(RepositoryConcurrencyLimiter.Operation.READ);
+		List<Integer> held = new ArrayList<>();
+		try {
+			// Ocupa todas as vagas de leitura, como chamadas lentas ainda em andamento
+			for (int inFlight = reads.tryAcquire(); inFlight > 0; inFlight = reads.tryAcquire()) {
+				held.add(inFlight);
+			}
+			long shedBefore = reads.getShed();
+			long start = System.nanoTime();
+			assertThrows(DatabaseOverloadedException.class, () -> productRepository.findViewById(1L));
+			assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100), "A recusa deveria ser imediata");
+			assertEquals(shedBefore + 1, reads.getShed());
+
+			// As escritas têm limite próprio e continuam passando
+			Product saved = productRepository.save(new Product(null, "Teclado", 15000, null));
+			assertTrue(saved.getId() != null);
+		} finally {
+			for (int inFlight : held) {
+				reads.release(inFlight, TimeUnit.MILLISECONDS.toNanos(1), false);
+			}
+		}
+	}
+
+	@Test
+	void classifiesWhichCallsAreLatencySamples() throws Exception {
+		assertEquals(RepositoryConcurrencyLimiter.Sampling.OUTSIDE_TRANSACTION, RepositoryConcurrencyLimiter.samplingOf(
+				ProductRepository.class.getMethod("save", Object.class)));
+		assertEquals(RepositoryConcurrencyLimiter.Sampling.ALWAYS, RepositoryConcurrencyLimiter.samplingOf(
+				ProductRepository.class.getMethod("findViewById", Long.class)));
+	}
+
+	@Test
+	void bulkCreateDoesNotCollapseTheWriteLimit() throws Exception {
+		AdaptiveConcurrencyLimit writes = limiter.limit(RepositoryConcurrencyLimiter.Operation.WRITE);
+
+		// 2000 saves em uma transação: só enfileiram os INSERTs, não são amostras de latência
+		List<Product> batch = IntStream.range(0, 2_000)
+				.mapToObj(i -> new Product(null, "Produto " + i, 1_000 + i, null))
+				.toList();
+		long[] ids = productService.createProducts(batch).stream()
+				.map(ProductBatchResult::product)
+				.mapToLong(Product::getId)
+				.toArray();
+		long shedBefore = writes.getShed();
+
+		// Atualizações concorrentes (idas reais ao banco): nenhuma deveria ser recusada
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int first = t;
+				futures.add(executor.submit(() -> {
+					for (int i = first; i < 800; i += threads) {
+						productService.updateProduct(ids[i], new Product(null, "Atualizado " + i, 2_000 + i, null));
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(1, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		assertEquals(shedBefore, writes.getShed(), "Atualizações recusadas: o limite de escrita caiu");
+		assertTrue(writes.getLimit() > 1, "O limite de escrita caiu até o mínimo");
+	}
+
+	@Test
+	void limitShrinksWhenTheDatabaseSlowsDownAndRecovers() throws Exception {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 20);
+
+		// Banco rápido (5 ms): o limite cresce
+		runLoad(limit, 8, 200, 5);
+		int fastLimit = limit.getLimit();
+
+		// Banco 10x mais lento, com mais clientes que conexões: o limite encolhe e o excesso é recusado
+		runLoad(limit, 32, 300, 50);
+		int slowLimit = limit.getLimit();
+		assertTrue(slowLimit < fastLimit, "Limite deveria cair com o banco lento: " + fastLimit + " -> " + slowLimit);
+		assertTrue(limit.getShed() > 0, "Chamadas acima do limite deveriam ser recusadas");
+
+		// Banco rápido de novo: o limite volta a crescer
+		runLoad(limit, 32, 600, 5);
+		assertTrue(limit.getLimit() > slowLimit, "Limite deveria voltar a crescer: " + slowLimit + " -> " + limit.getLimit());
+		assertEquals(0, limit.getInFlight());
+	}
+
+	/**
+	 * Clientes chamando o banco até completar "calls" chamadas; quem é recusado tenta de novo em 1 ms
+	 */
+	private void runLoad(AdaptiveConcurrencyLimit limit, int clients, int calls, int latencyMillis) throws Exception {
+		AtomicInteger remaining = new AtomicInteger(calls);
+		ExecutorService executor = Executors.newFixedThreadPool(clients);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < clients; i++) {
+				futures.add(executor.submit(() -> {
+					while (remaining.get() > 0) {
+						int inFlight = limit.tryAcquire();
+						if (inFlight < 0) {
+							Thread.sleep(1);
+							continue;
+						}
+						long start = System.nanoTime();
+						try {
+							jdbcTemplate.execute("CALL SIMULATED_LATENCY(" + latencyMillis + ")");
+						} finally {
+							limit.release(inFlight, System.nanoTime() - start, false);
+						}
+						remaining.decrementAndGet();
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(1, TimeUnit.MINUTES);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
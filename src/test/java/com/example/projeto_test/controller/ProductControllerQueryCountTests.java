@@ -0,0 +1,198 @@
+package com.example.projeto_test.controller;
+
+import com.example.projeto_test.cache.ProductCatalogSnapshot;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+/**
+ * Limite de comandos SQL por endpoint do ProductController
+ * 
+ * Lê o cabeçalho Server-Timing (ServerTimingFilter) de cada resposta. Se uma
+ * mudança fizer um endpoint executar mais consultas (N+1, SELECT antes do
+ * UPDATE/DELETE...), o teste falha e o build quebra.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProductControllerQueryCountTests {
+
+	private static final Pattern STATEMENTS = Pattern.compile("db;dur=[0-9.]+;desc=\"(\\d+) statements\"");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private ProductCatalogSnapshot productCatalogSnapshot;
+
+	@Test
+	void createRunsAtMostInsertAndSequence() throws Exception {
+		assertAtMost(HttpStatus.CREATED, 2, post("/products").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"Notebook\",\"priceInCents\":250000}"));
+	}
+
+	@Test
+	void batchStatementsDoNotGrowWithEachItem() throws Exception {
+		StringBuilder body = new StringBuilder("[");
+		for (int i = 0; i < 120; i++) {
+			body.append(i == 0 ? "" : ",").append("{\"name\":\"Produto ").append(i).append("\",\"priceInCents\":100}");
+		}
+		body.append(']');
+		// 3 lotes de INSERT (batch_size=50) + até 4 blocos de ids da sequence
+		assertAtMost(HttpStatus.CREATED, 7, post("/products/batch").contentType(MediaType.APPLICATION_JSON).content(body.toString()));
+	}
+
+	@Test
+	void suggestRunsNoQuery() throws Exception {
+		createProduct();
+		assertStatements(HttpStatus.OK, 0, get("/products/suggest").param("prefix", "mou"));
+	}
+
+	@Test
+	void statsRunOneQuery() throws Exception {
+		createProduct();
+		assertStatements(HttpStatus.OK, 1, get("/products/stats"));
+	}
+
+	@Test
+	void histogramRunsOneQuery() throws Exception {
+		createProduct();
+		assertStatements(HttpStatus.OK, 1, get("/products/price-histogram").param("buckets", "20"));
+	}
+
+	@Test
+	void priceRangeRunsNoQuery() throws Exception {
+		createProduct();
+		assertStatements(HttpStatus.OK, 0, get("/products/analytics/price-range").param("minInCents", "1").param("maxInCents", "100000"));
+		assertStatements(HttpStatus.OK, 0, get("/products/analytics/price-range/ids").param("maxInCents", "100000"));
+	}
+
+	@Test
+	void exportIsServedFromTheSnapshotOnceBuilt() throws Exception {
+		createProduct();
+		// A primeira exportação transmite em streaming e guarda o próprio gzip quando termina
+		MvcResult first = mockMvc.perform(get("/products/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andReturn();
+		mockMvc.perform(asyncDispatch(first));
+		ProductCatalogSnapshot.Snapshot built = productCatalogSnapshot.current();
+		assertNotNull(built, "A exportação com gzip deveria ter guardado o snapshot");
+
+		// As seguintes são o próprio snapshot: mesmos bytes, e nenhum snapshot novo foi construído
+		MvcResult second = mockMvc.perform(get("/products/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip")).andReturn();
+		MvcResult response = mockMvc.perform(asyncDispatch(second)).andReturn();
+		assertEquals(HttpStatus.OK.value(), response.getResponse().getStatus());
+		assertEquals("gzip", response.getResponse().getHeader(HttpHeaders.CONTENT_ENCODING));
+		assertArrayEquals(built.gzip(), response.getResponse().getContentAsByteArray());
+		assertSame(built, productCatalogSnapshot.current());
+	}
+
+	@Test
+	void listRunsOneQuery() throws Exception {
+		createProduct();
+		assertStatements(HttpStatus.OK, 1, get("/products").param("limit", "50"));
+	}
+
+	@Test
+	void searchRunsOneQuery() throws Exception {
+		createProduct();
+		assertStatements(HttpStatus.OK, 1, get("/products/search").param("q", "mouse").param("limit", "20"));
+	}
+
+	@Test
+	void getByIdRunsOneQueryThenHitsTheCache() throws Exception {
+		long id = createProduct();
+		assertStatements(HttpStatus.OK, 1, get("/products/{id}", id));
+		assertStatements(HttpStatus.OK, 0, get("/products/{id}", id));
+		assertStatements(HttpStatus.NOT_MODIFIED, 0, get("/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""));
+	}
+
+	@Test
+	void conditionalGetRunsOneQuery() throws Exception {
+		long id = createProduct();
+		assertStatements(HttpStatus.NOT_MODIFIED, 1, get("/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""));
+	}
+
+	@Test
+	void updateRunsOneStatement() throws Exception {
+		long id = createProduct();
+		assertStatements(HttpStatus.OK, 1, put("/products/{id}", id).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"Notebook Pro\",\"priceInCents\":300000}"));
+	}
+
+	@Test
+	void patchRunsOneStatement() throws Exception {
+		long id = createProduct();
+		assertStatements(HttpStatus.OK, 1, patch("/products/{id}", id).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"priceInCents\":199900}"));
+	}
+
+	@Test
+	void deleteRunsOneStatement() throws Exception {
+		long id = createProduct();
+		assertStatements(HttpStatus.NO_CONTENT, 1, delete("/products/{id}", id));
+		assertStatements(HttpStatus.NOT_FOUND, 1, delete("/products/{id}", id));
+	}
+
+	private long createProduct() throws Exception {
+		MvcResult result = mockMvc.perform(post("/products").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"name\":\"Mouse\",\"priceInCents\":5000}")).andReturn();
+		JsonNode product = objectMapper.readTree(result.getResponse().getContentAsString());
+		return product.path("id").asLong();
+	}
+
+	private void assertStatements(HttpStatus status, int expectedStatements, RequestBuilder request) throws Exception {
+		MvcResult result = perform(status, request);
+		int statements = statementsOf(result);
+		assertEquals(expectedStatements, statements, result.getRequest().getMethod() + " "
+				+ result.getRequest().getRequestURI() + " executou " + statements
+				+ " comandos SQL, o esperado é " + expectedStatements);
+	}
+
+	private void assertAtMost(HttpStatus status, int maxStatements, RequestBuilder request) throws Exception {
+		MvcResult result = perform(status, request);
+		int statements = statementsOf(result);
+		assertTrue(statements <= maxStatements, result.getRequest().getMethod() + " "
+				+ result.getRequest().getRequestURI() + " executou " + statements
+				+ " comandos SQL, o limite é " + maxStatements);
+	}
+
+	private MvcResult perform(HttpStatus status, RequestBuilder request) throws Exception {
+		MvcResult result = mockMvc.perform(request).andReturn();
+		assertEquals(status.value(), result.getResponse().getStatus(), result.getRequest().getMethod() + " "
+				+ result.getRequest().getRequestURI() + ": status inesperado");
+		return result;
+	}
+
+	private int statementsOf(MvcResult result) {
+		String serverTiming = result.getResponse().getHeader("Server-Timing");
+		assertNotNull(serverTiming, "Resposta sem cabeçalho Server-Timing");
+		Matcher matcher = STATEMENTS.matcher(serverTiming);
+		assertTrue(matcher.find(), "Server-Timing inesperado: " + serverTiming);
+		return Integer.parseInt(matcher.group(1));
+	}
+}